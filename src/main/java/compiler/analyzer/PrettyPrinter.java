@@ -123,6 +123,18 @@ public class PrettyPrinter implements Node.Visitor {
         tabs--;
     }
 
+    @Override
+    public void visitStructDecl(StructDeclNode n) {
+        printWithTabs("StructDeclNode");
+        tabs++;
+
+        addBeautify("struct-name", n.getIden());
+        for (IdenNode field : n.fields)
+            addBeautify("field", field);
+
+        tabs--;
+    }
+
     @Override
     public void visitObjCreation(ObjCreationNode n) {
         printWithTabs("ObjCreationNode");
@@ -293,6 +305,8 @@ public class PrettyPrinter implements Node.Visitor {
         tabs++;
 
         addBeautify("Dir:" + n.directory, null);
+        if (n.lazy)
+            addBeautify("Lazy", null);
         for (Map.Entry<IdenNode, IdenNode> entry : n.importAliasMap.entrySet()) {
             addBeautify("Import", entry.getKey());
             addBeautify("Alias", entry.getValue());
@@ -400,6 +414,7 @@ public class PrettyPrinter implements Node.Visitor {
         printWithTabs("ListCompNode");
         tabs++;
 
+        if (n.expr != null) addBeautify("element", n.expr);
         for (CompNode node : n.nested) {
             addBeautify("#comp", node);
         }
@@ -412,6 +427,7 @@ public class PrettyPrinter implements Node.Visitor {
         printWithTabs("LinkCompNode");
         tabs++;
 
+        if (n.expr != null) addBeautify("element", n.expr);
         for (CompNode node : n.nested) {
             addBeautify("#comp", node);
         }
@@ -425,6 +441,7 @@ public class PrettyPrinter implements Node.Visitor {
         printWithTabs("SetCompNode");
         tabs++;
 
+        if (n.expr != null) addBeautify("element", n.expr);
         for (CompNode node : n.nested) {
             addBeautify("#comp", node);
         }
@@ -438,6 +455,8 @@ public class PrettyPrinter implements Node.Visitor {
         printWithTabs("MapCompNode");
         tabs++;
 
+        if (n.expr != null) addBeautify("key", n.expr);
+        if (n.value != null) addBeautify("value", n.value);
         for (CompNode node : n.nested) {
             addBeautify("#comp", node);
         }
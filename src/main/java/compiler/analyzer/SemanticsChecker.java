@@ -31,11 +31,12 @@ package compiler.analyzer;
 
 import compiler.ast.Node;
 import compiler.ast.Node.*;
+import compiler.ir.PrimitiveType;
 import compiler.util.Context;
 import compiler.util.Log;
 import compiler.util.Position;
 
-import java.util.Map;
+import java.util.*;
 
 import static compiler.util.Log.Type.*;
 import static compiler.util.Messages.message;
@@ -66,6 +67,15 @@ public class SemanticsChecker implements Node.Visitor {
 
     private Log log;
 
+    // module functions which touch module state, checked for Function.memo(f) and Function.lru(f, n)
+    private static final Set<String> MEMO_FUNCTIONS = new HashSet<>(Arrays.asList("memo", "lru"));
+    private final Set<String> functions = new HashSet<>();
+    private final Map<String, String> impurities = new HashMap<>();
+    private final Map<String, Node> memoized = new LinkedHashMap<>();
+    private String function = null;
+    // declared result type of the enclosing function
+    private PrimitiveType returnType = null;
+
     public static SemanticsChecker instance(Context context) {
         SemanticsChecker instance = context.get(semanticsKey);
         if (instance == null)
@@ -91,6 +101,17 @@ public class SemanticsChecker implements Node.Visitor {
         for (StmtNode stmt : n.stmts) {
             stmt.accept(this);
         }
+        for (Map.Entry<String, Node> entry : memoized.entrySet()) {
+            String impurity = impurities.get(entry.getKey());
+            if (impurity != null)
+                logWarning(IMPURE_MEMO_FUNCTION, entry.getValue(),
+                        message(IMPURE_MEMO_FUNCTION, entry.getKey(), impurity));
+        }
+    }
+
+    private void impure(String reason) {
+        if (function != null)
+            impurities.putIfAbsent(function, reason);
     }
 
     @Override
@@ -99,12 +120,68 @@ public class SemanticsChecker implements Node.Visitor {
         if (!CST.insert(sym))
             logError(DUPLICATE_SYMBOL, n,
                     message(DUPLICATE_SYMBOL, n.getIden().name));
-        if (n.value != null)
+        PrimitiveType type = typeAnnotation(n.type);
+        if (n.value != null) {
+            checkConvertible(n, n.value, type);
             n.value.accept(this);
+        }
+    }
+
+    private PrimitiveType typeAnnotation(IdenNode type) {
+        if (type == null)
+            return null;
+        PrimitiveType primitive = PrimitiveType.of(type.name);
+        if (primitive == null)
+            logError(UNKNOWN_TYPE, type,
+                    message(UNKNOWN_TYPE, type.name));
+        return primitive;
+    }
+
+    // only literals are checked here, other values where their type is known
+    // when the code is generated, else when it runs
+    private void checkConvertible(Node n, ExprNode value, PrimitiveType type) {
+        if (type == null)
+            return;
+        String found = literalType(value);
+        if (found == null)
+            return;
+        PrimitiveType literal = PrimitiveType.of(found);
+        if (literal != null && literal.widens(type))
+            return;
+        logError(TYPE_MISMATCH, n,
+                message(TYPE_MISMATCH, found, type.getName()));
+    }
+
+    private String literalType(ExprNode value) {
+        if (value instanceof NumLitNode) {
+            Number number = ((NumLitNode) value).lit;
+            if (number instanceof Integer)
+                return PrimitiveType.INT.getName();
+            if (number instanceof Long)
+                return PrimitiveType.LONG.getName();
+            return PrimitiveType.DOUBLE.getName();
+        }
+        if (value instanceof BoolLitNode)
+            return PrimitiveType.BOOLEAN.getName();
+        if (value instanceof StrLitNode)
+            return "string";
+        if (value instanceof NullNode)
+            return "null";
+        if (value instanceof AnnFuncNode)
+            return "function";
+        if (value instanceof ObjCreationNode)
+            return "object";
+        if (value instanceof ListCollNode || value instanceof SetCollNode
+                || value instanceof LinkCollNode || value instanceof MapCollNode)
+            return "collection";
+        return null;
     }
 
     @Override
     public void visitIden(IdenNode n) {
+        if (function != null && CST.declaring(n.name) == GST
+                && !GST.isSymbolConstant(n.name) && !functions.contains(n.name))
+            impure("touches global `" + n.name + "`");
         if (exprType == Expr.LHS) {
             if (CST.isSymbolConstant(n.name)) {
                 logError(REASSIGN_CONSTANT, n,
@@ -154,12 +231,36 @@ public class SemanticsChecker implements Node.Visitor {
         if (!CST.insert(sym))
             logError(DUPLICATE_SYMBOL, n,
                     message(DUPLICATE_SYMBOL, n.getIden().name));
+        String enclosing = function;
+        if (CST == GST) {
+            functions.add(n.getIden().name);
+            function = n.getIden().name;
+        }
         CST = new SymbolTable(CST);
+        boolean wasGlobal = isGlobal;
+        PrimitiveType enclosingType = returnType;
         isGlobal = false;
+        returnType = typeAnnotation(n.returnType);
         n.params.accept(this);
         n.block.accept(this);
-        isGlobal = true;
+        isGlobal = wasGlobal;
+        returnType = enclosingType;
         CST = CST.parent;
+        function = enclosing;
+    }
+
+    @Override
+    public void visitStructDecl(StructDeclNode n) {
+        Symbol sym = symbol(n.getIden().name, false);
+        if (!CST.insert(sym))
+            logError(DUPLICATE_SYMBOL, n,
+                    message(DUPLICATE_SYMBOL, n.getIden().name));
+        Set<String> fields = new HashSet<>();
+        for (IdenNode field : n.fields) {
+            if (!fields.add(field.name))
+                logError(DUPLICATE_SYMBOL, field,
+                        message(DUPLICATE_SYMBOL, field.name));
+        }
     }
 
     @Override
@@ -180,8 +281,14 @@ public class SemanticsChecker implements Node.Visitor {
     @Override
     public void visitAnnFunc(AnnFuncNode n) {
         CST = new SymbolTable(CST);
+        boolean wasGlobal = isGlobal;
+        PrimitiveType enclosingType = returnType;
+        isGlobal = false;
+        returnType = typeAnnotation(n.returnType);
         n.params.accept(this);
         n.block.accept(this);
+        isGlobal = wasGlobal;
+        returnType = enclosingType;
         CST = CST.parent;
     }
 
@@ -236,6 +343,7 @@ public class SemanticsChecker implements Node.Visitor {
 
     @Override
     public void visitThis(ThisNode n) {
+        impure("uses `this`");
         if (exprType == Expr.LHS)
             logError(LHS_EXPR_ERROR, n,
                     message(LHS_EXPR_ERROR, "this"));
@@ -262,11 +370,23 @@ public class SemanticsChecker implements Node.Visitor {
     public void visitSubscript(SubscriptNode n) {
         if (objType == ObjAcc.accesedOn)
             n.subscriptOf.accept(this);
+
+        // index is always read, even in `a[i] = v`
+        Expr type = exprType;
+        ObjAcc acc = objType;
+        exprType = Expr.RHS;
+        objType = null;
         n.index.accept(this);
+        exprType = type;
+        objType = acc;
     }
 
     @Override
     public void visitObjAccess(ObjectAccessNode n) {
+        if (isMemoCall(n)) {
+            IdenNode memoizedFunction = (IdenNode) ((FuncCallNode) n.prop).args.args.get(0);
+            memoized.putIfAbsent(memoizedFunction.name, memoizedFunction);
+        }
         ObjectAccessNode node = n;
         Node.Tag tag = n.prop.getTag();
         if (exprType == Expr.LHS) {
@@ -311,6 +431,8 @@ public class SemanticsChecker implements Node.Visitor {
                 logError(DUPLICATE_SYMBOL, n,
                         message(DUPLICATE_SYMBOL, iden.name));
         }
+        for (IdenNode type : n.types)
+            typeAnnotation(type);
     }
 
     @Override
@@ -368,10 +490,10 @@ public class SemanticsChecker implements Node.Visitor {
 
     @Override
     public void visitLoopStmt(LoopStmtNode n) {
-        n.var1.accept(this);
-        n.var2.accept(this);
         n.collection.accept(this);
+        CST = new SymbolTable(CST).notDeclarable();
         n.block.accept(this);
+        CST = CST.parent;
     }
 
     @Override
@@ -381,6 +503,7 @@ public class SemanticsChecker implements Node.Visitor {
                     message(RETURN_OUTSIDE_BLOCK));
             return;
         }
+        checkConvertible(n, n.expr, returnType);
         n.expr.accept(this);
     }
 
@@ -396,48 +519,69 @@ public class SemanticsChecker implements Node.Visitor {
 
     @Override
     public void visitListComp(ListCompNode n) {
-        for (CompNode node : n.nested)
-            node.accept(this);
+        visitComprehension(n);
     }
 
     @Override
     public void visitLinkComp(LinkCompNode n) {
-        for (CompNode node : n.nested)
-            node.accept(this);
+        visitComprehension(n);
     }
 
     @Override
     public void visitSetComp(SetCompNode n) {
-        for (CompNode node : n.nested)
-            node.accept(this);
+        visitComprehension(n);
     }
 
     @Override
     public void visitMapComp(MapCompNode n) {
+        visitComprehension(n);
+    }
+
+    private void visitComprehension(CompTypeNode n) {
+        CST = new SymbolTable(CST).notDeclarable();
         for (CompNode node : n.nested)
             node.accept(this);
+        if (n.expr != null)
+            n.expr.accept(this);
+        if (n instanceof MapCompNode && ((MapCompNode) n).value != null)
+            ((MapCompNode) n).value.accept(this);
+        CST = CST.parent;
     }
 
     @Override
     public void visitCompLoop(CompLoopNode n) {
-
+        n.collection.accept(this);
     }
 
     @Override
     public void visitCompIf(CompIfNode n) {
-        // TODO Auto-generated method stub
-
+        n.ifCond.accept(this);
     }
 
     @Override
     public void visitListRange(RangeNode n) {
+        n.rangeStart.accept(this);
+        n.rangeEnd.accept(this);
+    }
 
+    private static boolean isMemoCall(ObjectAccessNode n) {
+        if (!(n.accessedOn instanceof IdenNode) || !((IdenNode) n.accessedOn).name.equals("Function")
+                || !(n.prop instanceof FuncCallNode))
+            return false;
+        FuncCallNode call = (FuncCallNode) n.prop;
+        return call.invokedOn instanceof IdenNode && MEMO_FUNCTIONS.contains(((IdenNode) call.invokedOn).name)
+                && !call.args.args.isEmpty() && call.args.args.get(0) instanceof IdenNode;
     }
 
     private String errorDescription(Position position, String message) {
         return message + ' ' + message(SOURCE_POSITION, position.getStartLine(), position.getStartColumn());
     }
 
+    private void logWarning(Log.Type warning, Node n, String message) {
+        log.warn(warning, n.getSourcePosition(),
+                errorDescription(n.getSourcePosition(), message));
+    }
+
     private void logError(Log.Type issue, Node n, String message) {
         System.out.println(message);
         log.report(issue, n.getSourcePosition(),
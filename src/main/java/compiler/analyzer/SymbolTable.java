@@ -73,6 +73,16 @@ public class SymbolTable {
         return false;
     }
 
+    public SymbolTable declaring(String n) {
+        SymbolTable table = this;
+        while (table != null) {
+            if (table.symbols.containsKey(n))
+                return table;
+            table = table.parent;
+        }
+        return null;
+    }
+
     public boolean isSymbolConstant(String n) {
         SymbolTable table = this;
         while (table != null) {
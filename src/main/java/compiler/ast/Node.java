@@ -72,7 +72,7 @@ public abstract class Node {
     public abstract void accept(Visitor visitor);
 
     public enum Tag {
-        VARDECL, IDEN, CONSTDECL, NUMLIT, STRLIT, BOOLLIT, FUNCDECL, OBJCREATION, BLOCK, ANNFUNC, LIST, SET, LINKEDLIST,
+        VARDECL, IDEN, CONSTDECL, NUMLIT, STRLIT, BOOLLIT, FUNCDECL, STRUCTDECL, OBJCREATION, BLOCK, ANNFUNC, LIST, SET, LINKEDLIST,
         MAP, BINEXPR, UNEXPR, THIS, NULL, FUNCCALL, SUBSCRIPT, SLICE, OBJACCESS, ARGSLIST, PARAMLIST, IMPORT, EXPORT, ASGN, IF,
         ELSE, FOR, LOOP, RETURN, CONTINUE, BREAK, LISTCOMP, SETCOMP, LINKCOMP, MAPCOMP, COMPLOOP, COMPIF, RANGE,
         PROGRAM;
@@ -219,9 +219,16 @@ public abstract class Node {
         public ParameterListNode params;
         public BlockNode block;
 
+        public IdenNode returnType;
+
         public AnnFuncNode(ParameterListNode a, BlockNode b) {
+            this(a, b, null);
+        }
+
+        public AnnFuncNode(ParameterListNode a, BlockNode b, IdenNode returnType) {
             params = a;
             block = b;
+            this.returnType = returnType;
         }
 
         @Override
@@ -406,6 +413,7 @@ public abstract class Node {
 
     public static abstract class CompTypeNode extends ExprNode {
         public List<CompNode> nested;
+        public ExprNode expr;
 
         public CompTypeNode() {
             nested = new ArrayList<>();
@@ -461,6 +469,8 @@ public abstract class Node {
     }
 
     public static class MapCompNode extends CompTypeNode {
+        public ExprNode value;
+
         @Override
         public Tag getTag() {
             return MAPCOMP;
@@ -660,14 +670,21 @@ public abstract class Node {
 
     public static class VarDeclNode extends DeclNode {
         public ExprNode value;
+        // optional type annotation, `var x: int`
+        public IdenNode type;
 
         public VarDeclNode(IdenNode var) {
             this(var, null);
         }
 
         public VarDeclNode(IdenNode var, ExprNode value) {
+            this(var, value, null);
+        }
+
+        public VarDeclNode(IdenNode var, ExprNode value, IdenNode type) {
             iden = var;
             this.value = value;
+            this.type = type;
         }
 
         @Override
@@ -703,11 +720,17 @@ public abstract class Node {
     public static class FuncDeclNode extends DeclNode {
         public ParameterListNode params;
         public BlockNode block;
+        public IdenNode returnType;
 
         public FuncDeclNode(IdenNode name, ParameterListNode params, BlockNode block) {
+            this(name, params, block, null);
+        }
+
+        public FuncDeclNode(IdenNode name, ParameterListNode params, BlockNode block, IdenNode returnType) {
             iden = name;
             this.params = params;
             this.block = block;
+            this.returnType = returnType;
         }
 
         @Override
@@ -721,24 +744,52 @@ public abstract class Node {
         }
     }
 
+    public static class StructDeclNode extends DeclNode {
+        public List<IdenNode> fields;
+
+        public StructDeclNode(IdenNode name, List<IdenNode> fields) {
+            iden = name;
+            this.fields = fields;
+        }
+
+        @Override
+        public Tag getTag() {
+            return STRUCTDECL;
+        }
+
+        @Override
+        public void accept(Visitor v) {
+            v.visitStructDecl(this);
+        }
+    }
+
     public static class ParameterListNode extends Node {
         public List<IdenNode> params = new ArrayList<>();
+        // type annotation of each parameter, null where there is none
+        public List<IdenNode> types = new ArrayList<>();
         boolean containsVarArg = false;
 
         public ParameterListNode() {
         }
 
         public ParameterListNode(List<IdenNode> l, boolean varArg) {
+            this(l, new ArrayList<>(Collections.nCopies(l.size(), null)), varArg);
+        }
+
+        public ParameterListNode(List<IdenNode> l, List<IdenNode> types, boolean varArg) {
             params = l;
+            this.types = types;
             containsVarArg = varArg;
         }
 
         public void addParam(IdenNode n) {
             params.add(n);
+            types.add(null);
         }
 
         public void setArgs(List<IdenNode> l) {
             params = l;
+            types = new ArrayList<>(Collections.nCopies(l.size(), null));
         }
 
         @Override
@@ -755,10 +806,16 @@ public abstract class Node {
     public static class ImportStmtNode extends StmtNode {
         public Map<IdenNode, IdenNode> importAliasMap;
         public String directory;
+        public boolean lazy;
 
         public ImportStmtNode(Map<IdenNode, IdenNode> importAliasMap, String directory) {
+            this(importAliasMap, directory, false);
+        }
+
+        public ImportStmtNode(Map<IdenNode, IdenNode> importAliasMap, String directory, boolean lazy) {
             this.importAliasMap = importAliasMap;
             this.directory = directory;
+            this.lazy = lazy;
         }
 
         @Override
@@ -1008,6 +1065,8 @@ public abstract class Node {
 
         void visitFuncDecl(FuncDeclNode n);
 
+        void visitStructDecl(StructDeclNode n);
+
         void visitObjCreation(ObjCreationNode n);
 
         void visitBlock(BlockNode n);
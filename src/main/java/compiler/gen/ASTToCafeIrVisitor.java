@@ -42,7 +42,7 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
         public CafeModule module;
         private final Deque<ReferenceTable> referenceTableStack = new LinkedList<>();
         private final Deque<Deque<Object>> objectStack = new LinkedList<>();
-        private final Deque<ForLoopStatement> forLoopStack = new LinkedList<>();
+        private final Deque<CafeStatement<?>> forLoopStack = new LinkedList<>();
 
         private boolean isModuleScope = true;
 
@@ -51,6 +51,21 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
         // for functions to be exported
         private boolean isExport = false;
 
+        private FunctionScope functionScope;
+        private int closureCounter = 0;
+
+        // variables of enclosing functions referenced from a function body
+        private static final class FunctionScope {
+            private final ReferenceTable table;
+            private final FunctionScope enclosing;
+            private final Map<String, SymbolReference> captures = new LinkedHashMap<>();
+
+            FunctionScope(ReferenceTable table, FunctionScope enclosing) {
+                this.table = table;
+                this.enclosing = enclosing;
+            }
+        }
+
         public void enterProperty() {
             isProperty = true;
         }
@@ -67,6 +82,11 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
         }
 
         public CafeModule createModule(String moduleName) {
+            // the context is shared by every module compiled in this process
+            closureCounter = 0;
+            referenceTableStack.clear();
+            functionScope = null;
+            isModuleScope = true;
             ReferenceTable global = new ReferenceTable();
             referenceTableStack.push(global);
             module = CafeModule.create(moduleName, global);
@@ -83,7 +103,55 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
 
         public void leaveScope() {
             referenceTableStack.pop();
-            isModuleScope = true;
+            isModuleScope = referenceTableStack.size() == 1;
+        }
+
+        // scope of loop variables, in loop statements and comprehensions
+        public ReferenceTable enterLoopScope() {
+            ReferenceTable loopReferenceTable = referenceTableStack.peek()
+                                                                   .fork();
+            referenceTableStack.push(loopReferenceTable);
+            return loopReferenceTable;
+        }
+
+        public void leaveLoopScope() {
+            referenceTableStack.pop();
+            isModuleScope = referenceTableStack.size() == 1;
+        }
+
+        public void enterFunction(ReferenceTable table) {
+            functionScope = new FunctionScope(table, functionScope);
+        }
+
+        public List<SymbolReference> leaveFunction() {
+            FunctionScope scope = functionScope;
+            functionScope = scope.enclosing;
+            // the body only sees its own variables and captures from here on
+            scope.table.reparent(referenceTableStack.peekLast());
+            return new ArrayList<>(scope.captures.values());
+        }
+
+        public String closureName(String name) {
+            return "#" + name + "$" + closureCounter++;
+        }
+
+        public SymbolReference resolve(String name) {
+            return resolve(functionScope, referenceTableStack.peek(), name);
+        }
+
+        private SymbolReference resolve(FunctionScope scope, ReferenceTable from, String name) {
+            if (scope == null || from.declaresWithin(name, scope.table))
+                return from.get(name);
+            SymbolReference capture = scope.captures.get(name);
+            if (capture != null)
+                return capture;
+            SymbolReference outer = resolve(scope.enclosing, scope.table.parent(), name);
+            if (outer == null || outer.isGlobal())
+                return outer;
+            capture = SymbolReference.capturing(outer);
+            scope.table.add(capture);
+            scope.captures.put(name, capture);
+            return capture;
         }
 
         public void newObjectStack() {
@@ -171,22 +239,27 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
     @Override
     public void visitVarDecl(Node.VarDeclNode n) {
         Node.IdenNode iden = n.getIden();
-        SymbolReference sym = Context.context.createSymbolReference(iden.name, Node.VarDeclNode.class);
+        SymbolReference sym = Context.context.createSymbolReference(iden.name, Node.VarDeclNode.class)
+                                             .typed(primitiveType(n.type));
         if (n.value != null)
             n.value.accept(this);
         else
             Context.context.push(null);
         DeclarativeAssignmentStatement stmt = DeclarativeAssignmentStatement.create(sym, Context.context.pop());
+        if (isString(stmt.getExpressionStatement()))
+            sym.markString();
         Context.context.push(stmt);
     }
 
     @Override
     public void visitIden(Node.IdenNode n) {
         Context context = Context.context;
-        if (context.isProperty())
+        if (context.isProperty()) {
             context.push(PropertyAccess.of(n.name));
-        else
+        } else {
+            context.resolve(n.name);
             context.push(ReferenceLookup.of(n.name));
+        }
     }
 
     @Override
@@ -221,27 +294,93 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
     public void visitFuncDecl(Node.FuncDeclNode n) {
         Context context = Context.context;
         String name = n.getIden().name;
-        n.params.accept(this);
-        List<String> params = (List) context.pop();
-        n.block.accept(this);
-        Block block = (Block) context.pop();
-        if (!block.hasReturn())
-            block.add(ReturnStatement.of(null));
-        CafeFunction function = CafeFunction.function(name)
-                                            .block(block)
-                                            .withParameters(params);
+        boolean isClosure = !context.isModuleScope;
+        // declared before the body so that nested functions can call themselves
+        SymbolReference ref = context.createSymbolReference(name, Node.VarDeclNode.class);
+        if (isClosure)
+            ref.markRecursive();
+        CafeFunction function = function(isClosure ? context.closureName(name) : name, n.params, n.block, isClosure)
+                .bindTo(ref);
+        if (!isClosure)
+            function.returning(primitiveType(n.returnType));
         if (context.isExport)
             function = function.asExport();
-        context.addFunction(function);
         FunctionWrapper wrapper = FunctionWrapper.wrap(function);
-        SymbolReference ref = context.createSymbolReference(name, Node.VarDeclNode.class);
         DeclarativeAssignmentStatement statement = DeclarativeAssignmentStatement.create(ref, wrapper);
         context.push(statement);
     }
 
+    // a struct is bound to its constructor, a module function taking the fields in order
+    @Override
+    public void visitStructDecl(Node.StructDeclNode n) {
+        Context context = Context.context;
+        String name = n.getIden().name;
+        List<String> fields = new ArrayList<>();
+        for (Node.IdenNode field : n.fields)
+            fields.add(field.name);
+        CafeStruct struct = CafeStruct.of(name, fields);
+        context.module.addStruct(struct);
+
+        SymbolReference ref = context.createSymbolReference(name, Node.VarDeclNode.class);
+        Block block = context.enterScope();
+        List<ExpressionStatement<?>> values = new ArrayList<>();
+        for (String field : fields) {
+            context.createSymbolReference(field, SymbolReference.Kind.VAR);
+            values.add(ReferenceLookup.of(field));
+        }
+        block.add(ReturnStatement.of(StructCreationStatement.create(struct, values)));
+        context.leaveScope();
+
+        CafeFunction constructor = CafeFunction.function(name)
+                                               .block(block)
+                                               .withParameters(fields)
+                                               .bindTo(ref);
+        if (context.isExport)
+            constructor = constructor.asExport();
+        context.addFunction(constructor);
+        context.push(DeclarativeAssignmentStatement.create(ref, FunctionWrapper.wrap(constructor)));
+    }
+
     @Override
     public void visitAnnFunc(Node.AnnFuncNode n) {
+        Context context = Context.context;
+        CafeFunction function = function(context.closureName("lambda"), n.params, n.block, true);
+        context.push(FunctionWrapper.wrap(function));
+    }
+
+    private CafeFunction function(String name, Node.ParameterListNode paramList, Node.BlockNode body, boolean isClosure) {
+        Context context = Context.context;
+        paramList.accept(this);
+        List<String> params = (List) context.pop();
+
+        Block block = context.enterScope();
+        for (int i = 0; i < params.size(); i++) {
+            SymbolReference ref = context.createSymbolReference(params.get(i), SymbolReference.Kind.VAR);
+            // closures are called through DFunc only, their parameters stay objects
+            if (!isClosure)
+                ref.typed(primitiveType(paramList.types.get(i)));
+        }
+        context.enterFunction(block.getReferenceTable());
+        for (Node.StmtNode stmt : body.block) {
+            stmt.accept(this);
+            block.add((CafeStatement<?>) context.pop());
+        }
+        List<SymbolReference> captures = context.leaveFunction();
+        context.leaveScope();
+
+        if (!block.hasReturn())
+            block.add(ReturnStatement.of(null));
+        CafeFunction function = CafeFunction.function(name)
+                                            .block(block)
+                                            .withParameters(params);
+        if (isClosure)
+            function.asClosure(captures);
+        context.addFunction(function);
+        return function;
+    }
 
+    private static PrimitiveType primitiveType(Node.IdenNode type) {
+        return type == null ? null : PrimitiveType.of(type.name);
     }
 
     @Override
@@ -277,22 +416,42 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
 
     @Override
     public void visitListColl(Node.ListCollNode n) {
-
+        visitCollection(CollectionType.LIST, n.val);
     }
 
     @Override
     public void visitSetColl(Node.SetCollNode n) {
-
+        visitCollection(CollectionType.SET, n.val);
     }
 
     @Override
     public void visitLinkColl(Node.LinkCollNode n) {
+        visitCollection(CollectionType.LINK, n.val);
+    }
 
+    private void visitCollection(CollectionType type, List<Node.ExprNode> values) {
+        Context context = Context.context;
+        List<ExpressionStatement<?>> elements = new ArrayList<>(values.size());
+        for (Node.ExprNode value : values) {
+            value.accept(this);
+            elements.add(ExpressionStatement.of(context.pop()));
+        }
+        context.push(CollectionCreationStatement.of(type, elements));
     }
 
     @Override
     public void visitMapColl(Node.MapCollNode n) {
-
+        Context context = Context.context;
+        Map<ExpressionStatement<?>, ExpressionStatement<?>> pairs = new LinkedHashMap<>();
+        for (Map.Entry<Node.ExprNode, Node.ExprNode> entry : n.pairs.entrySet()) {
+            entry.getKey()
+                 .accept(this);
+            ExpressionStatement<?> key = ExpressionStatement.of(context.pop());
+            entry.getValue()
+                 .accept(this);
+            pairs.put(key, ExpressionStatement.of(context.pop()));
+        }
+        context.push(CollectionCreationStatement.ofMap(pairs));
     }
 
     @Override
@@ -300,12 +459,30 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
         Context context = Context.context;
         n.e1.accept(this);
         n.e2.accept(this);
+        ExpressionStatement<?> right = ExpressionStatement.of(context.pop());
+        ExpressionStatement<?> left = ExpressionStatement.of(context.pop());
+        if (OperatorType.of(n.op) == OperatorType.PLUS && isConcat(left, right)) {
+            // once a string is involved every following + is a concatenation,
+            // so the whole chain is appended at one site
+            StringConcatStatement concat = left instanceof StringConcatStatement
+                    ? (StringConcatStatement) left
+                    : StringConcatStatement.create(left);
+            context.push(concat.add(right));
+            return;
+        }
         BinaryExpression expr = BinaryExpression.of(n.op)
-                                                .right(context.pop())
-                                                .left(context.pop());
+                                                .right(right)
+                                                .left(left);
         context.push(expr);
     }
 
+    private static boolean isConcat(ExpressionStatement<?> left, ExpressionStatement<?> right) {
+        return left instanceof StringConcatStatement
+                || right instanceof StringConcatStatement
+                || StringConcatStatement.isStringConstant(left)
+                || StringConcatStatement.isStringConstant(right);
+    }
+
     @Override
     public void visitUnaryExpr(Node.UnaryExprNode n) {
         Context context = Context.context;
@@ -360,7 +537,13 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
     @Override
     public void visitSubscript(Node.SubscriptNode n) {
         Context context = Context.context;
+
+        // a.b[i]: only b is a property of a
+        boolean isProperty = context.isProperty;
+        context.isProperty = false;
         n.index.accept(this);
+        context.isProperty = isProperty;
+
         n.subscriptOf.accept(this);
         context.push(SubscriptStatement.create(context.pop(), context.pop()));
     }
@@ -379,7 +562,16 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
 
     @Override
     public void visitSlice(Node.SliceNode n) {
+        Context context = Context.context;
 
+        boolean isProperty = context.isProperty;
+        context.isProperty = false;
+        n.end.accept(this);
+        n.start.accept(this);
+        context.isProperty = isProperty;
+
+        n.slicedOn.accept(this);
+        context.push(SliceStatement.create(context.pop(), context.pop(), context.pop()));
     }
 
     @Override
@@ -407,6 +599,8 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
     public void visitImportStmt(Node.ImportStmtNode n) {
         Context context = Context.context;
         CafeImport cafeImport = CafeImport.of(n.directory);
+        if (n.lazy)
+            cafeImport.lazy();
         for (Map.Entry<Node.IdenNode, Node.IdenNode> entry : n.importAliasMap.entrySet()) {
             Node.IdenNode value = entry.getValue();
             String alias = null;
@@ -441,9 +635,53 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
         n.rhs.accept(this);
         n.lhs.accept(this);
         AssignmentStatement statement = AssignmentStatement.create(context.pop(), context.pop());
+        SymbolReference ref = null;
+        if (statement.getLhsExpression() instanceof ReferenceLookup) {
+            ref = context.resolve(((ReferenceLookup) statement.getLhsExpression()).getName());
+            if (ref != null) {
+                ref.markAssigned();
+                if (isString(statement.getRhsExpression()))
+                    ref.markString();
+            }
+        }
+        if (ref != null && isAccumulation(statement, ref)) {
+            ExpressionStatement<?> rhs = statement.getRhsExpression();
+            if (rhs instanceof StringConcatStatement)
+                ((StringConcatStatement) rhs).accumulating();
+            else
+                ((BinaryExpression) rhs).accumulating();
+            ref.markAccumulated();
+        }
         context.push(statement);
     }
 
+    // s = s + x where s or x is known to be a string; numeric counters keep
+    // plain reads
+    private static boolean isAccumulation(AssignmentStatement statement, SymbolReference ref) {
+        if (!(statement.getLhsExpression() instanceof ReferenceLookup))
+            return false;
+        ExpressionStatement<?> rhs = statement.getRhsExpression();
+        ExpressionStatement<?> head;
+        if (rhs instanceof StringConcatStatement) {
+            head = ((StringConcatStatement) rhs).getOperands()
+                                                .get(0);
+        } else if (rhs instanceof BinaryExpression && ((BinaryExpression) rhs).getType() == OperatorType.PLUS) {
+            head = ((BinaryExpression) rhs).left();
+            if (!ref.isString() && !isString(((BinaryExpression) rhs).right()))
+                return false;
+        } else {
+            return false;
+        }
+        return head instanceof ReferenceLookup
+                && ((ReferenceLookup) head).getName()
+                                           .equals(((ReferenceLookup) statement.getLhsExpression()).getName());
+    }
+
+    private static boolean isString(ExpressionStatement<?> value) {
+        return value instanceof StringConcatStatement
+                || value instanceof ConstantStatement && ((ConstantStatement) value).value() instanceof String;
+    }
+
     @Override
     public void visitIfStmt(Node.IfStmtNode n) {
         Context context = Context.context;
@@ -514,7 +752,24 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
 
     @Override
     public void visitLoopStmt(Node.LoopStmtNode n) {
+        Context context = Context.context;
+        n.collection.accept(this);
+        ExpressionStatement<?> collection = ExpressionStatement.of(context.pop());
+
+        ReferenceTable table = context.enterLoopScope();
+        SymbolReference var1 = context.createSymbolReference(n.var1.name, SymbolReference.Kind.VAR);
+        SymbolReference var2 = null;
+        if (n.var2 != null)
+            var2 = context.createSymbolReference(n.var2.name, SymbolReference.Kind.VAR);
+        ForEachStatement forEach = ForEachStatement.of(LoopHeader.of(var1, var2, collection), table);
+        context.forLoopStack.push(forEach);
+
+        n.block.accept(this);
+        forEach.block((Block) context.pop());
 
+        context.forLoopStack.pop();
+        context.leaveLoopScope();
+        context.push(forEach);
     }
 
     @Override
@@ -544,36 +799,93 @@ public class ASTToCafeIrVisitor implements Node.Visitor {
 
     @Override
     public void visitListComp(Node.ListCompNode n) {
-
+        visitComprehension(CollectionType.LIST, n);
     }
 
     @Override
     public void visitLinkComp(Node.LinkCompNode n) {
-
+        visitComprehension(CollectionType.LINK, n);
     }
 
     @Override
     public void visitSetComp(Node.SetCompNode n) {
-
+        visitComprehension(CollectionType.SET, n);
     }
 
     @Override
     public void visitMapComp(Node.MapCompNode n) {
+        visitComprehension(CollectionType.MAP, n);
+    }
+
+    private void visitComprehension(CollectionType type, Node.CompTypeNode n) {
+        Context context = Context.context;
+        ComprehensionStatement comprehension = ComprehensionStatement.of(type, context.enterLoopScope());
+
+        LoopHeader innermost = null;
+        for (Node.CompNode node : n.nested) {
+            node.accept(this);
+            ComprehensionStatement.Clause clause = (ComprehensionStatement.Clause) context.pop();
+            if (clause instanceof LoopHeader)
+                innermost = (LoopHeader) clause;
+            comprehension.add(clause);
+        }
+
+        // without an element expression, the loop variables of the innermost loop are collected
+        if (type == CollectionType.MAP) {
+            Node.ExprNode value = ((Node.MapCompNode) n).value;
+            if (n.expr != null) {
+                n.expr.accept(this);
+                comprehension.element(ExpressionStatement.of(context.pop()));
+                value.accept(this);
+                comprehension.value(ExpressionStatement.of(context.pop()));
+            } else {
+                comprehension.element(ReferenceLookup.of(innermost.getVar1()
+                                                                  .getName()));
+                comprehension.value(innermost.hasPair()
+                        ? ReferenceLookup.of(innermost.getVar2()
+                                                      .getName())
+                        : new NullStatement());
+            }
+        } else if (n.expr != null) {
+            n.expr.accept(this);
+            comprehension.element(ExpressionStatement.of(context.pop()));
+        } else {
+            SymbolReference var = innermost.hasPair() ? innermost.getVar2() : innermost.getVar1();
+            comprehension.element(ReferenceLookup.of(var.getName()));
+        }
 
+        context.leaveLoopScope();
+        context.push(comprehension);
     }
 
     @Override
     public void visitCompLoop(Node.CompLoopNode n) {
-
+        Context context = Context.context;
+        n.collection.accept(this);
+        ExpressionStatement<?> collection = ExpressionStatement.of(context.pop());
+        SymbolReference var1 = context.createSymbolReference(n.var1.name, SymbolReference.Kind.VAR);
+        SymbolReference var2 = null;
+        if (n.var2 != null)
+            var2 = context.createSymbolReference(n.var2.name, SymbolReference.Kind.VAR);
+        context.push(ComprehensionStatement.loop(var1, var2, collection));
     }
 
     @Override
     public void visitCompIf(Node.CompIfNode n) {
-
+        Context context = Context.context;
+        n.ifCond.accept(this);
+        context.push(ComprehensionStatement.filter(ExpressionStatement.of(context.pop())));
     }
 
     @Override
     public void visitListRange(Node.RangeNode n) {
-
+        Context context = Context.context;
+        n.rangeStart.accept(this);
+        ExpressionStatement<?> start = ExpressionStatement.of(context.pop());
+        n.rangeEnd.accept(this);
+        ExpressionStatement<?> end = ExpressionStatement.of(context.pop());
+        CollectionType type = n.type == Node.RangeNode.Type.SET ? CollectionType.SET
+                : n.type == Node.RangeNode.Type.LINK ? CollectionType.LINK : CollectionType.LIST;
+        context.push(RangeStatement.of(type, start, end));
     }
 }
@@ -37,6 +37,11 @@ public abstract class AbstractCafeIrVisitor implements CafeIrVisitor {
         subscriptStatement.walk(this);
     }
 
+    @Override
+    public void visitSlice(SliceStatement sliceStatement) {
+        sliceStatement.walk(this);
+    }
+
     @Override
     public void visitCafeImport(CafeImport cafeImport) {
 
@@ -62,6 +67,15 @@ public abstract class AbstractCafeIrVisitor implements CafeIrVisitor {
         creationStatement.walk(this);
     }
 
+    @Override
+    public void visitStruct(CafeStruct struct) {
+    }
+
+    @Override
+    public void visitStructCreation(StructCreationStatement structCreation) {
+        structCreation.walk(this);
+    }
+
     @Override
     public void visitModule(CafeModule module) {
         module.walk(this);
@@ -127,6 +141,11 @@ public abstract class AbstractCafeIrVisitor implements CafeIrVisitor {
         unaryExpression.walk(this);
     }
 
+    @Override
+    public void visitStringConcat(StringConcatStatement stringConcat) {
+        stringConcat.walk(this);
+    }
+
     @Override
     public void visitConditionalBranching(ConditionalBranching conditionalBranching) {
         conditionalBranching.walk(this);
@@ -142,6 +161,11 @@ public abstract class AbstractCafeIrVisitor implements CafeIrVisitor {
 
     }
 
+    @Override
+    public void visitForEach(ForEachStatement forEachStatement) {
+        forEachStatement.walk(this);
+    }
+
     @Override
     public void visitCafeExport(CafeExport cafeExport) {
         cafeExport.walk(this);
@@ -156,4 +180,19 @@ public abstract class AbstractCafeIrVisitor implements CafeIrVisitor {
     public void visitBreakContinue(BreakContinueStatement breakContinueStatement) {
 
     }
+
+    @Override
+    public void visitCollectionCreation(CollectionCreationStatement collectionCreationStatement) {
+        collectionCreationStatement.walk(this);
+    }
+
+    @Override
+    public void visitRange(RangeStatement rangeStatement) {
+        rangeStatement.walk(this);
+    }
+
+    @Override
+    public void visitComprehension(ComprehensionStatement comprehensionStatement) {
+        comprehensionStatement.walk(this);
+    }
 }
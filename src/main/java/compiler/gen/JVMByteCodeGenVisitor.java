@@ -30,18 +30,22 @@
 package compiler.gen;
 
 import compiler.ir.*;
+import compiler.util.Log;
 import library.DFunc;
 import library.DObject;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import runtime.Iteration;
 
 import java.lang.invoke.MethodType;
 import java.util.*;
 
-import static compiler.gen.JVMBytecodeUtils.loadInteger;
-import static compiler.gen.JVMBytecodeUtils.loadLong;
+import static compiler.gen.JVMBytecodeUtils.*;
+import static compiler.util.Log.Type.TYPE_MISMATCH;
+import static compiler.util.Messages.message;
 import static java.lang.invoke.MethodType.genericMethodType;
 import static java.lang.invoke.MethodType.methodType;
 import static org.objectweb.asm.ClassWriter.COMPUTE_FRAMES;
@@ -63,8 +67,10 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 
     private static final String DOBJECT = "library/DObject";
     private static final String LDOBJECT = "Llibrary/DObject;";
+    private static final String LCLASS = "Ljava/lang/Class;";
 
     private static final String JFUNC = "library/DFunc";
+    private static final String DSTRUCT = "library/DStruct";
 
     private static final Class<?> DOBJECT_CLASS = DObject.class;
     private static final Class<?> DFUNC_CLASS = DFunc.class;
@@ -72,7 +78,10 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     private static final String DOBJECT_CREATOR = "runtime/DObjectCreator";
     private static final String LDOBJECT_CREATOR = "runtime/DObjectCreator;";
 
+    private static final String ITERATION = "runtime/Iteration";
+
     private static final String INIT_FUNC_SIGN = "()Ljava/util/Map;";
+    private static final String TYPED_SUFFIX = "#typed";
     private static final String INIT_FUNC_TYPE = "()Ljava/util/Map<Ljava/lang/String;Ljava/lang/Object;>;";
 
     private static final Handle FUNC_REF_HANDLE = makeHandle(
@@ -99,6 +108,30 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
             "ImportID", ""
     );
 
+    private static final Handle ITERATION_HANDLE = makeHandle(
+            "IterationID", ""
+    );
+
+    private static final Handle SUBSCRIPT_HANDLE = makeHandle(
+            "SubscriptID", ""
+    );
+
+    private static final Handle CLOSURE_HANDLE = makeHandle(
+            "ClosureID", "II"
+    );
+
+    // class file version of compiled modules and structs
+    private static final int CLASS_VERSION = V1_8;
+
+    // StringConcatFactory only exists from 9 on, 8 classes append to a StringBuilder
+    private static final Handle STRING_CONCAT_HANDLE = CLASS_VERSION >= V9 ? new Handle(H_INVOKESTATIC,
+            "java/lang/invoke/StringConcatFactory",
+            "makeConcatWithConstants",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;"
+                    + "Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/invoke/CallSite;", false) : null;
+    private static final int MAX_CONCAT_ARGS = 199;
+    private static final int CONCAT_OPERAND_HINT = 16;
+
     private static Handle makeHandle(String methodName, String description) {
         return new Handle(H_INVOKESTATIC,
                 "runtime/indy/" + methodName,
@@ -111,38 +144,88 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         if (function.isInit())
             return INIT_FUNC_SIGN;
 
+        int arity = function.getCaptures()
+                            .size() + function.getArity();
         MethodType signature;
         if (function.isVarargs()) {
-            signature = MethodType.genericMethodType(function.getArity(), true);
+            signature = MethodType.genericMethodType(arity, true);
         } else {
-            signature = MethodType.genericMethodType(function.getArity() + 1);
+            signature = MethodType.genericMethodType(arity + 1);
         }
         signature = signature.changeParameterType(0, DOBJECT_CLASS);
         return signature.toMethodDescriptorString();
     }
 
+    // module functions with an annotated parameter or result are compiled to a method taking
+    // and returning primitives, the generic method becomes a bridge boxing around it
+    private static boolean hasTypedEntry(CafeFunction function) {
+        if (function.isInit() || function.isClosure())
+            return false;
+        if (function.getReturnType() != null)
+            return true;
+        ReferenceTable table = function.getBlock()
+                                       .getReferenceTable();
+        for (String parameter : function.getParameterNames()) {
+            if (table.get(parameter)
+                     .getPrimitiveType() != null)
+                return true;
+        }
+        return false;
+    }
+
+    private static String typedName(CafeFunction function) {
+        return function.getName() + TYPED_SUFFIX;
+    }
+
+    private static String typedSignature(CafeFunction function) {
+        ReferenceTable table = function.getBlock()
+                                       .getReferenceTable();
+        StringBuilder signature = new StringBuilder("(").append(LDOBJECT);
+        for (String parameter : function.getParameterNames()) {
+            PrimitiveType type = table.get(parameter)
+                                      .getPrimitiveType();
+            signature.append(type == null ? TOBJECT : type.getDescriptor());
+        }
+        PrimitiveType returnType = function.getReturnType();
+        return signature.append(')')
+                        .append(returnType == null ? TOBJECT : returnType.getDescriptor())
+                        .toString();
+    }
+
     private String functionType(CafeFunction function) {
         if (function.isInit())
             return INIT_FUNC_TYPE;
         return null;
     }
 
+    // the receiver stays Object: method calls also reach the typed arrays
     private String methodSignature(int arity) {
-        return genericMethodType(arity + 1).changeParameterType(0, DOBJECT_CLASS)
-                                           .toMethodDescriptorString();
+        return genericMethodType(arity + 1).toMethodDescriptorString();
     }
 
     private ClassWriter cw;
     private MethodVisitor mv;
     private CafeFunction currentFunction = null;
+    private Label functionStart;
     private Context context;
     private String className;
+    // typed module functions by the variable they are declared as
+    private final Map<SymbolReference, CafeFunction> typedFunctions = new HashMap<>();
+    // classes compiled from struct declarations, by internal name
+    private final Map<String, byte[]> structClasses = new LinkedHashMap<>();
+    // the head of the append being compiled, read without flattening
+    private ReferenceLookup accumulator;
+    private final Log log;
+
+    public JVMByteCodeGenVisitor(Log log) {
+        this.log = log;
+    }
 
     private static final class Context {
         private final Deque<ReferenceTable> referenceTableStack = new LinkedList<>();
-        private final Map<ForLoopStatement, Label> loopStartMap = new HashMap<>();
-        private final Map<ForLoopStatement, Label> loopEndMap = new HashMap<>();
-        private final Map<ForLoopStatement, Label> loopIncrMap = new HashMap<>();
+        private final Map<CafeStatement<?>, Label> loopStartMap = new HashMap<>();
+        private final Map<CafeStatement<?>, Label> loopEndMap = new HashMap<>();
+        private final Map<CafeStatement<?>, Label> loopIncrMap = new HashMap<>();
         private final Set<String> importedVariables = new HashSet<>();
     }
 
@@ -192,7 +275,8 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 //            mv.visitTypeInsn(NEW, JDYNAMIC);
 //            mv.visitInsn(DUP);
 //            mv.visitMethodInsn(INVOKESPECIAL, JDYNAMIC, "<init>", "()V", false);
-            mv.visitMethodInsn(INVOKESTATIC, DOBJECT_CREATOR, "create", "()" + LDOBJECT, false);
+            mv.visitLdcInsn(Type.getObjectType(className));
+            mv.visitMethodInsn(INVOKESTATIC, DOBJECT_CREATOR, "create", "(" + LCLASS + ")" + LDOBJECT, false);
             mv.visitFieldInsn(PUTSTATIC, className, THIS, LDOBJECT);
             mv.visitInsn(RETURN);
             mv.visitMaxs(0, 0);
@@ -235,6 +319,63 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         return cw.toByteArray();
     }
 
+    // written next to the module class, which loads them by name
+    public Map<String, byte[]> getStructClasses() {
+        return structClasses;
+    }
+
+    private String structClassName(CafeStruct struct) {
+        return className + "$" + struct.getName();
+    }
+
+    private static String structConstructorSignature(CafeStruct struct) {
+        return genericMethodType(struct.getFields()
+                                       .size()).changeReturnType(void.class)
+                                               .toMethodDescriptorString();
+    }
+
+    @Override
+    public void visitStruct(CafeStruct struct) {
+        String name = structClassName(struct);
+        ClassWriter writer = new ClassWriter(COMPUTE_FRAMES | COMPUTE_MAXS);
+        writer.visit(CLASS_VERSION, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, DSTRUCT, null);
+        writer.visitSource(className, null);
+        for (String field : struct.getFields()) {
+            writer.visitField(ACC_PUBLIC, field, TOBJECT, null, null)
+                  .visitEnd();
+        }
+
+        MethodVisitor init = writer.visitMethod(ACC_PUBLIC, "<init>", structConstructorSignature(struct), null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitMethodInsn(INVOKESPECIAL, DSTRUCT, "<init>", "()V", false);
+        int index = 1;
+        for (String field : struct.getFields()) {
+            init.visitVarInsn(ALOAD, 0);
+            init.visitVarInsn(ALOAD, index++);
+            init.visitFieldInsn(PUTFIELD, name, field, TOBJECT);
+        }
+        init.visitInsn(RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        writer.visitEnd();
+        structClasses.put(name, writer.toByteArray());
+    }
+
+    @Override
+    public void visitStructCreation(StructCreationStatement structCreation) {
+        CafeStruct struct = structCreation.getStruct();
+        String name = structClassName(struct);
+        mv.visitTypeInsn(NEW, name);
+        mv.visitInsn(DUP);
+        structCreation.walk(this);
+        mv.visitMethodInsn(INVOKESPECIAL, name, "<init>", structConstructorSignature(struct), false);
+        mv.visitLdcInsn(Type.getObjectType(className));
+        mv.visitMethodInsn(INVOKESTATIC, DOBJECT_CREATOR, "create", "(" + LDOBJECT + LCLASS + ")" + LDOBJECT,
+                false);
+    }
+
     private int functionFlags(CafeFunction function) {
         int accessFlags = ACC_STATIC;
         if (function.isInit() || function.isExported())
@@ -270,8 +411,10 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         mv.visitEnd();
     }
 
+    // objects take their prototype from the runtime of the module creating them
     private void visitDObjectCreator(MethodVisitor mv) {
-        mv.visitMethodInsn(INVOKESTATIC, DOBJECT_CREATOR, "create", "()" + LDOBJECT, false);
+        mv.visitLdcInsn(Type.getObjectType(className));
+        mv.visitMethodInsn(INVOKESTATIC, DOBJECT_CREATOR, "create", "(" + LCLASS + ")" + LDOBJECT, false);
     }
 
     private void writeImportMetaData(Set<CafeImport> imports) {
@@ -313,8 +456,9 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
                 else
                     mv.visitLdcInsn(imp.getValue());
                 mv.visitLdcInsn(path);
+                mv.visitInsn(cafeImport.isLazy() ? ICONST_1 : ICONST_0);
                 mv.visitMethodInsn(INVOKESPECIAL, refSymbol, "<init>",
-                        "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)V", false);
+                        "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Z)V", false);
                 mv.visitVarInsn(ASTORE, 1);
 
                 // add reference symbol to table
@@ -395,7 +539,6 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         ExpressionStatement<?> expr = methodInvocation.getInvokedUpon();
 
         if (expr instanceof PropertyAccess) {
-            mv.visitTypeInsn(CHECKCAST, DOBJECT);
             visitInvocationArguments(methodInvocation.getArguments());
             mv.visitInvokeDynamicInsn(((PropertyAccess) expr).getName(),
                     methodSignature(methodInvocation.getArity()),
@@ -421,11 +564,36 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 
     @Override
     public void visitSubscript(SubscriptStatement subscriptStatement) {
+        subscriptStatement.walk(this);
+        mv.visitInvokeDynamicInsn("get",
+                genericMethodType(2).toMethodDescriptorString(),
+                SUBSCRIPT_HANDLE);
+    }
+
+    @Override
+    public void visitSlice(SliceStatement sliceStatement) {
+        sliceStatement.walk(this);
+        mv.visitMethodInsn(INVOKESTATIC, "runtime/Slicing", "slice",
+                "(Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", false);
+    }
 
+    // expects the subscripted object, index and value on the operand stack.
+    private void subscriptSet() {
+        mv.visitInvokeDynamicInsn("set",
+                genericMethodType(3).changeReturnType(void.class)
+                                    .toMethodDescriptorString(),
+                SUBSCRIPT_HANDLE);
     }
 
     @Override
     public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
+        CafeFunction target = typedTarget(functionInvocation);
+        if (target != null) {
+            typedCall(functionInvocation, target);
+            if (target.getReturnType() != null)
+                box(mv, target.getReturnType());
+            return;
+        }
         MethodType type;
 
         // This will load Function object (if present) or throw error during runtime.
@@ -446,6 +614,38 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         mv.visitInvokeDynamicInsn(name, typedef, handle);
     }
 
+    // a call to a typed module function whose variable is never reassigned
+    private CafeFunction typedTarget(FunctionInvocation invocation) {
+        if (!(invocation.getReference() instanceof ReferenceLookup))
+            return null;
+        SymbolReference reference = ((ReferenceLookup) invocation.getReference())
+                .resolveIn(context.referenceTableStack.peek());
+        CafeFunction target = typedFunctions.get(reference);
+        if (target == null || reference.isAssigned() || invocation.getArity() != target.getArity())
+            return null;
+        return target;
+    }
+
+    private void typedCall(FunctionInvocation invocation, CafeFunction target) {
+        GlobalThis.loadThis(mv, className);
+        ReferenceTable table = target.getBlock()
+                                     .getReferenceTable();
+        List<String> parameters = target.getParameterNames();
+        List<CafeElement<?>> arguments = invocation.getArguments();
+        for (int i = 0; i < parameters.size(); i++) {
+            argument(arguments.get(i), table.get(parameters.get(i)));
+        }
+        mv.visitMethodInsn(INVOKESTATIC, className, typedName(target), typedSignature(target), false);
+    }
+
+    private void argument(CafeElement<?> argument, SymbolReference parameter) {
+        PrimitiveType type = parameter.getPrimitiveType();
+        if (type == null)
+            argument.accept(this);
+        else
+            typedValue(argument, type);
+    }
+
     private void visitInvocationArguments(List<CafeElement<?>> arguments) {
         for (CafeElement<?> argument : arguments) {
             argument.accept(this);
@@ -464,11 +664,15 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 
     @Override
     public void visitModule(CafeModule module) {
-        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, className, null, JOBJECT, null);
+        cw.visit(CLASS_VERSION, ACC_PUBLIC | ACC_SUPER, className, null, JOBJECT, null);
         cw.visitSource(className, null);
 
         GlobalThis.initThis(cw, className);
         visitMainFunc();
+        for (CafeFunction function : module.getFunctions()) {
+            if (function.getBinding() != null && hasTypedEntry(function))
+                typedFunctions.put(function.getBinding(), function);
+        }
         module.walk(this);
     }
 
@@ -508,7 +712,7 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 
     private void insertMissingPop(CafeStatement<?> statement) {
         Class<?> statementClass = statement.getClass();
-        if (statementClass == FunctionInvocation.class) {
+        if (statementClass == FunctionInvocation.class || statementClass == ObjectAccessStatement.class) {
             mv.visitInsn(POP);
         }
     }
@@ -516,6 +720,20 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     @Override
     public void visitReturn(ReturnStatement returnStatement) {
         CafeStatement<?> statement = returnStatement.getExpressionStatement();
+        if (isSelfTailCall(statement)) {
+            selfTailCall((FunctionInvocation) statement);
+            return;
+        }
+        PrimitiveType returnType = currentFunction.getReturnType();
+        if (returnType != null) {
+            // falling off the end of a typed function gives the zero value
+            if (statement != null)
+                typedValue(statement, returnType);
+            else
+                loadZero(mv, returnType);
+            mv.visitInsn(opcode(returnType, IRETURN));
+            return;
+        }
         if (statement != null)
             statement.accept(this);
         else {
@@ -524,24 +742,80 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         mv.visitInsn(ARETURN);
     }
 
+    // return f(...) inside f, where f still names this function
+    private boolean isSelfTailCall(CafeStatement<?> statement) {
+        if (!(statement instanceof FunctionInvocation))
+            return false;
+        FunctionInvocation invocation = (FunctionInvocation) statement;
+        SymbolReference binding = currentFunction.getBinding();
+        if (binding == null || binding.isAssigned() || currentFunction.isVarargs()
+                || invocation.getArity() != currentFunction.getArity()
+                || !(invocation.getReference() instanceof ReferenceLookup))
+            return false;
+        SymbolReference reference = ((ReferenceLookup) invocation.getReference())
+                .resolveIn(context.referenceTableStack.peek());
+        return reference != null && (reference == binding || reference.getCapturedFrom() == binding);
+    }
+
+    // arguments are evaluated before any parameter is overwritten, then the
+    // function restarts with them instead of recursing
+    private void selfTailCall(FunctionInvocation invocation) {
+        ReferenceTable table = currentFunction.getBlock()
+                                              .getReferenceTable();
+        List<String> parameters = currentFunction.getParameterNames();
+        List<CafeElement<?>> arguments = invocation.getArguments();
+        for (int i = 0; i < parameters.size(); i++) {
+            argument(arguments.get(i), table.get(parameters.get(i)));
+        }
+        for (int i = parameters.size() - 1; i >= 0; i--) {
+            SymbolReference parameter = table.get(parameters.get(i));
+            PrimitiveType type = parameter.getPrimitiveType();
+            if (type == null)
+                bindLocal(parameter);
+            else
+                mv.visitVarInsn(opcode(type, ISTORE), parameter.getIndex());
+        }
+        // a plain call receives the module as this
+        GlobalThis.loadThis(mv, className);
+        mv.visitVarInsn(ASTORE, 0);
+        mv.visitJumpInsn(GOTO, functionStart);
+    }
+
     @Override
     public void visitFunction(CafeFunction cafeFunction) {
+        boolean typed = hasTypedEntry(cafeFunction);
+        if (typed)
+            typedBridge(cafeFunction);
         currentFunction = cafeFunction;
 
         mv = cw.visitMethod(
-                functionFlags(cafeFunction),
-                cafeFunction.getName(),
-                functionSignature(cafeFunction),
+                typed ? ACC_PRIVATE | ACC_STATIC : functionFlags(cafeFunction),
+                typed ? typedName(cafeFunction) : cafeFunction.getName(),
+                typed ? typedSignature(cafeFunction) : functionSignature(cafeFunction),
                 functionType(cafeFunction),
                 null
         );
 
         mv.visitParameter("this", ACC_PRIVATE);
+        for (SymbolReference capture : cafeFunction.getCaptures()) {
+            mv.visitParameter(capture.getName(), ACC_PRIVATE);
+        }
         for (String parameter : cafeFunction.getParameterNames()) {
             mv.visitParameter(parameter, ACC_PRIVATE);
         }
 
         mv.visitCode();
+        ReferenceTable table = cafeFunction.getBlock()
+                                           .getReferenceTable();
+        for (String parameter : cafeFunction.getParameterNames()) {
+            SymbolReference reference = table.get(parameter);
+            if (reference.isBoxed()) {
+                mv.visitVarInsn(ALOAD, reference.getIndex());
+                bindLocal(reference);
+            }
+        }
+        functionStart = new Label();
+        mv.visitLabel(functionStart);
         cafeFunction.walk(this);
 
         if (cafeFunction.isInit()) {
@@ -556,6 +830,40 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         currentFunction = null;
     }
 
+    // the generic entry point of a typed function, used by dynamic calls and function references
+    private void typedBridge(CafeFunction function) {
+        MethodVisitor bridge = cw.visitMethod(
+                functionFlags(function),
+                function.getName(),
+                functionSignature(function),
+                null,
+                null
+        );
+        bridge.visitParameter("this", ACC_PRIVATE);
+        for (String parameter : function.getParameterNames()) {
+            bridge.visitParameter(parameter, ACC_PRIVATE);
+        }
+
+        bridge.visitCode();
+        ReferenceTable table = function.getBlock()
+                                       .getReferenceTable();
+        bridge.visitVarInsn(ALOAD, 0);
+        int index = 1;
+        for (String parameter : function.getParameterNames()) {
+            bridge.visitVarInsn(ALOAD, index++);
+            PrimitiveType type = table.get(parameter)
+                                      .getPrimitiveType();
+            if (type != null)
+                unbox(bridge, type);
+        }
+        bridge.visitMethodInsn(INVOKESTATIC, className, typedName(function), typedSignature(function), false);
+        if (function.getReturnType() != null)
+            box(bridge, function.getReturnType());
+        bridge.visitInsn(ARETURN);
+        bridge.visitMaxs(0, 0);
+        bridge.visitEnd();
+    }
+
     @Override
     public void visitObjectCreation(ObjectCreationStatement creationStatement) {
         Map<String, ExpressionStatement<?>> map = creationStatement.getMap();
@@ -600,8 +908,16 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
             }
             if (ref.isGlobal()) {
                 mv.visitLdcInsn(ref.getName());
-                assignmentStatement.walk(this);
+                storedValue(assignmentStatement.getRhsExpression(), ref);
                 GlobalThis.add(mv, className);
+            } else if (ref.isBoxed()) {
+                loadCell(ref);
+                mv.visitInsn(ICONST_0);
+                storedValue(assignmentStatement.getRhsExpression(), ref);
+                mv.visitInsn(AASTORE);
+            } else if (ref.getPrimitiveType() != null) {
+                typedValue(assignmentStatement.getRhsExpression(), ref.getPrimitiveType());
+                mv.visitVarInsn(opcode(ref.getPrimitiveType(), ISTORE), ref.getIndex());
             } else {
                 assignmentStatement.walk(this);
                 mv.visitVarInsn(ASTORE, ref.getIndex());
@@ -609,6 +925,15 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
             return;
         }
 
+        ExpressionStatement<?> rhs = assignmentStatement.getRhsExpression();
+        if (lhs instanceof SubscriptStatement) {
+            SubscriptStatement subscript = (SubscriptStatement) lhs;
+            subscript.walk(this);
+            rhs.accept(this);
+            subscriptSet();
+            return;
+        }
+
         ObjectAccessStatement node = null;
         if (lhs instanceof ObjectAccessStatement)
             node = (ObjectAccessStatement) lhs;
@@ -616,21 +941,23 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 
         node.getAccessedOn()
             .accept(this);
-
-        ExpressionStatement<?> rhs = assignmentStatement.getRhsExpression();
-        rhs.accept(this);
-        visitLHSObjectProperty(node.getProperty());
-
+        visitLHSObjectProperty(node.getProperty(), rhs);
     }
 
-    private void visitLHSObjectProperty(ExpressionStatement<?> expressionStatement) {
+    private void visitLHSObjectProperty(ExpressionStatement<?> expressionStatement, ExpressionStatement<?> rhs) {
         if (expressionStatement instanceof PropertyAccess) {
+            rhs.accept(this);
             mv.visitInvokeDynamicInsn(((PropertyAccess) expressionStatement).getName(),
                     genericMethodType(2).toMethodDescriptorString(),
                     OBJECT_ACCESS_HANDLE
             );
+            mv.visitInsn(POP);
         } else if (expressionStatement instanceof SubscriptStatement) {
-
+            // a.b[i] = v: b is read off a, which is on the operand stack
+            SubscriptStatement subscript = (SubscriptStatement) expressionStatement;
+            subscript.walk(this);
+            rhs.accept(this);
+            subscriptSet();
         } else {
             // TODO: error
         }
@@ -638,6 +965,12 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
 
     @Override
     public void visitBinaryExpression(BinaryExpression binaryExpression) {
+        PrimitiveType type = typeOf(binaryExpression);
+        if (type != null) {
+            primitive(binaryExpression, type);
+            box(mv, type);
+            return;
+        }
         switch (binaryExpression.getType()) {
             case AND:
                 andOperator(binaryExpression);
@@ -646,11 +979,27 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
                 orOperator(binaryExpression);
                 break;
             default:
-                binaryExpression.walk(this);
+                if (binaryExpression.isAccumulating()) {
+                    // a long string grown by s = s + x starts a rope, which plus links onto
+                    loadAccumulator(binaryExpression.left());
+                    mv.visitMethodInsn(INVOKESTATIC, "library/DRope", "accumulator",
+                            "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+                    binaryExpression.right()
+                                    .accept(this);
+                } else {
+                    binaryExpression.walk(this);
+                }
                 genericBinaryOperator(binaryExpression);
         }
     }
 
+    // the variable an append grows, as it is: possibly a rope
+    private void loadAccumulator(ExpressionStatement<?> head) {
+        accumulator = (ReferenceLookup) head;
+        head.accept(this);
+        accumulator = null;
+    }
+
     private void genericBinaryOperator(BinaryExpression binaryOperation) {
         String name = binaryOperation.getType()
                                      .name()
@@ -664,13 +1013,9 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     private void orOperator(BinaryExpression binaryOperation) {
         Label exitLabel = new Label();
         Label trueLabel = new Label();
-        binaryOperation.left()
-                       .accept(this);
-        asmBooleanValue();
+        condition(binaryOperation.left());
         mv.visitJumpInsn(IFNE, trueLabel);
-        binaryOperation.right()
-                       .accept(this);
-        asmBooleanValue();
+        condition(binaryOperation.right());
         mv.visitJumpInsn(IFNE, trueLabel);
         asmFalseObject();
         mv.visitJumpInsn(GOTO, exitLabel);
@@ -682,13 +1027,9 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     private void andOperator(BinaryExpression binaryOperation) {
         Label exitLabel = new Label();
         Label falseLabel = new Label();
-        binaryOperation.left()
-                       .accept(this);
-        asmBooleanValue();
+        condition(binaryOperation.left());
         mv.visitJumpInsn(IFEQ, falseLabel);
-        binaryOperation.right()
-                       .accept(this);
-        asmBooleanValue();
+        condition(binaryOperation.right());
         mv.visitJumpInsn(IFEQ, falseLabel);
         asmTrueObject();
         mv.visitJumpInsn(GOTO, exitLabel);
@@ -701,9 +1042,7 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     public void visitConditionalBranching(ConditionalBranching conditionalBranching) {
         Label branchingElseLabel = new Label();
         Label branchingExitLabel = new Label();
-        conditionalBranching.getCondition()
-                            .accept(this);
-        asmBooleanValue();
+        condition(conditionalBranching.getCondition());
         mv.visitJumpInsn(IFEQ, branchingElseLabel);
         conditionalBranching.getTrueBlock()
                             .accept(this);
@@ -736,7 +1075,7 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         if (BreakContinueStatement.Type.BREAK.equals(breakContinueStatement.getType())) {
             jumpTarget = context.loopEndMap.get(breakContinueStatement.getEnclosingLoop());
         } else {
-            ForLoopStatement loop = breakContinueStatement.getEnclosingLoop();
+            CafeStatement<?> loop = breakContinueStatement.getEnclosingLoop();
             jumpTarget = context.loopIncrMap.get(loop);
             if (jumpTarget == null)
                 jumpTarget = context.loopStartMap.get(loop);
@@ -758,8 +1097,327 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
     }
 
+    private void condition(CafeElement<?> condition) {
+        if (typeOf(condition) == PrimitiveType.BOOLEAN) {
+            primitive(condition, PrimitiveType.BOOLEAN);
+        } else {
+            condition.accept(this);
+            asmBooleanValue();
+        }
+    }
+
+    // the type an expression of typed locals, literals and typed calls is computed in,
+    // null when it needs the dynamic operators
+    private PrimitiveType typeOf(CafeElement<?> element) {
+        if (element instanceof ConstantStatement) {
+            Object value = ((ConstantStatement) element).value();
+            if (value instanceof Integer)
+                return PrimitiveType.INT;
+            if (value instanceof Long)
+                return PrimitiveType.LONG;
+            if (value instanceof Double)
+                return PrimitiveType.DOUBLE;
+            if (value instanceof Boolean)
+                return PrimitiveType.BOOLEAN;
+            return null;
+        }
+        if (element instanceof ReferenceLookup) {
+            SymbolReference reference = ((ReferenceLookup) element).resolveIn(context.referenceTableStack.peek());
+            return reference == null ? null : reference.getPrimitiveType();
+        }
+        if (element instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) element;
+            PrimitiveType left = typeOf(binary.left());
+            PrimitiveType right = typeOf(binary.right());
+            switch (binary.getType()) {
+                case PLUS:
+                case MINUS:
+                case TIMES:
+                case DIVIDE:
+                case MODULO:
+                    return PrimitiveType.promote(left, right);
+                case EQUALS:
+                case NOTEQUALS:
+                case LESS:
+                case LESSOREQUALS:
+                case MORE:
+                case MOREOREQUALS:
+                    return PrimitiveType.promote(left, right) == null ? null : PrimitiveType.BOOLEAN;
+                case AND:
+                case OR:
+                    return left == PrimitiveType.BOOLEAN && right == PrimitiveType.BOOLEAN ? PrimitiveType.BOOLEAN : null;
+                default:
+                    return null;
+            }
+        }
+        if (element instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) element;
+            PrimitiveType operand = typeOf(unary.getExpressionStatement());
+            switch (unary.getType()) {
+                case MINUS:
+                    return operand != null && operand.isNumeric() ? operand : null;
+                case NOT:
+                case NOTOP:
+                    return operand == PrimitiveType.BOOLEAN ? operand : null;
+                default:
+                    return null;
+            }
+        }
+        if (element instanceof FunctionInvocation) {
+            CafeFunction target = typedTarget((FunctionInvocation) element);
+            return target == null ? null : target.getReturnType();
+        }
+        return null;
+    }
+
+    // leaves the value of element on the stack as type, unboxing dynamic values;
+    // a value known to lose precision is rejected
+    private void typedValue(CafeElement<?> element, PrimitiveType type) {
+        PrimitiveType actual = typeOf(element);
+        if (actual == null) {
+            element.accept(this);
+            unbox(mv, type);
+        } else {
+            if (!actual.widens(type))
+                log.report(TYPE_MISMATCH, null,
+                        message(TYPE_MISMATCH, actual.getName(), type.getName()));
+            primitive(element, actual);
+            convert(mv, actual, type);
+        }
+    }
+
+    // an annotated variable declared without a value starts at the zero value
+    private void declaredValue(ExpressionStatement<?> value, SymbolReference reference) {
+        if (reference.getType() != null && value instanceof NullStatement) {
+            loadZero(mv, reference.getType());
+            box(mv, reference.getType());
+        } else {
+            storedValue(value, reference);
+        }
+    }
+
+    // leaves the value stored in reference on the stack, a module or captured
+    // variable keeps the annotated type as its boxed value
+    private void storedValue(CafeElement<?> value, SymbolReference reference) {
+        if (reference.getType() == null) {
+            value.accept(this);
+        } else {
+            typedValue(value, reference.getType());
+            box(mv, reference.getType());
+        }
+    }
+
+    // emits element, whose typeOf is type, without boxing
+    private void primitive(CafeElement<?> element, PrimitiveType type) {
+        if (element instanceof ConstantStatement) {
+            Object value = ((ConstantStatement) element).value();
+            switch (type) {
+                case INT:
+                    loadInteger(mv, (Integer) value);
+                    break;
+                case LONG:
+                    loadLong(mv, (Long) value);
+                    break;
+                case DOUBLE:
+                    mv.visitLdcInsn(value);
+                    break;
+                default:
+                    loadInteger(mv, (Boolean) value ? 1 : 0);
+            }
+        } else if (element instanceof ReferenceLookup) {
+            SymbolReference reference = ((ReferenceLookup) element).resolveIn(context.referenceTableStack.peek());
+            mv.visitVarInsn(opcode(type, ILOAD), reference.getIndex());
+        } else if (element instanceof BinaryExpression) {
+            primitiveBinary((BinaryExpression) element);
+        } else if (element instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) element;
+            primitive(unary.getExpressionStatement(), type);
+            if (unary.getType() == OperatorType.MINUS) {
+                mv.visitInsn(opcode(type, INEG));
+            } else {
+                mv.visitInsn(ICONST_1);
+                mv.visitInsn(IXOR);
+            }
+        } else {
+            FunctionInvocation invocation = (FunctionInvocation) element;
+            typedCall(invocation, typedTarget(invocation));
+        }
+    }
+
+    private void primitiveBinary(BinaryExpression binary) {
+        OperatorType operator = binary.getType();
+        if (operator == OperatorType.AND || operator == OperatorType.OR) {
+            Label shortCircuit = new Label();
+            Label exit = new Label();
+            primitive(binary.left(), PrimitiveType.BOOLEAN);
+            mv.visitJumpInsn(operator == OperatorType.AND ? IFEQ : IFNE, shortCircuit);
+            primitive(binary.right(), PrimitiveType.BOOLEAN);
+            mv.visitJumpInsn(GOTO, exit);
+            mv.visitLabel(shortCircuit);
+            loadInteger(mv, operator == OperatorType.AND ? 0 : 1);
+            mv.visitLabel(exit);
+            return;
+        }
+        // operands are promoted like the dynamic operators do for mixed numbers
+        PrimitiveType operands = PrimitiveType.promote(typeOf(binary.left()), typeOf(binary.right()));
+        typedValue(binary.left(), operands);
+        typedValue(binary.right(), operands);
+        switch (operator) {
+            case PLUS:
+                mv.visitInsn(opcode(operands, IADD));
+                break;
+            case MINUS:
+                mv.visitInsn(opcode(operands, ISUB));
+                break;
+            case TIMES:
+                mv.visitInsn(opcode(operands, IMUL));
+                break;
+            case DIVIDE:
+                mv.visitInsn(opcode(operands, IDIV));
+                break;
+            case MODULO:
+                mv.visitInsn(opcode(operands, IREM));
+                break;
+            default:
+                compare(operator, operands);
+        }
+    }
+
+    private void compare(OperatorType operator, PrimitiveType operands) {
+        int jumpIfFalse;
+        switch (operator) {
+            case EQUALS:
+                jumpIfFalse = IFNE;
+                break;
+            case NOTEQUALS:
+                jumpIfFalse = IFEQ;
+                break;
+            case LESS:
+                jumpIfFalse = IFGE;
+                break;
+            case LESSOREQUALS:
+                jumpIfFalse = IFGT;
+                break;
+            case MORE:
+                jumpIfFalse = IFLE;
+                break;
+            default:
+                jumpIfFalse = IFLT;
+        }
+        if (operands == PrimitiveType.INT) {
+            jumpIfFalse += IF_ICMPEQ - IFEQ;
+        } else if (operands == PrimitiveType.LONG) {
+            mv.visitInsn(LCMP);
+        } else {
+            // comparisons with NaN are false
+            mv.visitInsn(operator == OperatorType.LESS || operator == OperatorType.LESSOREQUALS ? DCMPG : DCMPL);
+        }
+        Label falseLabel = new Label();
+        Label exit = new Label();
+        mv.visitJumpInsn(jumpIfFalse, falseLabel);
+        mv.visitInsn(ICONST_1);
+        mv.visitJumpInsn(GOTO, exit);
+        mv.visitLabel(falseLabel);
+        mv.visitInsn(ICONST_0);
+        mv.visitLabel(exit);
+    }
+
+    @Override
+    public void visitStringConcat(StringConcatStatement stringConcat) {
+        List<ExpressionStatement<?>> operands = stringConcat.getOperands();
+        if (stringConcat.isAccumulating() && operands.size() > 1) {
+            // s = s + ...: the tail is concatenated as usual and linked onto s,
+            // which turns into a rope once it grows large
+            loadAccumulator(operands.get(0));
+            concat(operands.subList(1, operands.size()));
+            mv.visitMethodInsn(INVOKESTATIC, "library/DRope", "concat",
+                    "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", false);
+            return;
+        }
+        concat(operands);
+    }
+
+    private void concat(List<ExpressionStatement<?>> operands) {
+        // constant operands are folded into literal text, everything else is appended once
+        List<Object> parts = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int dynamic = 0;
+        for (ExpressionStatement<?> operand : operands) {
+            if (operand instanceof ConstantStatement && ((ConstantStatement) operand).value() != null) {
+                text.append(((ConstantStatement) operand).value());
+                continue;
+            }
+            if (text.length() > 0) {
+                parts.add(text.toString());
+                text.setLength(0);
+            }
+            parts.add(operand);
+            dynamic++;
+        }
+        if (text.length() > 0)
+            parts.add(text.toString());
+
+        if (dynamic == 0) {
+            mv.visitLdcInsn(parts.isEmpty() ? "" : parts.get(0));
+        } else if (STRING_CONCAT_HANDLE != null && dynamic < MAX_CONCAT_ARGS) {
+            indyConcat(parts);
+        } else {
+            builderConcat(parts, dynamic);
+        }
+    }
+
+    private void indyConcat(List<Object> parts) {
+        StringBuilder recipe = new StringBuilder();
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Object part : parts) {
+            if (part instanceof String && ((String) part).indexOf('\1') < 0 && ((String) part).indexOf('\2') < 0) {
+                recipe.append((String) part);
+                continue;
+            }
+            // tag characters can't be part of the recipe, such text is passed as an argument
+            if (part instanceof String)
+                mv.visitLdcInsn(part);
+            else
+                ((ExpressionStatement<?>) part).accept(this);
+            recipe.append('\1');
+            descriptor.append(TOBJECT);
+        }
+        descriptor.append(")Ljava/lang/String;");
+        mv.visitInvokeDynamicInsn("concat", descriptor.toString(), STRING_CONCAT_HANDLE, recipe.toString());
+    }
+
+    private void builderConcat(List<Object> parts, int dynamic) {
+        int capacity = dynamic * CONCAT_OPERAND_HINT;
+        for (Object part : parts) {
+            if (part instanceof String)
+                capacity += ((String) part).length();
+        }
+        mv.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        mv.visitInsn(DUP);
+        loadInteger(mv, capacity);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "(I)V", false);
+        for (Object part : parts) {
+            if (part instanceof String) {
+                mv.visitLdcInsn(part);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+                        "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+            } else {
+                ((ExpressionStatement<?>) part).accept(this);
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+                        "(Ljava/lang/Object;)Ljava/lang/StringBuilder;", false);
+            }
+        }
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+    }
+
     @Override
     public void visitUnaryExpression(UnaryExpression unaryExpression) {
+        PrimitiveType type = typeOf(unaryExpression);
+        if (type != null) {
+            primitive(unaryExpression, type);
+            box(mv, type);
+            return;
+        }
         String name = unaryExpression.getType()
                                      .name()
                                      .toLowerCase();
@@ -832,8 +1490,44 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
             mv.visitLdcInsn(name);
             GlobalThis.retrieve(mv, className);
         } else {
-            mv.visitVarInsn(ALOAD, reference.getIndex());
+            if (reference.isBoxed()) {
+                loadCell(reference);
+                mv.visitInsn(ICONST_0);
+                mv.visitInsn(AALOAD);
+            } else if (reference.getPrimitiveType() != null) {
+                mv.visitVarInsn(opcode(reference.getPrimitiveType(), ILOAD), reference.getIndex());
+                box(mv, reference.getPrimitiveType());
+            } else {
+                mv.visitVarInsn(ALOAD, reference.getIndex());
+            }
         }
+        // ropes stay in the variable they are built in
+        if (reference.isAccumulated() && reference.getPrimitiveType() == null && referenceLookup != accumulator)
+            mv.visitMethodInsn(INVOKESTATIC, "library/DRope", "value",
+                    "(Ljava/lang/Object;)Ljava/lang/Object;", false);
+    }
+
+    private void loadCell(SymbolReference reference) {
+        mv.visitVarInsn(ALOAD, reference.getIndex());
+        mv.visitTypeInsn(CHECKCAST, "[" + TOBJECT);
+    }
+
+    // stores the value on top of the stack in a fresh binding of reference
+    private void bindLocal(SymbolReference reference) {
+        if (reference.isBoxed()) {
+            newCell();
+            mv.visitInsn(DUP_X1);
+            mv.visitInsn(SWAP);
+            mv.visitInsn(ICONST_0);
+            mv.visitInsn(SWAP);
+            mv.visitInsn(AASTORE);
+        }
+        mv.visitVarInsn(ASTORE, reference.getIndex());
+    }
+
+    private void newCell() {
+        mv.visitInsn(ICONST_1);
+        mv.visitTypeInsn(ANEWARRAY, JOBJECT);
     }
 
     private void visitVariableInImports(String varName) {
@@ -852,12 +1546,31 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     public void visitFunctionWrapper(FunctionWrapper functionWrapper) {
         //functionWrapper.walk(this);
         CafeFunction target = functionWrapper.getTarget();
-        int arity = (target.isVarargs()) ? target.getArity() - 1 : target.getArity() + 1;
+        List<SymbolReference> captures = target.getCaptures();
+        int arity = captures.size() + ((target.isVarargs()) ? target.getArity() - 1 : target.getArity() + 1);
+        if (captures.isEmpty()) {
+            // non capturing functions are created once per site
+            mv.visitInvokeDynamicInsn(
+                    target.getName(),
+                    methodType(DFUNC_CLASS).toMethodDescriptorString(),
+                    FUNC_REF_HANDLE,
+                    className,
+                    (Integer) arity,
+                    (Boolean) target.isVarargs()
+            );
+            return;
+        }
+
+        // boxed captures are passed as their cell
+        for (SymbolReference capture : captures) {
+            mv.visitVarInsn(ALOAD, capture.getCapturedFrom()
+                                          .getIndex());
+        }
         mv.visitInvokeDynamicInsn(
                 target.getName(),
-                methodType(DFUNC_CLASS).toMethodDescriptorString(),
-                FUNC_REF_HANDLE,
-                className,
+                genericMethodType(captures.size()).changeReturnType(DFUNC_CLASS)
+                                                  .toMethodDescriptorString(),
+                CLOSURE_HANDLE,
                 (Integer) arity,
                 (Boolean) target.isVarargs()
         );
@@ -866,11 +1579,27 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
     @Override
     public void visitDeclarativeAssignment(DeclarativeAssignmentStatement declarativeAssignmentStatement) {
         SymbolReference reference = declarativeAssignmentStatement.getSymbolReference();
+        ExpressionStatement<?> value = declarativeAssignmentStatement.getExpressionStatement();
         if (reference.isGlobal()) {
             String key = reference.getName();
             mv.visitLdcInsn(key);
-            declarativeAssignmentStatement.walk(this);
+            declaredValue(value, reference);
             GlobalThis.add(mv, className);
+        } else if (reference.isBoxed()) {
+            // the cell exists before the value, which may be a function capturing it
+            newCell();
+            mv.visitVarInsn(ASTORE, reference.getIndex());
+            loadCell(reference);
+            mv.visitInsn(ICONST_0);
+            declaredValue(value, reference);
+            mv.visitInsn(AASTORE);
+        } else if (reference.getPrimitiveType() != null) {
+            PrimitiveType type = reference.getPrimitiveType();
+            if (value instanceof NullStatement)
+                loadZero(mv, type);
+            else
+                typedValue(value, type);
+            mv.visitVarInsn(opcode(type, ISTORE), reference.getIndex());
         } else {
             declarativeAssignmentStatement.walk(this);
             mv.visitVarInsn(ASTORE, reference.getIndex());
@@ -892,9 +1621,7 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
                 init.accept(this);
 
         mv.visitLabel(loopStart);
-        forLoopStatement.getCondition()
-                        .accept(this);
-        asmBooleanValue();
+        condition(forLoopStatement.getCondition());
         mv.visitJumpInsn(IFEQ, loopEnd);
         forLoopStatement.getBlock()
                         .accept(this);
@@ -908,6 +1635,328 @@ public class JVMByteCodeGenVisitor implements CafeIrVisitor {
         mv.visitLabel(loopEnd);
     }
 
+    private static String collectionClass(CollectionType type) {
+        switch (type) {
+            case SET:
+                return "library/DSet";
+            case LINK:
+                return "library/DLink";
+            case MAP:
+                return "library/DMap";
+            default:
+                return "library/DList";
+        }
+    }
+
+    // expects the expected size on top of the operand stack, unless the type is LINK.
+    private void newCollection(CollectionType type) {
+        String owner = collectionClass(type);
+        if (type == CollectionType.LINK) {
+            mv.visitTypeInsn(NEW, owner);
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "()V", false);
+            return;
+        }
+        mv.visitTypeInsn(NEW, owner);
+        mv.visitInsn(DUP_X1);
+        mv.visitInsn(SWAP);
+        mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "(I)V", false);
+    }
+
+    // expects the collection, followed by the element (or key and value), on the operand stack.
+    private void addToCollection(CollectionType type) {
+        String owner = collectionClass(type);
+        switch (type) {
+            case SET:
+                mv.visitMethodInsn(INVOKEVIRTUAL, owner, "add", "(Ljava/lang/Object;)Z", false);
+                mv.visitInsn(POP);
+                break;
+            case MAP:
+                mv.visitMethodInsn(INVOKEVIRTUAL, owner, "put",
+                        "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", false);
+                mv.visitInsn(POP);
+                break;
+            default:
+                mv.visitMethodInsn(INVOKEVIRTUAL, owner, "add", "(Ljava/lang/Object;)V", false);
+        }
+    }
+
+    private void asmIndexValue() {
+        mv.visitMethodInsn(INVOKESTATIC, ITERATION, "toIndex", "(Ljava/lang/Object;)I", false);
+    }
+
+    private void asmIntegerObject() {
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+    }
+
+    @Override
+    public void visitCollectionCreation(CollectionCreationStatement collectionCreationStatement) {
+        CollectionType type = collectionCreationStatement.getType();
+        if (type != CollectionType.LINK)
+            loadInteger(mv, collectionCreationStatement.size());
+        newCollection(type);
+
+        if (type == CollectionType.MAP) {
+            for (Map.Entry<ExpressionStatement<?>, ExpressionStatement<?>> pair : collectionCreationStatement.getPairs()
+                                                                                                      .entrySet()) {
+                mv.visitInsn(DUP);
+                pair.getKey()
+                    .accept(this);
+                pair.getValue()
+                    .accept(this);
+                addToCollection(type);
+            }
+            return;
+        }
+        for (ExpressionStatement<?> element : collectionCreationStatement.getElements()) {
+            mv.visitInsn(DUP);
+            element.accept(this);
+            addToCollection(type);
+        }
+    }
+
+    @Override
+    public void visitRange(RangeStatement rangeStatement) {
+        String owner = collectionClass(rangeStatement.getType());
+        rangeStatement.getStart()
+                      .accept(this);
+        asmIndexValue();
+        rangeStatement.getEnd()
+                      .accept(this);
+        asmIndexValue();
+        mv.visitMethodInsn(INVOKESTATIC, owner, "range", "(II)L" + owner + ";", false);
+    }
+
+    @Override
+    public void visitComprehension(ComprehensionStatement comprehension) {
+        CollectionType type = comprehension.getType();
+        List<ComprehensionStatement.Clause> clauses = comprehension.getClauses();
+        int index = comprehension.index();
+
+        context.referenceTableStack.push(comprehension.getReferenceTable());
+
+        // the outermost source is evaluated first, so the result can be presized from it
+        LoopHeader outer = (LoopHeader) clauses.get(0);
+        loadLoopSource(outer);
+        if (type != CollectionType.LINK)
+            loadSizeHint(outer);
+        newCollection(type);
+        mv.visitVarInsn(ASTORE, index);
+        initLoop(outer);
+
+        Label end = new Label();
+        visitClause(comprehension, 0, end);
+        mv.visitLabel(end);
+
+        context.referenceTableStack.pop();
+        mv.visitVarInsn(ALOAD, index);
+    }
+
+    private void visitClause(ComprehensionStatement comprehension, int position, Label skip) {
+        List<ComprehensionStatement.Clause> clauses = comprehension.getClauses();
+        if (position == clauses.size()) {
+            mv.visitVarInsn(ALOAD, comprehension.index());
+            comprehension.getElement()
+                         .accept(this);
+            if (comprehension.getType() == CollectionType.MAP)
+                comprehension.getValue()
+                             .accept(this);
+            addToCollection(comprehension.getType());
+            return;
+        }
+
+        ComprehensionStatement.Clause clause = clauses.get(position);
+        if (clause instanceof ComprehensionStatement.Filter) {
+            condition(((ComprehensionStatement.Filter) clause).getCondition());
+            mv.visitJumpInsn(IFEQ, skip);
+            visitClause(comprehension, position + 1, skip);
+            return;
+        }
+
+        LoopHeader loop = (LoopHeader) clause;
+        if (position > 0) {
+            loadLoopSource(loop);
+            initLoop(loop);
+        }
+
+        Label loopStart = new Label();
+        Label loopBody = new Label();
+        Label loopIncr = new Label();
+        Label loopEnd = new Label();
+
+        mv.visitLabel(loopStart);
+        loopHead(loop, loopBody, loopEnd);
+        mv.visitLabel(loopBody);
+
+        visitClause(comprehension, position + 1, loopIncr);
+
+        mv.visitLabel(loopIncr);
+        mv.visitIincInsn(loop.cursorIndex(), 1);
+        mv.visitJumpInsn(GOTO, loopStart);
+        mv.visitLabel(loopEnd);
+    }
+
+    // Ranges never materialize, they are iterated over int cursor and limit.
+    // The source slot keeps the start of the range.
+    private void loadLoopSource(LoopHeader loop) {
+        if (loop.isRange()) {
+            RangeStatement range = (RangeStatement) loop.getCollection();
+            range.getStart()
+                 .accept(this);
+            asmIndexValue();
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ISTORE, loop.sourceIndex());
+            mv.visitVarInsn(ISTORE, loop.cursorIndex());
+            range.getEnd()
+                 .accept(this);
+            asmIndexValue();
+            mv.visitVarInsn(ISTORE, loop.limitIndex());
+            return;
+        }
+        loop.getCollection()
+            .accept(this);
+        mv.visitVarInsn(ASTORE, loop.sourceIndex());
+    }
+
+    private void loadSizeHint(LoopHeader loop) {
+        if (loop.isRange()) {
+            mv.visitVarInsn(ILOAD, loop.limitIndex());
+            mv.visitVarInsn(ILOAD, loop.cursorIndex());
+            mv.visitInsn(ISUB);
+            return;
+        }
+        mv.visitVarInsn(ALOAD, loop.sourceIndex());
+        mv.visitMethodInsn(INVOKESTATIC, ITERATION, "sizeHint", "(Ljava/lang/Object;)I", false);
+    }
+
+    // limit >= 0: source is an indexed list of limit elements,
+    // otherwise source is replaced by an iterator.
+    private void initLoop(LoopHeader loop) {
+        if (loop.isRange())
+            return;
+        mv.visitVarInsn(ALOAD, loop.sourceIndex());
+        mv.visitInvokeDynamicInsn(loop.hasPair() ? "loopPairs" : "loop",
+                "(Ljava/lang/Object;)I",
+                ITERATION_HANDLE);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ISTORE, loop.limitIndex());
+        mv.visitVarInsn(ALOAD, loop.sourceIndex());
+        mv.visitInsn(SWAP);
+        mv.visitMethodInsn(INVOKESTATIC, ITERATION, "loopSource", "(Ljava/lang/Object;I)Ljava/lang/Object;", false);
+        mv.visitVarInsn(ASTORE, loop.sourceIndex());
+        loadInteger(mv, 0);
+        mv.visitVarInsn(ISTORE, loop.cursorIndex());
+    }
+
+    // assigns the loop variables for the next iteration, or jumps to loopEnd
+    private void loopHead(LoopHeader loop, Label loopBody, Label loopEnd) {
+        if (loop.isRange())
+            rangeLoopHead(loop, loopEnd);
+        else
+            collectionLoopHead(loop, loopBody, loopEnd);
+    }
+
+    private void rangeLoopHead(LoopHeader loop, Label loopEnd) {
+        mv.visitVarInsn(ILOAD, loop.cursorIndex());
+        mv.visitVarInsn(ILOAD, loop.limitIndex());
+        mv.visitJumpInsn(IF_ICMPGE, loopEnd);
+        if (loop.hasPair()) {
+            mv.visitVarInsn(ILOAD, loop.cursorIndex());
+            mv.visitVarInsn(ILOAD, loop.sourceIndex());
+            mv.visitInsn(ISUB);
+            asmIntegerObject();
+            bindLocal(loop.getVar1());
+            mv.visitVarInsn(ILOAD, loop.cursorIndex());
+            asmIntegerObject();
+            bindLocal(loop.getVar2());
+        } else {
+            mv.visitVarInsn(ILOAD, loop.cursorIndex());
+            asmIntegerObject();
+            bindLocal(loop.getVar1());
+        }
+    }
+
+    private void collectionLoopHead(LoopHeader loop, Label loopBody, Label loopEnd) {
+        Label iterate = new Label();
+        Label store = new Label();
+
+        mv.visitVarInsn(ILOAD, loop.limitIndex());
+        mv.visitJumpInsn(IFLT, iterate);
+        mv.visitVarInsn(ILOAD, loop.cursorIndex());
+        mv.visitVarInsn(ILOAD, loop.limitIndex());
+        mv.visitJumpInsn(IF_ICMPGE, loopEnd);
+        mv.visitVarInsn(ALOAD, loop.sourceIndex());
+        mv.visitTypeInsn(CHECKCAST, "library/DList");
+        mv.visitVarInsn(ILOAD, loop.cursorIndex());
+        mv.visitMethodInsn(INVOKEVIRTUAL, "library/DList", "get", "(I)Ljava/lang/Object;", false);
+        mv.visitJumpInsn(GOTO, store);
+
+        mv.visitLabel(iterate);
+        mv.visitVarInsn(ALOAD, loop.sourceIndex());
+        mv.visitTypeInsn(CHECKCAST, "java/util/Iterator");
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+        mv.visitJumpInsn(IFEQ, loopEnd);
+        mv.visitVarInsn(ALOAD, loop.sourceIndex());
+        mv.visitTypeInsn(CHECKCAST, "java/util/Iterator");
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+        if (!loop.hasPair()) {
+            mv.visitLabel(store);
+            bindLocal(loop.getVar1());
+            return;
+        }
+
+        // (key, value) for map entries, (position, element) otherwise
+        Label entries = new Label();
+        mv.visitVarInsn(ILOAD, loop.limitIndex());
+        loadInteger(mv, Iteration.ENTRIES);
+        mv.visitJumpInsn(IF_ICMPEQ, entries);
+
+        mv.visitLabel(store);
+        bindLocal(loop.getVar2());
+        mv.visitVarInsn(ILOAD, loop.cursorIndex());
+        asmIntegerObject();
+        bindLocal(loop.getVar1());
+        mv.visitJumpInsn(GOTO, loopBody);
+
+        mv.visitLabel(entries);
+        mv.visitTypeInsn(CHECKCAST, "java/util/Map$Entry");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map$Entry", "getKey", "()Ljava/lang/Object;", true);
+        bindLocal(loop.getVar1());
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map$Entry", "getValue", "()Ljava/lang/Object;", true);
+        bindLocal(loop.getVar2());
+    }
+
+    @Override
+    public void visitForEach(ForEachStatement forEachStatement) {
+        LoopHeader loop = forEachStatement.getHeader();
+        Label loopStart = new Label();
+        Label loopBody = new Label();
+        Label loopIncr = new Label();
+        Label loopEnd = new Label();
+
+        context.loopStartMap.put(forEachStatement, loopStart);
+        context.loopEndMap.put(forEachStatement, loopEnd);
+        context.loopIncrMap.put(forEachStatement, loopIncr);
+        context.referenceTableStack.push(forEachStatement.getReferenceTable());
+
+        loadLoopSource(loop);
+        initLoop(loop);
+
+        mv.visitLabel(loopStart);
+        loopHead(loop, loopBody, loopEnd);
+        mv.visitLabel(loopBody);
+        forEachStatement.getBlock()
+                        .accept(this);
+
+        mv.visitLabel(loopIncr);
+        mv.visitIincInsn(loop.cursorIndex(), 1);
+        mv.visitJumpInsn(GOTO, loopStart);
+        mv.visitLabel(loopEnd);
+
+        context.referenceTableStack.pop();
+    }
+
     @Override
     public void visitNull(NullStatement aNull) {
         mv.visitInsn(ACONST_NULL);
@@ -29,7 +29,9 @@
 
 package compiler.gen;
 
+import compiler.ir.PrimitiveType;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
 
 import static org.objectweb.asm.Opcodes.*;
 
@@ -68,4 +70,60 @@ public class JVMBytecodeUtils {
             methodVisitor.visitLdcInsn(value);
         }
     }
+
+    // the variant of an int instruction (ILOAD, IADD, IRETURN, ...) for type
+    static int opcode(PrimitiveType type, int intOpcode) {
+        return Type.getType(type.getDescriptor())
+                   .getOpcode(intOpcode);
+    }
+
+    static void loadZero(MethodVisitor methodVisitor, PrimitiveType type) {
+        switch (type) {
+            case LONG:
+                methodVisitor.visitInsn(LCONST_0);
+                break;
+            case DOUBLE:
+                methodVisitor.visitInsn(DCONST_0);
+                break;
+            default:
+                methodVisitor.visitInsn(ICONST_0);
+        }
+    }
+
+    private static String wrapper(PrimitiveType type) {
+        switch (type) {
+            case INT:
+                return "java/lang/Integer";
+            case LONG:
+                return "java/lang/Long";
+            case DOUBLE:
+                return "java/lang/Double";
+            default:
+                return "java/lang/Boolean";
+        }
+    }
+
+    static void box(MethodVisitor methodVisitor, PrimitiveType type) {
+        String wrapper = wrapper(type);
+        methodVisitor.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf",
+                "(" + type.getDescriptor() + ")L" + wrapper + ";", false);
+    }
+
+    // a dynamic value is checked to convert to type without losing precision
+    static void unbox(MethodVisitor methodVisitor, PrimitiveType type) {
+        String name = type.getName();
+        methodVisitor.visitMethodInsn(INVOKESTATIC, "runtime/TypedValues",
+                "to" + Character.toUpperCase(name.charAt(0)) + name.substring(1),
+                "(Ljava/lang/Object;)" + type.getDescriptor(), false);
+    }
+
+    // widens a numeric value, see PrimitiveType.widens
+    static void convert(MethodVisitor methodVisitor, PrimitiveType from, PrimitiveType to) {
+        if (from == to)
+            return;
+        if (from == PrimitiveType.INT)
+            methodVisitor.visitInsn(to == PrimitiveType.LONG ? I2L : I2D);
+        else
+            methodVisitor.visitInsn(L2D);
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.gen;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import runtime.LibraryBindings;
+import runtime.StandardLib;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static compiler.gen.JVMBytecodeUtils.loadInteger;
+import static org.objectweb.asm.Opcodes.*;
+
+// Writes the binding class of every registered library class (see
+// StandardLib.libraries), run by the build over the compiled classes. A binding class
+// returns the members as constants: each method as a ldc'd method handle,
+// each field read directly, so generating a library object needs no
+// reflection (see runtime.LibraryBindings).
+//
+// usage: LibraryBindingGenerator <classes directory>
+public final class LibraryBindingGenerator {
+    private LibraryBindingGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path classes = Paths.get(args[0]);
+        for (Class<?> library : StandardLib.libraries()) {
+            byte[] bindings = generate(library);
+            if (bindings != null)
+                Files.write(classes.resolve(Type.getInternalName(library) + LibraryBindings.SUFFIX + ".class"),
+                        bindings);
+        }
+    }
+
+    // null for a class without public static members
+    public static byte[] generate(Class<?> library) {
+        List<Method> methods = members(library.getDeclaredMethods());
+        List<Field> fields = members(library.getDeclaredFields());
+        if (methods.isEmpty() && fields.isEmpty())
+            return null;
+
+        String owner = Type.getInternalName(library);
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, owner + LibraryBindings.SUFFIX, null,
+                "java/lang/Object", null);
+
+        MethodVisitor mv = table(cw, LibraryBindings.METHODS, methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            Method method = methods.get(i);
+            entry(mv, 2 * i, method.getName());
+            mv.visitInsn(DUP);
+            loadInteger(mv, 2 * i + 1);
+            mv.visitLdcInsn(new Handle(H_INVOKESTATIC, owner, method.getName(), Type.getMethodDescriptor(method),
+                    library.isInterface()));
+            mv.visitInsn(AASTORE);
+        }
+        end(mv);
+
+        mv = table(cw, LibraryBindings.FIELDS, fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            entry(mv, 2 * i, field.getName());
+            mv.visitInsn(DUP);
+            loadInteger(mv, 2 * i + 1);
+            Type type = Type.getType(field.getType());
+            mv.visitFieldInsn(GETSTATIC, owner, field.getName(), type.getDescriptor());
+            box(mv, type);
+            mv.visitInsn(AASTORE);
+        }
+        end(mv);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static <T extends Member> List<T> members(T[] members) {
+        List<T> list = new ArrayList<>();
+        for (T member : members) {
+            if (Modifier.isPublic(member.getModifiers()) && Modifier.isStatic(member.getModifiers()))
+                list.add(member);
+        }
+        // overloads keep a fixed order, the last one defines the name
+        list.sort(Comparator.comparing(Member::getName)
+                            .thenComparing(Member::toString));
+        return list;
+    }
+
+    // public static Object[] <name>(), an array of name, value pairs
+    private static MethodVisitor table(ClassWriter cw, String name, int size) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, name, "()[Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        loadInteger(mv, 2 * size);
+        mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+        return mv;
+    }
+
+    private static void entry(MethodVisitor mv, int index, String name) {
+        mv.visitInsn(DUP);
+        loadInteger(mv, index);
+        mv.visitLdcInsn(name);
+        mv.visitInsn(AASTORE);
+    }
+
+    private static void end(MethodVisitor mv) {
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        String wrapper;
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                wrapper = "java/lang/Boolean";
+                break;
+            case Type.CHAR:
+                wrapper = "java/lang/Character";
+                break;
+            case Type.BYTE:
+                wrapper = "java/lang/Byte";
+                break;
+            case Type.SHORT:
+                wrapper = "java/lang/Short";
+                break;
+            case Type.INT:
+                wrapper = "java/lang/Integer";
+                break;
+            case Type.FLOAT:
+                wrapper = "java/lang/Float";
+                break;
+            case Type.LONG:
+                wrapper = "java/lang/Long";
+                break;
+            case Type.DOUBLE:
+                wrapper = "java/lang/Double";
+                break;
+            default:
+                return;
+        }
+        mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + type.getDescriptor() + ")L" + wrapper + ";",
+                false);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.gen;
+
+import compiler.ir.*;
+import compiler.util.Log;
+
+import java.util.*;
+
+import static compiler.util.Log.Type.UNUSED_FUNCTION;
+import static compiler.util.Log.Type.UNUSED_IMPORT;
+import static compiler.util.Messages.message;
+
+// Drops the import symbols no reachable code refers to, so their modules are not
+// loaded at runtime, and the private module functions that are never referenced.
+public class ReachabilityVisitor extends AbstractCafeIrVisitor {
+
+    private final Log log;
+    private final Deque<ReferenceTable> tableStack = new LinkedList<>();
+    // module functions by the global they are bound to
+    private final Map<SymbolReference, CafeFunction> bindings = new LinkedHashMap<>();
+    private final Set<CafeFunction> reachable = new HashSet<>();
+    private final Deque<CafeFunction> pending = new LinkedList<>();
+    private final Set<String> unresolvedNames = new HashSet<>();
+    // a global `this` can reach any global by name
+    private boolean usesGlobalThis = false;
+
+    public ReachabilityVisitor(Log log) {
+        this.log = log;
+    }
+
+    @Override
+    public void visitModule(CafeModule module) {
+        Set<String> exports = new HashSet<>();
+        for (CafeExport export : module.getExports())
+            exports.add(export.getName());
+        for (CafeFunction function : module.getFunctions()) {
+            if (isModuleFunction(function))
+                bindings.put(function.getBinding(), function);
+        }
+
+        reach(module.getInitFunc());
+        for (CafeFunction function : bindings.values()) {
+            if (function.isExported() || exports.contains(function.getName()))
+                reach(function);
+        }
+        while (!pending.isEmpty())
+            pending.pop()
+                   .getBlock()
+                   .accept(this);
+
+        if (!usesGlobalThis)
+            removeUnreachableFunctions(module);
+        removeUnusedImports(module);
+    }
+
+    private static boolean isModuleFunction(CafeFunction function) {
+        return !function.isInit() && !function.isClosure() && function.getBinding() != null;
+    }
+
+    private void reach(CafeFunction function) {
+        if (reachable.add(function))
+            pending.push(function);
+    }
+
+    private void removeUnreachableFunctions(CafeModule module) {
+        Set<CafeFunction> removed = new HashSet<>();
+        for (CafeFunction function : bindings.values()) {
+            if (!reachable.contains(function)) {
+                removed.add(function);
+                log.warn(UNUSED_FUNCTION, null, message(UNUSED_FUNCTION, function.getName()));
+            }
+        }
+        if (removed.isEmpty())
+            return;
+        module.getInitFunc()
+              .getBlock()
+              .getStatements()
+              .removeIf(statement -> removed.contains(declaredFunction(statement)));
+        // closures of removed functions were never reached either
+        module.getFunctions()
+              .removeIf(function -> !function.isInit() && !reachable.contains(function));
+    }
+
+    private CafeFunction declaredFunction(CafeStatement<?> statement) {
+        if (!(statement instanceof DeclarativeAssignmentStatement))
+            return null;
+        DeclarativeAssignmentStatement declaration = (DeclarativeAssignmentStatement) statement;
+        ExpressionStatement<?> value = declaration.getExpressionStatement();
+        if (!(value instanceof FunctionWrapper))
+            return null;
+        CafeFunction function = bindings.get(declaration.getSymbolReference());
+        return function == ((FunctionWrapper) value).getTarget() ? function : null;
+    }
+
+    private void removeUnusedImports(CafeModule module) {
+        for (CafeImport cafeImport : module.getImports()) {
+            Iterator<Map.Entry<String, String>> names = cafeImport.getNameAlias()
+                                                                  .entrySet()
+                                                                  .iterator();
+            while (names.hasNext()) {
+                Map.Entry<String, String> entry = names.next();
+                String local = entry.getValue() == null ? entry.getKey() : entry.getValue();
+                if (!unresolvedNames.contains(local)) {
+                    names.remove();
+                    log.warn(UNUSED_IMPORT, null, message(UNUSED_IMPORT, local, cafeImport.getModulePath()));
+                }
+            }
+            if (cafeImport.getNameAlias()
+                          .isEmpty())
+                module.removeImport(cafeImport);
+        }
+    }
+
+    @Override
+    public void visitDeclarativeAssignment(DeclarativeAssignmentStatement assignmentStatement) {
+        // declaring a module function does not make it reachable
+        if (declaredFunction(assignmentStatement) != null)
+            return;
+        assignmentStatement.walk(this);
+    }
+
+    @Override
+    public void visitFunctionWrapper(FunctionWrapper functionWrapper) {
+        CafeFunction target = functionWrapper.getTarget();
+        if (reachable.add(target))
+            target.getBlock()
+                  .accept(this);
+    }
+
+    @Override
+    public void visitReferenceLookup(ReferenceLookup referenceLookup) {
+        SymbolReference reference = referenceLookup.resolveIn(tableStack.peek());
+        if (reference == null) {
+            unresolvedNames.add(referenceLookup.getName());
+            return;
+        }
+        CafeFunction function = bindings.get(reference);
+        if (function != null)
+            reach(function);
+    }
+
+    @Override
+    public void visitThis(ThisStatement thisStatement) {
+        if (thisStatement.isGlobal())
+            usesGlobalThis = true;
+    }
+
+    @Override
+    public void visitBlock(Block block) {
+        tableStack.push(block.getReferenceTable());
+        for (CafeStatement<?> statement : block.getStatements())
+            statement.accept(this);
+        tableStack.pop();
+    }
+
+    @Override
+    public void visitForEach(ForEachStatement forEachStatement) {
+        tableStack.push(forEachStatement.getReferenceTable());
+        forEachStatement.walk(this);
+        tableStack.pop();
+    }
+
+    @Override
+    public void visitComprehension(ComprehensionStatement comprehension) {
+        tableStack.push(comprehension.getReferenceTable());
+        comprehension.walk(this);
+        tableStack.pop();
+    }
+
+    @Override
+    public void visitAssignment(AssignmentStatement assignmentStatement) {
+        // an assigned property still uses the object it is assigned on
+        assignmentStatement.getLhsExpression()
+                           .accept(this);
+        assignmentStatement.walk(this);
+    }
+
+    @Override
+    public void visitMethodInvocation(MethodInvocation methodInvocation) {
+        methodInvocation.walk(this);
+        for (CafeElement<?> arg : methodInvocation.getArguments())
+            arg.accept(this);
+    }
+
+    @Override
+    public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
+        functionInvocation.getReference()
+                          .accept(this);
+        for (CafeElement<?> arg : functionInvocation.getArguments())
+            arg.accept(this);
+    }
+
+    @Override
+    public void visitForLoop(ForLoopStatement forLoopStatement) {
+        if (forLoopStatement.getInitStatements() != null) {
+            for (AssignedStatement init : forLoopStatement.getInitStatements())
+                init.accept(this);
+        }
+        forLoopStatement.getCondition()
+                        .accept(this);
+        forLoopStatement.getBlock()
+                        .accept(this);
+        if (forLoopStatement.getPostStatements() != null) {
+            for (CafeStatement<?> post : forLoopStatement.getPostStatements())
+                post.accept(this);
+        }
+    }
+}
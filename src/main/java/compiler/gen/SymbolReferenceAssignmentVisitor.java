@@ -48,6 +48,12 @@ public class SymbolReferenceAssignmentVisitor extends AbstractCafeIrVisitor {
             return counter++;
         }
 
+        public int next(int size) {
+            int index = counter;
+            counter += size;
+            return index;
+        }
+
         public void set(int c) {
             counter = c;
         }
@@ -73,22 +79,30 @@ public class SymbolReferenceAssignmentVisitor extends AbstractCafeIrVisitor {
 
     private void bindReference(SymbolReference reference) {
         if (reference.getIndex() < 0) {
-            reference.setIndex(assignmentCounter.next());
+            reference.setIndex(assignmentCounter.next(slots(reference)));
         }
     }
 
+    // long and double locals take two slots
+    private static int slots(SymbolReference reference) {
+        PrimitiveType type = reference.getPrimitiveType();
+        return type == null ? 1 : type.getSize();
+    }
+
     @Override
     public void visitFunction(CafeFunction cafeFunction) {
         if (cafeFunction.isInit())
             assignmentCounter.set(0);
         else
             assignmentCounter.set(1);
+        for (SymbolReference capture : cafeFunction.getCaptures())
+            capture.setIndex(assignmentCounter.next());
         ReferenceTable table = cafeFunction.getBlock()
                                            .getReferenceTable();
         for (String parameter : cafeFunction.getParameterNames()) {
             SymbolReference ref = table.get(parameter);
             if (!ref.isGlobal())
-                ref.setIndex(assignmentCounter.next());
+                ref.setIndex(assignmentCounter.next(slots(ref)));
         }
 
         cafeFunction.walk(this);
@@ -101,6 +115,43 @@ public class SymbolReferenceAssignmentVisitor extends AbstractCafeIrVisitor {
         creationStatement.walk(this);
     }
 
+    @Override
+    public void visitComprehension(ComprehensionStatement comprehension) {
+        if (comprehension.index() < 0)
+            comprehension.setIndex(assignmentCounter.next());
+        for (ComprehensionStatement.Clause clause : comprehension.getClauses()) {
+            if (clause instanceof LoopHeader)
+                bindLoopHeader((LoopHeader) clause);
+        }
+        comprehension.walk(this);
+    }
+
+    private void bindLoopHeader(LoopHeader loop) {
+        bindReference(loop.getVar1());
+        if (loop.hasPair())
+            bindReference(loop.getVar2());
+        loop.setIndices(assignmentCounter.next(), assignmentCounter.next(), assignmentCounter.next());
+    }
+
+    @Override
+    public void visitForEach(ForEachStatement forEachStatement) {
+        bindLoopHeader(forEachStatement.getHeader());
+        forEachStatement.walk(this);
+    }
+
+    @Override
+    public void visitFunctionWrapper(FunctionWrapper functionWrapper) {
+        // target function is visited from the module
+    }
+
+    @Override
+    public void visitMethodInvocation(MethodInvocation methodInvocation) {
+        methodInvocation.walk(this);
+        for (CafeElement<?> arg : methodInvocation.getArguments()) {
+            arg.accept(this);
+        }
+    }
+
     @Override
     public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
         for (CafeElement<?> arg : functionInvocation.getArguments()) {
@@ -122,8 +173,14 @@ public class SymbolReferenceAssignmentVisitor extends AbstractCafeIrVisitor {
         if (forLoopStatement.getInitStatements() != null) {
             for (AssignedStatement init : forLoopStatement.getInitStatements())
                 init.accept(this);
-            forLoopStatement.getBlock()
-                            .accept(this);
+        }
+        forLoopStatement.getCondition()
+                        .accept(this);
+        forLoopStatement.getBlock()
+                        .accept(this);
+        if (forLoopStatement.getPostStatements() != null) {
+            for (CafeStatement<?> post : forLoopStatement.getPostStatements())
+                post.accept(this);
         }
     }
 }
@@ -36,6 +36,7 @@ public class BinaryExpression extends ExpressionStatement<BinaryExpression> {
     private final OperatorType type;
     private ExpressionStatement<?> leftExpression;
     private ExpressionStatement<?> rightExpression;
+    private boolean accumulating;
 
     private BinaryExpression(OperatorType type) {
         this.type = type;
@@ -68,6 +69,16 @@ public class BinaryExpression extends ExpressionStatement<BinaryExpression> {
         return leftExpression;
     }
 
+    // s = s + x: the left operand is the variable being grown
+    public BinaryExpression accumulating() {
+        this.accumulating = true;
+        return this;
+    }
+
+    public boolean isAccumulating() {
+        return accumulating;
+    }
+
     public OperatorType getType() {
         return type;
     }
@@ -35,7 +35,7 @@ public class BreakContinueStatement extends CafeStatement<BreakContinueStatement
     }
 
     private final Type type;
-    private ForLoopStatement enclosingLoop;
+    private CafeStatement<?> enclosingLoop;
 
     private BreakContinueStatement(Type type) {
         this.type = type;
@@ -49,12 +49,12 @@ public class BreakContinueStatement extends CafeStatement<BreakContinueStatement
         return new BreakContinueStatement(Type.BREAK);
     }
 
-    public BreakContinueStatement setEnclosingLoop(ForLoopStatement enclosingLoop) {
+    public BreakContinueStatement setEnclosingLoop(CafeStatement<?> enclosingLoop) {
         this.enclosingLoop = enclosingLoop;
         return this;
     }
 
-    public ForLoopStatement getEnclosingLoop() {
+    public CafeStatement<?> getEnclosingLoop() {
         return enclosingLoop;
     }
 
@@ -37,9 +37,12 @@ import java.util.List;
 public class CafeFunction extends ExpressionStatement<CafeFunction> {
 
     private String name;
-    private Scope scope;
+    private Scope scope = Scope.MODULE;
     private Block block;
     private List<String> parameterNames = new LinkedList<>();
+    private List<SymbolReference> captures = Collections.emptyList();
+    private SymbolReference binding;
+    private PrimitiveType returnType;
     private boolean isSynthetic = false;
     private boolean isVarargs = false;
     private boolean isInit = false;
@@ -67,6 +70,45 @@ public class CafeFunction extends ExpressionStatement<CafeFunction> {
         return this;
     }
 
+    // captured variables are passed as leading arguments, before the parameters
+    public CafeFunction asClosure(List<SymbolReference> captures) {
+        this.scope = Scope.CLOSURE;
+        this.isSynthetic = true;
+        this.captures = captures;
+        return this;
+    }
+
+    // the variable the function is declared as, if any
+    public CafeFunction bindTo(SymbolReference binding) {
+        this.binding = binding;
+        return this;
+    }
+
+    public SymbolReference getBinding() {
+        return binding;
+    }
+
+    public CafeFunction returning(PrimitiveType type) {
+        this.returnType = type;
+        return this;
+    }
+
+    public PrimitiveType getReturnType() {
+        return returnType;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public boolean isClosure() {
+        return scope == Scope.CLOSURE;
+    }
+
+    public List<SymbolReference> getCaptures() {
+        return captures;
+    }
+
     public boolean isInit() {
         return isInit;
     }
@@ -115,9 +157,10 @@ public class CafeFunction extends ExpressionStatement<CafeFunction> {
     }
 
     private void addParamterToBlockReferences(String name) {
-        this.getBlock()
-            .getReferenceTable()
-            .add(SymbolReference.of(name, SymbolReference.Kind.VAR));
+        ReferenceTable table = this.getBlock()
+                                   .getReferenceTable();
+        if (!table.declares(name))
+            table.add(SymbolReference.of(name, SymbolReference.Kind.VAR));
     }
 
     public int getArity() {
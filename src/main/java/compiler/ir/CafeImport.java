@@ -36,6 +36,7 @@ public class CafeImport extends CafeStatement<CafeImport> {
     private final Map<String, String> nameAlias;
     private final String modulePath;
     private boolean isDefault = false;
+    private boolean isLazy = false;
 
     private CafeImport(String modulePath) {
         nameAlias = new HashMap<>();
@@ -63,6 +64,16 @@ public class CafeImport extends CafeStatement<CafeImport> {
         return isDefault;
     }
 
+    // the module is initialized on the first use of one of its symbols
+    public CafeImport lazy() {
+        isLazy = true;
+        return this;
+    }
+
+    public boolean isLazy() {
+        return isLazy;
+    }
+
     public String getModulePath() {
         return modulePath;
     }
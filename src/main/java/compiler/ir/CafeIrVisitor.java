@@ -38,12 +38,16 @@ public interface CafeIrVisitor {
 
     void visitFunction(CafeFunction cafeFunction);
 
+    void visitStruct(CafeStruct struct);
+
     void visitAssignment(AssignmentStatement assignmentStatement);
 
     void visitBinaryExpression(BinaryExpression binaryExpression);
 
     void visitUnaryExpression(UnaryExpression unaryExpression);
 
+    void visitStringConcat(StringConcatStatement stringConcat);
+
     void visitConstantStatement(ConstantStatement constantStatement);
 
     void visitReferenceLookup(ReferenceLookup referenceLookup);
@@ -62,6 +66,8 @@ public interface CafeIrVisitor {
 
     void visitSubscript(SubscriptStatement subscriptStatement);
 
+    void visitSlice(SliceStatement sliceStatement);
+
     void visitPropertyAccess(PropertyAccess propertyAccess);
 
     void visitReturn(ReturnStatement returnStatement);
@@ -70,13 +76,23 @@ public interface CafeIrVisitor {
 
     void visitObjectCreation(ObjectCreationStatement creationStatement);
 
+    void visitStructCreation(StructCreationStatement structCreation);
+
     void visitConditionalBranching(ConditionalBranching conditionalBranching);
 
     void visitForLoop(ForLoopStatement forLoopStatement);
 
+    void visitForEach(ForEachStatement forEachStatement);
+
     void visitCafeImport(CafeImport cafeImport);
 
     void visitBreakContinue(BreakContinueStatement breakContinueStatement);
 
     void visitCafeExport(CafeExport cafeExport);
+
+    void visitCollectionCreation(CollectionCreationStatement collectionCreationStatement);
+
+    void visitRange(RangeStatement rangeStatement);
+
+    void visitComprehension(ComprehensionStatement comprehensionStatement);
 }
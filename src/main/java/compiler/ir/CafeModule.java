@@ -38,6 +38,7 @@ public class CafeModule extends CafeElement<CafeModule> {
     private CafeFunction initFunc;
 
     private Set<CafeFunction> functions = new LinkedHashSet<>();
+    private List<CafeStruct> structs = new LinkedList<>();
     private List<CafeImport> imports = new LinkedList<>();
     private List<CafeExport> exports = new LinkedList<>();
 
@@ -74,10 +75,22 @@ public class CafeModule extends CafeElement<CafeModule> {
         this.functions.add(function);
     }
 
+    public void addStruct(CafeStruct struct) {
+        structs.add(struct);
+    }
+
+    public List<CafeStruct> getStructs() {
+        return structs;
+    }
+
     public void addImport(CafeImport cafeImport) {
         imports.add(cafeImport);
     }
 
+    public void removeImport(CafeImport cafeImport) {
+        imports.remove(cafeImport);
+    }
+
     public void addExport(CafeExport cafeExport) {
         exports.add(cafeExport);
     }
@@ -97,11 +110,16 @@ public class CafeModule extends CafeElement<CafeModule> {
     public List<CafeElement<?>> children() {
         LinkedList<CafeElement<?>> children = new LinkedList<>();
         children.addAll(getImports());
+        children.addAll(structs);
         children.addAll(functions);
         children.add(initFunc);
         return children;
     }
 
+    public Set<CafeFunction> getFunctions() {
+        return functions;
+    }
+
     public CafeFunction getInitFunc() {
         return initFunc;
     }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+// a fixed layout record, compiled to a class of its own with one field per declared name
+public class CafeStruct extends CafeElement<CafeStruct> {
+    private final String name;
+    private final List<String> fields;
+
+    private CafeStruct(String name, List<String> fields) {
+        this.name = name;
+        this.fields = fields;
+    }
+
+    public static CafeStruct of(String name, List<String> fields) {
+        return new CafeStruct(name, fields);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected CafeStruct self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitStruct(this);
+    }
+}
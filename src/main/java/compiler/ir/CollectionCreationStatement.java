@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public class CollectionCreationStatement extends ExpressionStatement<CollectionCreationStatement> {
+    private final CollectionType type;
+    private final List<ExpressionStatement<?>> elements;
+    private final Map<ExpressionStatement<?>, ExpressionStatement<?>> pairs;
+
+    private CollectionCreationStatement(CollectionType type, List<ExpressionStatement<?>> elements,
+                                        Map<ExpressionStatement<?>, ExpressionStatement<?>> pairs) {
+        this.type = type;
+        this.elements = elements;
+        this.pairs = pairs;
+    }
+
+    public static CollectionCreationStatement of(CollectionType type, List<ExpressionStatement<?>> elements) {
+        return new CollectionCreationStatement(type, elements, null);
+    }
+
+    public static CollectionCreationStatement ofMap(Map<ExpressionStatement<?>, ExpressionStatement<?>> pairs) {
+        return new CollectionCreationStatement(CollectionType.MAP, null, pairs);
+    }
+
+    public CollectionType getType() {
+        return type;
+    }
+
+    public List<ExpressionStatement<?>> getElements() {
+        return elements;
+    }
+
+    public Map<ExpressionStatement<?>, ExpressionStatement<?>> getPairs() {
+        return pairs;
+    }
+
+    public int size() {
+        return type == CollectionType.MAP ? pairs.size() : elements.size();
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        List<CafeElement<?>> children = new LinkedList<>();
+        if (type == CollectionType.MAP) {
+            for (Map.Entry<ExpressionStatement<?>, ExpressionStatement<?>> pair : pairs.entrySet()) {
+                children.add(pair.getKey());
+                children.add(pair.getValue());
+            }
+        } else {
+            children.addAll(elements);
+        }
+        return children;
+    }
+
+    @Override
+    protected CollectionCreationStatement self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitCollectionCreation(this);
+    }
+}
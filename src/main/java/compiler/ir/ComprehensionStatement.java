@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.LinkedList;
+import java.util.List;
+
+// Comprehension is lowered to a nest of loops, one per loop clause,
+// appending directly into the result collection. No intermediate
+// collections are created for nested loops or filters.
+public class ComprehensionStatement extends ExpressionStatement<ComprehensionStatement> {
+    private final CollectionType type;
+    private final ReferenceTable referenceTable;
+    private final List<Clause> clauses = new LinkedList<>();
+    private ExpressionStatement<?> element;
+    private ExpressionStatement<?> value;
+    private int index = -1;
+
+    public static abstract class Clause {
+    }
+
+    public static final class Filter extends Clause {
+        private final ExpressionStatement<?> condition;
+
+        private Filter(ExpressionStatement<?> condition) {
+            this.condition = condition;
+        }
+
+        public ExpressionStatement<?> getCondition() {
+            return condition;
+        }
+    }
+
+    private ComprehensionStatement(CollectionType type, ReferenceTable referenceTable) {
+        this.type = type;
+        this.referenceTable = referenceTable;
+    }
+
+    public static ComprehensionStatement of(CollectionType type, ReferenceTable referenceTable) {
+        return new ComprehensionStatement(type, referenceTable);
+    }
+
+    public static LoopHeader loop(SymbolReference var1, SymbolReference var2, ExpressionStatement<?> collection) {
+        return LoopHeader.of(var1, var2, collection);
+    }
+
+    public static Filter filter(ExpressionStatement<?> condition) {
+        return new Filter(condition);
+    }
+
+    public ComprehensionStatement add(Clause clause) {
+        clauses.add(clause);
+        return this;
+    }
+
+    public ComprehensionStatement element(ExpressionStatement<?> element) {
+        this.element = element;
+        return this;
+    }
+
+    public ComprehensionStatement value(ExpressionStatement<?> value) {
+        this.value = value;
+        return this;
+    }
+
+    public CollectionType getType() {
+        return type;
+    }
+
+    public ReferenceTable getReferenceTable() {
+        return referenceTable;
+    }
+
+    public List<Clause> getClauses() {
+        return clauses;
+    }
+
+    // for maps, element is the key
+    public ExpressionStatement<?> getElement() {
+        return element;
+    }
+
+    public ExpressionStatement<?> getValue() {
+        return value;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        List<CafeElement<?>> children = new LinkedList<>();
+        for (Clause clause : clauses) {
+            if (clause instanceof LoopHeader)
+                children.add(((LoopHeader) clause).getCollection());
+            else
+                children.add(((Filter) clause).getCondition());
+        }
+        if (element != null)
+            children.add(element);
+        if (value != null)
+            children.add(value);
+        return children;
+    }
+
+    @Override
+    protected ComprehensionStatement self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitComprehension(this);
+    }
+}
@@ -64,6 +64,10 @@ public class DeclarativeAssignmentStatement extends AssignedStatement {
         return symbolReference;
     }
 
+    public ExpressionStatement<?> getExpressionStatement() {
+        return expressionStatement;
+    }
+
     @Override
     public List<CafeElement<?>> children() {
         return Collections.singletonList(expressionStatement);
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ForEachStatement extends CafeStatement<ForEachStatement> {
+    private final LoopHeader header;
+    private final ReferenceTable referenceTable;
+    private Block block = null;
+
+    private ForEachStatement(LoopHeader header, ReferenceTable referenceTable) {
+        this.header = header;
+        this.referenceTable = referenceTable;
+    }
+
+    public static ForEachStatement of(LoopHeader header, ReferenceTable referenceTable) {
+        return new ForEachStatement(header, referenceTable);
+    }
+
+    public ForEachStatement block(Block block) {
+        this.block = block;
+        return this;
+    }
+
+    public LoopHeader getHeader() {
+        return header;
+    }
+
+    public ReferenceTable getReferenceTable() {
+        return referenceTable;
+    }
+
+    public Block getBlock() {
+        return block;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return Arrays.asList(header.getCollection(), block);
+    }
+
+    @Override
+    protected ForEachStatement self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitForEach(this);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+// `loop var1[, var2] in collection`, shared by loop statements and
+// comprehensions. The indices are the local slots used by the generated
+// loop: the prepared source, its limit (or iteration mode) and the cursor.
+public final class LoopHeader extends ComprehensionStatement.Clause {
+    private final SymbolReference var1;
+    private final SymbolReference var2;
+    private final ExpressionStatement<?> collection;
+    private int sourceIndex = -1;
+    private int limitIndex = -1;
+    private int cursorIndex = -1;
+
+    private LoopHeader(SymbolReference var1, SymbolReference var2, ExpressionStatement<?> collection) {
+        this.var1 = var1;
+        this.var2 = var2;
+        this.collection = collection;
+    }
+
+    public static LoopHeader of(SymbolReference var1, SymbolReference var2, ExpressionStatement<?> collection) {
+        return new LoopHeader(var1, var2, collection);
+    }
+
+    public SymbolReference getVar1() {
+        return var1;
+    }
+
+    public SymbolReference getVar2() {
+        return var2;
+    }
+
+    public boolean hasPair() {
+        return var2 != null;
+    }
+
+    public ExpressionStatement<?> getCollection() {
+        return collection;
+    }
+
+    public boolean isRange() {
+        return collection instanceof RangeStatement;
+    }
+
+    public void setIndices(int sourceIndex, int limitIndex, int cursorIndex) {
+        this.sourceIndex = sourceIndex;
+        this.limitIndex = limitIndex;
+        this.cursorIndex = cursorIndex;
+    }
+
+    public int sourceIndex() {
+        return sourceIndex;
+    }
+
+    public int limitIndex() {
+        return limitIndex;
+    }
+
+    public int cursorIndex() {
+        return cursorIndex;
+    }
+}
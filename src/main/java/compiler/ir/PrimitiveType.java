@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+// types a variable, parameter or function result can be annotated with
+public enum PrimitiveType {
+    INT("int", "I", 1),
+    LONG("long", "J", 2),
+    DOUBLE("double", "D", 2),
+    BOOLEAN("boolean", "Z", 1);
+
+    private final String name;
+    private final String descriptor;
+    private final int size;
+
+    PrimitiveType(String name, String descriptor, int size) {
+        this.name = name;
+        this.descriptor = descriptor;
+        this.size = size;
+    }
+
+    public static PrimitiveType of(String name) {
+        for (PrimitiveType type : values()) {
+            if (type.name.equals(name))
+                return type;
+        }
+        return null;
+    }
+
+    // the type both operands of a numeric operation are converted to
+    public static PrimitiveType promote(PrimitiveType a, PrimitiveType b) {
+        if (a == null || b == null || !a.isNumeric() || !b.isNumeric())
+            return null;
+        return a.ordinal() > b.ordinal() ? a : b;
+    }
+
+    // whether a value of this type can be stored as type without losing precision
+    public boolean widens(PrimitiveType type) {
+        return this == type || promote(this, type) == type;
+    }
+
+    public boolean isNumeric() {
+        return this != BOOLEAN;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    // number of local variable slots a value takes
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.Arrays;
+import java.util.List;
+
+// [start..end], end is exclusive
+public class RangeStatement extends ExpressionStatement<RangeStatement> {
+    private final CollectionType type;
+    private final ExpressionStatement<?> start;
+    private final ExpressionStatement<?> end;
+
+    private RangeStatement(CollectionType type, ExpressionStatement<?> start, ExpressionStatement<?> end) {
+        this.type = type;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static RangeStatement of(CollectionType type, ExpressionStatement<?> start, ExpressionStatement<?> end) {
+        return new RangeStatement(type, start, end);
+    }
+
+    public CollectionType getType() {
+        return type;
+    }
+
+    public ExpressionStatement<?> getStart() {
+        return start;
+    }
+
+    public ExpressionStatement<?> getEnd() {
+        return end;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return Arrays.asList(start, end);
+    }
+
+    @Override
+    protected RangeStatement self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitRange(this);
+    }
+}
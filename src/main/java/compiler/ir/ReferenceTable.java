@@ -69,6 +69,25 @@ public class ReferenceTable {
         }
     }
 
+    // whether name is declared in this table or its parents up to root
+    public boolean declaresWithin(String name, ReferenceTable root) {
+        for (ReferenceTable current = this; current != null; current = current.parent) {
+            if (current.table.containsKey(name))
+                return true;
+            if (current == root)
+                return false;
+        }
+        return false;
+    }
+
+    public boolean declares(String name) {
+        return table.containsKey(name);
+    }
+
+    public void reparent(ReferenceTable parent) {
+        this.parent = parent;
+    }
+
     public ReferenceTable fork() {
         return new ReferenceTable(this);
     }
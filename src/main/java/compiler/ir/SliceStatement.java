@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.Arrays;
+import java.util.List;
+
+// x[start:end], end is exclusive
+public class SliceStatement extends ExpressionStatement<SliceStatement> {
+    private final ExpressionStatement<?> slicedOn;
+    private final ExpressionStatement<?> start;
+    private final ExpressionStatement<?> end;
+
+    private SliceStatement(ExpressionStatement<?> slicedOn, ExpressionStatement<?> start, ExpressionStatement<?> end) {
+        this.slicedOn = slicedOn;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static SliceStatement create(Object slicedOn, Object start, Object end) {
+        return new SliceStatement(
+                ExpressionStatement.of(slicedOn),
+                ExpressionStatement.of(start),
+                ExpressionStatement.of(end)
+        );
+    }
+
+    public ExpressionStatement<?> getSlicedOn() {
+        return slicedOn;
+    }
+
+    public ExpressionStatement<?> getStart() {
+        return start;
+    }
+
+    public ExpressionStatement<?> getEnd() {
+        return end;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return Arrays.asList(slicedOn, start, end);
+    }
+
+    @Override
+    protected SliceStatement self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitSlice(this);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// a + ":" + b + ":" + c, lowered to one concatenation over the flattened operands
+public class StringConcatStatement extends ExpressionStatement<StringConcatStatement> {
+    private final List<ExpressionStatement<?>> operands = new ArrayList<>();
+    private boolean accumulating;
+
+    private StringConcatStatement() {
+    }
+
+    public static StringConcatStatement create(Object... operands) {
+        StringConcatStatement concat = new StringConcatStatement();
+        for (Object operand : operands)
+            concat.add(operand);
+        return concat;
+    }
+
+    public static boolean isStringConstant(ExpressionStatement<?> expression) {
+        return expression instanceof ConstantStatement
+                && ((ConstantStatement) expression).value() instanceof String;
+    }
+
+    public StringConcatStatement add(Object operand) {
+        if (operand instanceof StringConcatStatement)
+            operands.addAll(((StringConcatStatement) operand).operands);
+        else
+            operands.add(ExpressionStatement.of(operand));
+        return this;
+    }
+
+    // s = s + ...: the first operand is the variable being grown
+    public StringConcatStatement accumulating() {
+        this.accumulating = true;
+        return this;
+    }
+
+    public boolean isAccumulating() {
+        return accumulating;
+    }
+
+    public List<ExpressionStatement<?>> getOperands() {
+        return Collections.unmodifiableList(operands);
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return new ArrayList<>(operands);
+    }
+
+    @Override
+    protected StringConcatStatement self() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "StringConcat{" +
+                "operands=" + operands +
+                ", accumulating=" + accumulating +
+                '}';
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitStringConcat(this);
+    }
+}
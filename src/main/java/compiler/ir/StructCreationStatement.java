@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.ir;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public class StructCreationStatement extends ExpressionStatement<StructCreationStatement> {
+    private final CafeStruct struct;
+    // one value per field, in declaration order
+    private final List<ExpressionStatement<?>> values;
+
+    private StructCreationStatement(CafeStruct struct, List<ExpressionStatement<?>> values) {
+        this.struct = struct;
+        this.values = values;
+    }
+
+    public static StructCreationStatement create(CafeStruct struct, List<ExpressionStatement<?>> values) {
+        return new StructCreationStatement(struct, values);
+    }
+
+    public CafeStruct getStruct() {
+        return struct;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return new LinkedList<>(values);
+    }
+
+    @Override
+    protected StructCreationStatement self() {
+        return this;
+    }
+
+    @Override
+    public void accept(CafeIrVisitor visitor) {
+        visitor.visitStructCreation(this);
+    }
+}
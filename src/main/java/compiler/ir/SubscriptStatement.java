@@ -29,6 +29,9 @@
 
 package compiler.ir;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class SubscriptStatement extends ExpressionStatement<SubscriptStatement> {
     private ExpressionStatement<?> subscriptOf;
     private ExpressionStatement<?> index;
@@ -45,6 +48,19 @@ public class SubscriptStatement extends ExpressionStatement<SubscriptStatement>
         );
     }
 
+    public ExpressionStatement<?> getSubscriptOf() {
+        return subscriptOf;
+    }
+
+    public ExpressionStatement<?> getIndex() {
+        return index;
+    }
+
+    @Override
+    public List<CafeElement<?>> children() {
+        return Arrays.asList(subscriptOf, index);
+    }
+
     @Override
     protected SubscriptStatement self() {
         return this;
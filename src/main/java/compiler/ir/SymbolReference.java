@@ -48,6 +48,14 @@ public class SymbolReference extends CafeElement<SymbolReference> {
     private final String name;
     private final Kind kind;
     private int index = -1;
+    // set on the closure's own copy of a captured variable
+    private SymbolReference capturedFrom;
+    private boolean isCaptured = false;
+    private boolean isAssigned = false;
+    private boolean isRecursive = false;
+    private boolean isAccumulated = false;
+    private boolean isString = false;
+    private PrimitiveType type;
 
     private SymbolReference(String name, Kind kind) {
         this.kind = kind;
@@ -58,6 +66,80 @@ public class SymbolReference extends CafeElement<SymbolReference> {
         return new SymbolReference(name, kind);
     }
 
+    public static SymbolReference capturing(SymbolReference outer) {
+        SymbolReference reference = new SymbolReference(outer.name, Kind.VAR);
+        reference.capturedFrom = outer;
+        reference.origin().isCaptured = true;
+        return reference;
+    }
+
+    private SymbolReference origin() {
+        SymbolReference reference = this;
+        while (reference.capturedFrom != null)
+            reference = reference.capturedFrom;
+        return reference;
+    }
+
+    public SymbolReference getCapturedFrom() {
+        return capturedFrom;
+    }
+
+    public void markAssigned() {
+        origin().isAssigned = true;
+    }
+
+    public boolean isAssigned() {
+        return origin().isAssigned;
+    }
+
+    // bound to a nested function, whose body may capture it before it is initialized
+    public void markRecursive() {
+        origin().isRecursive = true;
+    }
+
+    // grown by s = s + x, the variable may hold a rope which is flattened
+    // wherever it is read, except by the append itself
+    public void markAccumulated() {
+        origin().isAccumulated = true;
+    }
+
+    public boolean isAccumulated() {
+        return origin().isAccumulated;
+    }
+
+    // given a string somewhere, so that s = s + x appends to a string
+    public void markString() {
+        origin().isString = true;
+    }
+
+    public boolean isString() {
+        return origin().isString;
+    }
+
+    // captured variables which are assigned after their declaration are shared
+    // through a one element Object[] cell
+    public boolean isBoxed() {
+        SymbolReference origin = origin();
+        return origin.isCaptured && (origin.isAssigned || origin.isRecursive);
+    }
+
+    public SymbolReference typed(PrimitiveType type) {
+        this.type = type;
+        return this;
+    }
+
+    public PrimitiveType getType() {
+        return type;
+    }
+
+    // the type the variable is stored as in its local slot, null when it holds an object;
+    // module variables and captured variables always hold objects
+    public PrimitiveType getPrimitiveType() {
+        if (type == null || isGlobal() || capturedFrom != null || isCaptured)
+            return null;
+        return type;
+    }
+
     public String getName() {
         return name;
     }
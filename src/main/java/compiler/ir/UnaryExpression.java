@@ -52,6 +52,10 @@ public class UnaryExpression extends ExpressionStatement<UnaryExpression> {
         return type;
     }
 
+    public ExpressionStatement<?> getExpressionStatement() {
+        return expressionStatement;
+    }
+
     @Override
     public List<CafeElement<?>> children() {
         return Collections.singletonList(expressionStatement);
@@ -0,0 +1,453 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.link;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import runtime.CafeRuntime;
+import runtime.LinkedProgram;
+import runtime.ReferenceSymbol;
+import runtime.imports.CafeModulePath;
+import runtime.imports.ModulePath;
+import runtime.imports.ModuleRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static compiler.util.Log.Type.*;
+import static org.objectweb.asm.Opcodes.*;
+
+// Links a compiled program into a single jar. Starting from the main module,
+// every import is resolved against the module search path and every imported
+// name checked against the exports of its module. The modules are written
+// under LinkedProgram.MODULE_DIRECTORY, their #imports tables rewritten to
+// the names the imported modules have there, next to an index of the modules,
+// their initialization order and the runtime and library classes: the jar
+// runs with java -jar and resolves nothing at run time.
+//
+// Module classes are read, never loaded: linking runs no module code.
+public final class ModuleLinker {
+    private static final String IMPORTS = "#imports";
+    private static final String EXPORTS = "#exports";
+    private static final String REFERENCE_SYMBOL = "runtime/ReferenceSymbol";
+    private static final String[] RUNTIME_PACKAGES = {"runtime/", "library/"};
+
+    private static final class LinkedModule {
+        final CafeModulePath path;
+        // the module's import path in the jar
+        final String name;
+        final Map<String, byte[]> classFiles;
+        final List<ReferenceSymbol> imports = new ArrayList<>();
+        final Set<String> exports = new HashSet<>();
+        final List<LinkedModule> dependencies = new ArrayList<>();
+        // import path -> name of the imported module
+        final Map<String, String> resolved = new HashMap<>();
+
+        LinkedModule(CafeModulePath path, String name, Map<String, byte[]> classFiles) {
+            this.path = path;
+            this.name = name;
+            this.classFiles = classFiles;
+        }
+
+        byte[] moduleClass() {
+            return classFiles.get(path.getClassName() + ".class");
+        }
+    }
+
+    private final ModuleRegistry registry;
+    private final Map<CafeModulePath, LinkedModule> modules = new LinkedHashMap<>();
+    private final Map<String, CafeModulePath> names = new HashMap<>();
+
+    public ModuleLinker(List<String> searchPath) {
+        registry = new CafeRuntime(searchPath).getModuleRegistry();
+    }
+
+    public void link(String main, Path jar) throws LinkException {
+        ModulePath mainPath = resolve(main);
+        if (!(mainPath instanceof CafeModulePath))
+            throw new LinkException(MODULE_NOT_FOUND, main);
+        LinkedModule root = module((CafeModulePath) mainPath);
+
+        Deque<LinkedModule> pending = new ArrayDeque<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            LinkedModule module = pending.poll();
+            for (ReferenceSymbol symbol : module.imports)
+                link(module, symbol, pending);
+        }
+
+        List<LinkedModule> order = new ArrayList<>();
+        sort(root, new HashMap<>(), order);
+        order.remove(root);
+        write(jar, root, order);
+    }
+
+    private ModulePath resolve(String importPath) throws LinkException {
+        try {
+            return registry.resolve(importPath);
+        } catch (ClassNotFoundException e) {
+            throw new LinkException(MODULE_NOT_FOUND, importPath);
+        }
+    }
+
+    private LinkedModule module(CafeModulePath path) throws LinkException {
+        String entry = path.getEntry();
+        String name = LinkedProgram.MODULE_DIRECTORY + entry.substring(0, entry.length() - ".class".length());
+        CafeModulePath other = names.putIfAbsent(name, path);
+        if (other != null)
+            throw new LinkException(MODULE_CONFLICT, other.asString(), path.asString(), name);
+
+        LinkedModule module;
+        try {
+            module = new LinkedModule(path, name, path.getClassFiles());
+        } catch (ClassNotFoundException e) {
+            throw new LinkException(MODULE_NOT_FOUND, path.asString());
+        }
+        new ClassReader(module.moduleClass()).accept(new ModuleReader(module), ClassReader.SKIP_DEBUG);
+        modules.put(path, module);
+        return module;
+    }
+
+    private void link(LinkedModule module, ReferenceSymbol symbol, Deque<LinkedModule> pending)
+            throws LinkException {
+        ModulePath path = resolve(symbol.getPath());
+        String name = symbol.getName();
+        if (path instanceof CafeModulePath) {
+            LinkedModule target = modules.get(path);
+            if (target == null) {
+                target = module((CafeModulePath) path);
+                pending.add(target);
+            }
+            if (!name.equals("*") && !target.exports.contains(name))
+                throw new LinkException(NOT_EXPORTED, symbol.getPath(), name, module.path.asString());
+            module.resolved.put(symbol.getPath(), target.name);
+            if (!symbol.isLazy() && !module.dependencies.contains(target))
+                module.dependencies.add(target);
+        } else if (!name.equals("*") && !isLibraryMember(path.getModule(), name)) {
+            throw new LinkException(NOT_EXPORTED, symbol.getPath(), name, module.path.asString());
+        }
+    }
+
+    // the members a library object is generated from
+    private static boolean isLibraryMember(Class<?> library, String name) {
+        for (Method method : library.getDeclaredMethods()) {
+            if (method.getName()
+                      .equals(name) && isPublicStatic(method.getModifiers()))
+                return true;
+        }
+        for (Field field : library.getDeclaredFields()) {
+            if (field.getName()
+                     .equals(name) && isPublicStatic(field.getModifiers()))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isPublicStatic(int modifiers) {
+        return Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers);
+    }
+
+    // dependencies first order, failing on an import cycle
+    private static void sort(LinkedModule module, Map<LinkedModule, Boolean> visited, List<LinkedModule> order)
+            throws LinkException {
+        Boolean done = visited.get(module);
+        if (done != null) {
+            if (!done)
+                throw new LinkException(CYCLIC_IMPORT, module.path.asString());
+            return;
+        }
+        visited.put(module, false);
+        for (LinkedModule dependency : module.dependencies)
+            sort(dependency, visited, order);
+        visited.put(module, true);
+        order.add(module);
+    }
+
+    private void write(Path jar, LinkedModule root, List<LinkedModule> order) throws LinkException {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.put(Attributes.Name.MAIN_CLASS, LinkedProgram.class.getName());
+        attributes.putValue(LinkedProgram.MAIN_ATTRIBUTE, root.name);
+
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            for (LinkedModule module : modules.values()) {
+                String directory = module.name.substring(0, module.name.lastIndexOf('/') + 1);
+                for (Map.Entry<String, byte[]> file : module.classFiles.entrySet()) {
+                    byte[] bytes = file.getValue();
+                    if (bytes == module.moduleClass())
+                        bytes = rewriteImports(bytes, module.resolved);
+                    write(out, directory + file.getKey(), bytes);
+                }
+            }
+            write(out, LinkedProgram.MODULE_INDEX, lines(modules.values()));
+            write(out, LinkedProgram.INIT_ORDER, lines(order));
+            writeRuntime(out);
+        } catch (IOException | URISyntaxException e) {
+            throw new LinkException(LINK_FAILED, jar, e.getMessage());
+        }
+    }
+
+    private static byte[] lines(Iterable<LinkedModule> modules) {
+        StringBuilder lines = new StringBuilder();
+        for (LinkedModule module : modules)
+            lines.append(module.name)
+                 .append('\n');
+        return lines.toString()
+                    .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void write(JarOutputStream out, String name, byte[] bytes) throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        out.write(bytes);
+        out.closeEntry();
+    }
+
+    // the runtime and library classes, from the directory or jar holding them
+    private static void writeRuntime(JarOutputStream out) throws IOException, URISyntaxException {
+        Path location = Paths.get(CafeRuntime.class.getProtectionDomain()
+                                                   .getCodeSource()
+                                                   .getLocation()
+                                                   .toURI());
+        if (Files.isDirectory(location)) {
+            for (String runtimePackage : RUNTIME_PACKAGES) {
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(location.resolve(runtimePackage))) {
+                    files = walk.filter(Files::isRegularFile)
+                                .sorted()
+                                .collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    String name = location.relativize(file)
+                                          .toString()
+                                          .replace(file.getFileSystem()
+                                                       .getSeparator(), "/");
+                    write(out, name, Files.readAllBytes(file));
+                }
+            }
+            return;
+        }
+        try (ZipFile jar = new ZipFile(location.toFile())) {
+            Enumeration<? extends ZipEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !isRuntimeEntry(entry.getName()))
+                    continue;
+                out.putNextEntry(new JarEntry(entry.getName()));
+                copy(jar, entry, out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static boolean isRuntimeEntry(String name) {
+        for (String runtimePackage : RUNTIME_PACKAGES) {
+            if (name.startsWith(runtimePackage))
+                return true;
+        }
+        return false;
+    }
+
+    private static void copy(ZipFile jar, ZipEntry entry, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = jar.getInputStream(entry)) {
+            for (int n = in.read(buffer); n > 0; n = in.read(buffer))
+                out.write(buffer, 0, n);
+        }
+    }
+
+    private static byte[] rewriteImports(byte[] bytes, Map<String, String> resolved) {
+        ClassReader reader = new ClassReader(bytes);
+        ClassWriter writer = new ClassWriter(reader, 0);
+        reader.accept(new ClassVisitor(ASM7, writer) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+                return name.equals(IMPORTS) ? new ImportsRewriter(mv, resolved) : mv;
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    // Reads the import and export tables of a module class: each import is
+    // a ReferenceSymbol constructed from (name, alias, path, lazy), each
+    // export a name put into the exports map.
+    private static final class ModuleReader extends ClassVisitor {
+        private final LinkedModule module;
+
+        ModuleReader(LinkedModule module) {
+            super(ASM7);
+            this.module = module;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                         String[] exceptions) {
+            if (name.equals(IMPORTS))
+                return new ImportsReader(module.imports);
+            if (name.equals(EXPORTS))
+                return new MethodVisitor(ASM7) {
+                    @Override
+                    public void visitLdcInsn(Object value) {
+                        if (value instanceof String)
+                            module.exports.add((String) value);
+                    }
+                };
+            return null;
+        }
+    }
+
+    private static final class ImportsReader extends MethodVisitor {
+        private final List<ReferenceSymbol> imports;
+        private final List<String> operands = new ArrayList<>();
+        private boolean lazy;
+
+        ImportsReader(List<ReferenceSymbol> imports) {
+            super(ASM7);
+            this.imports = imports;
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            if (value instanceof String)
+                operands.add((String) value);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            if (opcode == ACONST_NULL)
+                operands.add(null);
+            else if (opcode == ICONST_0 || opcode == ICONST_1)
+                lazy = opcode == ICONST_1;
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            if (opcode == INVOKESPECIAL && owner.equals(REFERENCE_SYMBOL)) {
+                int n = operands.size();
+                imports.add(new ReferenceSymbol(operands.get(n - 3), operands.get(n - 2), operands.get(n - 1),
+                        lazy));
+                operands.clear();
+                lazy = false;
+            }
+        }
+    }
+
+    // Replaces the import path of each reference symbol, the string pushed
+    // right before its lazy flag, by the name of the module it resolved to.
+    private static final class ImportsRewriter extends MethodVisitor {
+        private final Map<String, String> resolved;
+        private String pending;
+
+        ImportsRewriter(MethodVisitor mv, Map<String, String> resolved) {
+            super(ASM7, mv);
+            this.resolved = resolved;
+        }
+
+        private void flush() {
+            if (pending != null) {
+                super.visitLdcInsn(pending);
+                pending = null;
+            }
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            flush();
+            if (value instanceof String)
+                pending = (String) value;
+            else
+                super.visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            if (pending != null && (opcode == ICONST_0 || opcode == ICONST_1))
+                pending = resolved.getOrDefault(pending, pending);
+            flush();
+            super.visitInsn(opcode);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            flush();
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            flush();
+            super.visitVarInsn(opcode, var);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            flush();
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitMaxs(int maxStack, int maxLocals) {
+            flush();
+            super.visitMaxs(maxStack, maxLocals);
+        }
+    }
+}
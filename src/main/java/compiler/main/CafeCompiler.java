@@ -34,6 +34,7 @@ import compiler.ast.Node;
 import compiler.ast.Node.ProgramNode;
 import compiler.gen.ASTToCafeIrVisitor;
 import compiler.gen.JVMByteCodeGenVisitor;
+import compiler.gen.ReachabilityVisitor;
 import compiler.gen.SymbolReferenceAssignmentVisitor;
 import compiler.ir.CafeModule;
 import compiler.main.Main.Result;
@@ -46,6 +47,7 @@ import compiler.util.Log;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Map;
 
 import static compiler.util.Messages.success;
 
@@ -59,6 +61,7 @@ public class CafeCompiler {
 
     private final String source;
     private String outputFilePath;
+    private final String outputDirectory;
     private final String moduleName;
 
     public CafeCompiler(String source) {
@@ -68,11 +71,12 @@ public class CafeCompiler {
         log = Log.instance(context);
         fileManager = SourceFileManager.instance(context);
 
-        String fileName = source.substring(source.lastIndexOf('\\') + 1);
+        File file = new File(source);
+        String fileName = file.getName();
         moduleName = fileName.substring(0, fileName.lastIndexOf('.'));
 
-        outputFilePath = source.substring(0, source.lastIndexOf('\\') + 1);
-        outputFilePath += moduleName + ".class";
+        outputDirectory = file.getParent() == null ? "" : file.getParent() + File.separator;
+        outputFilePath = outputDirectory + moduleName + ".class";
 
         parserFactory = ParserFactory.instance(context);
 
@@ -95,6 +99,15 @@ public class CafeCompiler {
         return false;
     }
 
+    private static void write(String path, byte[] byteCode) {
+        File op = new File(path);
+        try (FileOutputStream out = new FileOutputStream(op)) {
+            out.write(byteCode);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     public Result compile() {
         Node programNode = null;
         CafeModule module = null;
@@ -112,18 +125,24 @@ public class CafeCompiler {
 //                    System.out.println((char) 27 + "[33m" + "\nPrettyPrint");
 //                    new PrettyPrinter().prettyPrint(programNode);
                     analyzer.visitProgram((ProgramNode) programNode);
+                    log.printWarnings();
                     break;
                 case IR:
                     module = new ASTToCafeIrVisitor().transform((ProgramNode) programNode, moduleName);
+                    module.accept(new ReachabilityVisitor(log));
                     module.accept(new SymbolReferenceAssignmentVisitor());
+                    log.printWarnings();
                     break;
                 case GEN:
-                    byteCode = new JVMByteCodeGenVisitor().generateByteCode(module, moduleName);
-                    File op = new File(outputFilePath);
-                    try (FileOutputStream out = new FileOutputStream(op)) {
-                        out.write(byteCode);
-                    } catch (IOException e) {
-                        e.printStackTrace();
+                    JVMByteCodeGenVisitor generator = new JVMByteCodeGenVisitor(log);
+                    byteCode = generator.generateByteCode(module, moduleName);
+                    // values rejected while generating leave no class behind
+                    if (log.entries() > 0)
+                        break;
+                    write(outputFilePath, byteCode);
+                    for (Map.Entry<String, byte[]> struct : generator.getStructClasses()
+                                                                    .entrySet()) {
+                        write(outputDirectory + struct.getKey() + ".class", struct.getValue());
                     }
             }
             if (checkErrors()) {
@@ -39,7 +39,8 @@ public interface Command {
 
     enum CommandName {
         COMPILE("CompileCommand"),
-        RUN("RunCommand");
+        RUN("RunCommand"),
+        LINK("LinkCommand");
 
         CommandName(String className) {
             this.commandClassName = className;
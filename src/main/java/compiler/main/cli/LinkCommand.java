@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.main.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import compiler.link.LinkException;
+import compiler.link.ModuleLinker;
+import compiler.main.Main;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedList;
+import java.util.List;
+
+import static compiler.util.Messages.error;
+import static compiler.util.Messages.success;
+
+@Parameters(commandNames = {"-l"}, separators = "=", commandDescription = "Links compiled Cafe code into a single jar")
+public class LinkCommand implements Command {
+
+    @Parameter(names = {"-cp", "--classpath"},
+            description = "A , separated list of directories to search for class files.")
+    List<String> classPath = new LinkedList<>();
+
+    @Parameter(names = {"-o", "--output"}, description = "The jar to write, [main-module].jar by default")
+    String output;
+
+    @Parameter(description = "[main-module]", required = true)
+    String module;
+
+    static {
+        Command.registerCommand(CommandName.LINK, new LinkCommand());
+    }
+
+    private LinkCommand() {
+    }
+
+    @Override
+    public Main.Result execute() {
+        Path jar = Paths.get(output != null ? output : Paths.get(module)
+                                                            .getFileName() + ".jar");
+        try {
+            new ModuleLinker(classPath).link(module, jar);
+        } catch (LinkException e) {
+            error(e.getMessage());
+            return Main.Result.ERROR;
+        }
+        success(jar);
+        return Main.Result.OK;
+    }
+}
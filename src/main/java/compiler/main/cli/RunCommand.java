@@ -33,13 +33,9 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.Parameters;
 import compiler.main.Main;
-import runtime.Runtime;
+import runtime.CafeRuntime;
 
 import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -73,21 +69,6 @@ public class RunCommand implements Command {
         throw new ParameterException("File doesn't exists or invalid file path provided");
     }
 
-    public URLClassLoader getURLClassLoader(List<String> classpath) {
-        if (classpath.isEmpty())
-            classpath = Collections.singletonList(".");
-        URL[] urls = new URL[classpath.size()];
-        for (int i = 0; i < classpath.size(); i++) {
-            try {
-                urls[i] = new File(classpath.get(i)).toURI()
-                                                    .toURL();
-            } catch (MalformedURLException e) {
-                e.printStackTrace();
-            }
-        }
-        return new URLClassLoader(urls);
-    }
-
     public void run(Class<?> clazz, String[] arguments) throws Throwable {
 //        MethodHandle main;
 //        main = publicLookup().findStatic(clazz, "main", methodType(void.class, String[].class));
@@ -97,11 +78,12 @@ public class RunCommand implements Command {
 
     @Override
     public Main.Result execute() {
-        URLClassLoader urlClassLoader = getURLClassLoader(classPath);
+        CafeRuntime runtime = new CafeRuntime(classPath);
         try {
-            Class<?> module = urlClassLoader.loadClass(arguments.get(0));
+            // the main module shares its directory's loader with the modules it imports
+            Class<?> module = runtime.load(arguments.get(0));
             //run(module, arguments.subList(1, arguments.size()).toArray(new String[0]));
-            Runtime.runtime(module);
+            runtime.run(module);
         } catch (ClassNotFoundException e) {
             error(message(MODULE_NOT_FOUND, arguments.get(0)));
             return Main.Result.ERROR;
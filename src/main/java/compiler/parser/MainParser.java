@@ -509,18 +509,13 @@ public class MainParser extends Parser {
                         if (error)
                             return null;
                         accept(TokenKind.LSQU);
-                        if (token.kind == TokenKind.IDENTIFIER)
-                            exp1 = parseIdentifier();
-                        else
-                            exp1 = parseNumberLiteral();
+                        exp1 = parseLogicalOrExpression();
                         if (token.kind == TokenKind.COLON) {
                             accept(TokenKind.COLON);
-                            if (token.kind == TokenKind.IDENTIFIER)
-                                exp2 = parseIdentifier();
-                            else
-                                exp2 = parseNumberLiteral();
+                            exp2 = parseLogicalOrExpression();
                             accept(TokenKind.RSQU);
                             node = new SliceNode(oExp, exp1, exp2);
+                            oExp = node;
                         } else {
                             accept(TokenKind.RSQU);
                             node = new SubscriptNode(oExp, exp1);
@@ -945,11 +940,12 @@ public class MainParser extends Parser {
             if (token.kind == TokenKind.VAR) {
                 accept(TokenKind.VAR);
                 iden = parseIdentifier();
+                IdenNode type = parseTypeAnnotation();
                 accept(TokenKind.EQU);
                 val = parseValue();
                 if (token.kind == TokenKind.COMMA)
                     nextToken();
-                init.add(new VarDeclNode((IdenNode) iden, val));
+                init.add(new VarDeclNode((IdenNode) iden, val, type));
             } else {
                 iden = parseIdentifier();
                 accept(TokenKind.EQU);
@@ -1059,17 +1055,15 @@ public class MainParser extends Parser {
             iden2 = parseIdentifier();
         }
         accept(TokenKind.IN);
-        try {
-            exp = parseAtomExpression();
-        } catch (ParseException e) {
-        }
-
+        exp = parseCollection();
         if (exp == null) {
             if (token.kind == TokenKind.LCURLY)
-                exp = parseCollection();
-            else
                 exp = parseObjectCreation();
-
+            else
+                try {
+                    exp = parseAtomExpression();
+                } catch (ParseException e) {
+                }
         }
         accept(TokenKind.LCURLY);
         block = parseLoopBlock();
@@ -1129,6 +1123,12 @@ public class MainParser extends Parser {
             accept(TokenKind.RSQU);
             return new RangeNode(exp1, exp2, RangeNode.Type.LIST);
         }
+        if (token.kind == TokenKind.LOOP) {
+            CompTypeNode comp = parseComprehension("list");
+            if (error) return null;
+            comp.expr = exp1;
+            return comp;
+        }
         listNode.add(exp1);
         while (token.kind != TokenKind.RSQU) {
             if (error)
@@ -1207,12 +1207,22 @@ public class MainParser extends Parser {
                 accept(TokenKind.COMMA);
                 continue;
             } else if (token.kind == TokenKind.LOOP) {
-                return parseComprehension("map");        // Accept Identifier Before
+                CompTypeNode comp = parseComprehension("map");        // Accept Identifier Before
+                accept(TokenKind.RSQU);
+                if (error) return null;
+                return comp;
             } else {
                 exp1 = parseValue();
                 accept(TokenKind.COMMA);
                 exp2 = parseValue();
                 accept(TokenKind.RSQU);
+                if (pairs.isEmpty() && token.kind == TokenKind.LOOP) {
+                    MapCompNode comp = (MapCompNode) parseComprehension("map");
+                    if (error) return null;
+                    comp.expr = exp1;
+                    comp.value = exp2;
+                    return comp;
+                }
             }
 
             pairs.put(exp1, exp2);
@@ -1240,6 +1250,7 @@ public class MainParser extends Parser {
                 case LOOP:
                     accept(TokenKind.LOOP);
                     iden1 = parseIdentifier();
+                    iden2 = null;
                     if (token.kind == TokenKind.COMMA) {
                         nextToken();
                         iden2 = parseIdentifier();
@@ -1295,6 +1306,12 @@ public class MainParser extends Parser {
             accept(TokenKind.RSQU);
             return new RangeNode(exp1, exp2, RangeNode.Type.SET);
         }
+        if (token.kind == TokenKind.LOOP) {
+            CompTypeNode comp = parseComprehension("set");
+            if (error) return null;
+            comp.expr = exp1;
+            return comp;
+        }
         setNode.add(exp1);
         while (token.kind != TokenKind.RSQU) {
             if (error)
@@ -1354,6 +1371,12 @@ public class MainParser extends Parser {
             accept(TokenKind.RSQU);
             return new RangeNode(exp1, exp2, RangeNode.Type.LINK);
         }
+        if (token.kind == TokenKind.LOOP) {
+            CompTypeNode comp = parseComprehension("link");
+            if (error) return null;
+            comp.expr = exp1;
+            return comp;
+        }
         listNode.add(exp1);
         while (token.kind != TokenKind.RSQU) {
             if (error)
@@ -1487,6 +1510,7 @@ public class MainParser extends Parser {
         accept(TokenKind.LPAREN);
         ParameterListNode params = parseParameter();
         accept(TokenKind.RPAREN);
+        IdenNode returnType = parseTypeAnnotation();
         accept(TokenKind.LCURLY);
         debug.add("Ann Func Node: " + token.kind);
         while (token.kind != TokenKind.RCURLY) {
@@ -1501,7 +1525,7 @@ public class MainParser extends Parser {
         BlockNode block = new BlockNode(); // BlockNode(stmt);
         block.setStmt(stmt);
         if (error) return null;
-        return new AnnFuncNode(params, block);
+        return new AnnFuncNode(params, block, returnType);
     }
 
     ExprNode parseValue() {
@@ -1571,6 +1595,7 @@ public class MainParser extends Parser {
                 return null;
             Token tk = token;
             IdenNode idenNode = parseIdentifier();
+            IdenNode type = parseTypeAnnotation();
             ExprNode exp = null;
             if (error)
                 return null;
@@ -1582,7 +1607,7 @@ public class MainParser extends Parser {
                 accept(TokenKind.COMMA);
             }
             debug.add("Var Decl: " + exp);
-            VarDeclNode varDecl = new VarDeclNode(idenNode, exp);
+            VarDeclNode varDecl = new VarDeclNode(idenNode, exp, type);
             varDecl.setFirstToken(tk);
             varDeclNodes.add(varDecl);
         }
@@ -1636,6 +1661,7 @@ public class MainParser extends Parser {
         if (error) return null;
         boolean varArg = false;
         List<IdenNode> idenNodes = new ArrayList<>();
+        List<IdenNode> types = new ArrayList<>();
 
         while (token.kind != TokenKind.RPAREN) {
             if (error)
@@ -1648,17 +1674,30 @@ public class MainParser extends Parser {
                 accept(TokenKind.VARARGS);
                 varArg = true;
                 idenNodes.add(parseIdentifier());
+                types.add(parseTypeAnnotation());
                 // accept(TokenKind.RPAREN);
                 break;
             }
             idenNodes.add(parseIdentifier());
+            types.add(parseTypeAnnotation());
             if (TokenKind.RPAREN != token.kind)
                 accept(TokenKind.COMMA);
         }
 
         if (error) return null;
-        return new ParameterListNode(idenNodes, varArg);
+        return new ParameterListNode(idenNodes, types, varArg);
+
+    }
 
+    IdenNode parseTypeAnnotation() {
+        /*
+         * Optional type of a variable, parameter or function
+         *
+         * if (COLON) accept(COLON) parseIdentifier()
+         */
+        if (error || token.kind != TokenKind.COLON) return null;
+        accept(TokenKind.COLON);
+        return parseIdentifier();
     }
 
     // ExprNode parseFunctionCall(){
@@ -1682,6 +1721,7 @@ public class MainParser extends Parser {
         accept(TokenKind.LPAREN);
         ParameterListNode arg = parseParameter();
         accept(TokenKind.RPAREN);
+        IdenNode returnType = parseTypeAnnotation();
         accept(TokenKind.LCURLY);
         List<StmtNode> stmt = new ArrayList<>();
         while (token.kind != TokenKind.RCURLY) {
@@ -1696,11 +1736,38 @@ public class MainParser extends Parser {
         block.setStmt(stmt);
         if (error) return null;
 
-        FuncDeclNode funcDecl = new FuncDeclNode((IdenNode) funcName, arg, block);
+        FuncDeclNode funcDecl = new FuncDeclNode((IdenNode) funcName, arg, block, returnType);
         funcDecl.setFirstToken(tk);
         return funcDecl;
     }
 
+    DeclNode parseStructDeclaration() {
+        /*
+         * Module level record with a fixed set of fields
+         *
+         * accept(STRUCT) parseIdentifier() accept(LCURLY) fields = parseIdentifier()... accept(RCURLY)
+         */
+        if (error) return null;
+        accept(TokenKind.STRUCT);
+        Token tk = token;
+        IdenNode name = parseIdentifier();
+        accept(TokenKind.LCURLY);
+        List<IdenNode> fields = new ArrayList<>();
+        while (token.kind != TokenKind.RCURLY) {
+            if (error)
+                return null;
+            fields.add(parseIdentifier());
+            if (token.kind != TokenKind.RCURLY)
+                accept(TokenKind.COMMA);
+        }
+        accept(TokenKind.RCURLY);
+        if (error) return null;
+
+        StructDeclNode structDecl = new StructDeclNode(name, fields);
+        structDecl.setFirstToken(tk);
+        return structDecl;
+    }
+
     void parseDeclarativeStatement() {
         /*
          * List of Declarative Statement
@@ -1810,9 +1877,13 @@ public class MainParser extends Parser {
                 innerLoop = false;
                 break;
             case LOOP:
+                innerLoop = breakAllowed ? true : false;
+                breakAllowed = true;
                 StmtNode stm4 = parseLoopStatement();
                 if (stm4 == null) return null;
                 blockStmt.add(stm4);
+                breakAllowed = innerLoop ? true : false;
+                innerLoop = false;
                 break;
             case RET:
                 StmtNode stm5 = parseReturnStatement();
@@ -1879,6 +1950,11 @@ public class MainParser extends Parser {
                 if (decl == null) return null;
                 exportStmtNode.add(new ExportStmtNode(decl.getIden(), decl));
                 break;
+            case STRUCT:
+                DeclNode struct = parseStructDeclaration();
+                if (struct == null) return null;
+                exportStmtNode.add(new ExportStmtNode(struct.getIden(), struct));
+                break;
             default:
                 error = true;
         }
@@ -1896,11 +1972,19 @@ public class MainParser extends Parser {
         // else Throw Error
         ImportStmtNode importStmtNode = null;
         Map<IdenNode, IdenNode> blocks = new HashMap<IdenNode, IdenNode>();
-        IdenNode id1, id2 = null;
+        IdenNode id1 = null, id2 = null;
 
         accept(TokenKind.IMPORT);
-        if(token.kind == TokenKind.IDENTIFIER){
+        boolean lazy = false;
+        if (token.kind == TokenKind.IDENTIFIER) {
             id1 = parseIdentifier();
+            // `lazy` is a modifier only when an import list follows it
+            if (id1.name.equals("lazy") && (token.kind == TokenKind.IDENTIFIER || token.kind == TokenKind.MUL)) {
+                lazy = true;
+                id1 = token.kind == TokenKind.IDENTIFIER ? parseIdentifier() : null;
+            }
+        }
+        if (id1 != null) {
             if (token.kind == TokenKind.AS) {
                 accept(token.kind);
                 id2 = parseIdentifier();
@@ -1932,7 +2016,7 @@ public class MainParser extends Parser {
 //            logError(INVALID_IMPORT_FILE, token.value());
 //            error = true;
 //        } else {
-        importStmtNode = new ImportStmtNode(blocks, token.value());
+        importStmtNode = new ImportStmtNode(blocks, token.value(), lazy);
         nextToken();
         accept(TokenKind.SEMICOLON);
 
@@ -1973,6 +2057,11 @@ public class MainParser extends Parser {
                     List<ExportStmtNode> exports = parseExportStatement();
                     tree.addAll(exports);
                     break;
+                case STRUCT:
+                    DeclNode struct = parseStructDeclaration();
+                    if (struct == null) return null;
+                    tree.add(struct);
+                    break;
                 default:
                     List<StmtNode> stmt = parseBlock();
                     if (stmt == null) return null;
@@ -92,6 +92,8 @@ public class Tokens {
                 return TokenKind.CONST;
             case "func":
                 return TokenKind.FUNC;
+            case "struct":
+                return TokenKind.STRUCT;
             case "continue":
                 return TokenKind.CONTINUE;
             case "return":
@@ -124,6 +126,7 @@ public class Tokens {
         VAR("var", Tag.NAMED),
         CONST("const", Tag.NAMED),
         FUNC("func", Tag.NAMED),
+        STRUCT("struct", Tag.NAMED),
         IDENTIFIER("identifier", Tag.NAMED),
         IF("if", Tag.NAMED),
         ELSE("else", Tag.NAMED),
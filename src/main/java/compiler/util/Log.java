@@ -36,11 +36,13 @@ public class Log {
     public static final Context.Key<Log> logKey = new Context.Key<>();
 
     private final List<Issue> issues;
+    private final List<Issue> warnings;
 
     protected Log(Context context) {
         context.put(logKey, this);
 
         issues = new LinkedList<>();
+        warnings = new LinkedList<>();
     }
 
     public static Log instance(Context context) {
@@ -106,7 +108,20 @@ public class Log {
         LHS_EXPR_ERROR,
         DUPLICATE_SYMBOL,
         REASSIGN_CONSTANT,
-        RETURN_OUTSIDE_BLOCK;
+        RETURN_OUTSIDE_BLOCK,
+        UNKNOWN_TYPE,
+        TYPE_MISMATCH,
+
+        // Semantic warnings
+        IMPURE_MEMO_FUNCTION,
+        UNUSED_IMPORT,
+        UNUSED_FUNCTION,
+
+        // Link errors
+        NOT_EXPORTED,
+        CYCLIC_IMPORT,
+        MODULE_CONFLICT,
+        LINK_FAILED;
     }
 
     public void report(Type err, Position pos, String description) {
@@ -115,6 +130,20 @@ public class Log {
         );
     }
 
+    // warnings don't stop the compilation
+    public void warn(Type warning, Position pos, String description) {
+        warnings.add(
+                new Issue(warning, pos, description)
+        );
+    }
+
+    public void printWarnings() {
+        for (Issue issue : warnings) {
+            Messages.warning(issue.getDescription());
+        }
+        warnings.clear();
+    }
+
     public void printIssues() {
         for (Issue issue : issues) {
             Messages.error(issue.getDescription());
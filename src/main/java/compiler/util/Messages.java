@@ -46,6 +46,7 @@ public final class Messages {
 
     private static final Ansi.Color JERROR = Ansi.Color.RED;
     private static final Ansi.Color JSUCCESS = Ansi.Color.GREEN;
+    private static final Ansi.Color JWARNING = Ansi.Color.YELLOW;
 
     private static final HashMap<Log.Type, String> MESSAGES;
 
@@ -80,6 +81,19 @@ public final class Messages {
             put(LHS_EXPR_ERROR, "Illegal LHS expression `{0}`");
             put(REASSIGN_CONSTANT, "Cannot reassign constant `{0}`");
             put(RETURN_OUTSIDE_BLOCK, "Return statement outside function");
+            put(UNKNOWN_TYPE, "Unknown type `{0}`");
+            put(TYPE_MISMATCH, "Incompatible types: {0} cannot be converted to {1}");
+
+            // Semantic Warnings
+            put(IMPURE_MEMO_FUNCTION, "Memoized function `{0}` {1}, its cached results may be stale");
+            put(UNUSED_IMPORT, "Unused import `{0}` from `{1}` is dropped");
+            put(UNUSED_FUNCTION, "Function `{0}` is never used and is not emitted");
+
+            // Link Errors
+            put(NOT_EXPORTED, "Module `{0}` does not export `{1}`, imported by `{2}`");
+            put(CYCLIC_IMPORT, "Cyclic import of module `{0}`");
+            put(MODULE_CONFLICT, "Modules `{0}` and `{1}` both link to `{2}`");
+            put(LINK_FAILED, "Could not write `{0}`: {1}");
         }};
 
     }
@@ -115,6 +129,10 @@ public final class Messages {
         printPrefixed(Log.Type.ERROR, String.valueOf(message), JERROR);
     }
 
+    public static void warning(Object message) {
+        printPrefixed(Log.Type.WARNING, String.valueOf(message), JWARNING);
+    }
+
     public static void success(Object message) {
         printPrefixed(Log.Type.SUCCESS, String.valueOf(message), JSUCCESS);
     }
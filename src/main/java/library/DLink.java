@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+public class DLink extends DObject implements Iterable<Object> {
+    private final LinkedList<Object> list = new LinkedList<>();
+
+    public DLink() {
+    }
+
+    public static DLink range(int start, int end) {
+        DLink link = new DLink();
+        for (int i = start; i < end; i++)
+            link.add(i);
+        return link;
+    }
+
+    public void add(Object value) {
+        list.add(value);
+    }
+
+    public void addFirst(Object value) {
+        list.addFirst(value);
+    }
+
+    public Object get(int index) {
+        return list.get(index);
+    }
+
+    public Object removeFirst() {
+        return list.removeFirst();
+    }
+
+    public Object removeLast() {
+        return list.removeLast();
+    }
+
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return list.iterator();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("link[");
+        boolean first = true;
+        for (Object value : list) {
+            if (!first)
+                builder.append(", ");
+            builder.append(value);
+            first = false;
+        }
+        return builder.append(']')
+                      .toString();
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Array backed list. Elements are kept in a primitive array as long as
+// every element is of the same primitive wrapper type, and the storage is
+// generalized to Object[] on the first element that doesn't fit.
+//
+// slice() returns a view sharing the storage array of this list from an
+// offset. Both sides are then marked shared, and a shared list copies its
+// own window into a fresh array before its first write.
+public class DList extends DObject implements Iterable<Object> {
+    public enum Storage {
+        EMPTY, INT, DOUBLE, OBJECT
+    }
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private Storage storage = Storage.EMPTY;
+    private int[] ints;
+    private double[] doubles;
+    private Object[] objects;
+    private int size = 0;
+    private int initialCapacity;
+    private int offset = 0;
+    private boolean shared = false;
+
+    public DList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DList(int capacity) {
+        initialCapacity = Math.max(capacity, 0);
+    }
+
+    public static DList range(int start, int end) {
+        DList list = new DList(end - start);
+        for (int i = start; i < end; i++)
+            list.addInt(i);
+        return list;
+    }
+
+    public DList slice(int from, int to) {
+        from = Math.max(0, Math.min(from, size));
+        to = Math.max(from, Math.min(to, size));
+        if (storage == Storage.EMPTY)
+            return new DList();
+
+        DList view = new DList(to - from);
+        view.storage = storage;
+        view.ints = ints;
+        view.doubles = doubles;
+        view.objects = objects;
+        view.offset = offset + from;
+        view.size = to - from;
+        view.shared = true;
+        shared = true;
+        return view;
+    }
+
+    public Storage storage() {
+        return storage;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Object get(int index) {
+        checkIndex(index);
+        switch (storage) {
+            case INT:
+                return ints[offset + index];
+            case DOUBLE:
+                return doubles[offset + index];
+            default:
+                return objects[offset + index];
+        }
+    }
+
+    public int getInt(int index) {
+        checkIndex(index);
+        if (storage == Storage.INT)
+            return ints[offset + index];
+        return ((Number) get(index)).intValue();
+    }
+
+    public double getDouble(int index) {
+        checkIndex(index);
+        if (storage == Storage.DOUBLE)
+            return doubles[offset + index];
+        return ((Number) get(index)).doubleValue();
+    }
+
+    public void setInt(int index, int value) {
+        if (storage == Storage.INT) {
+            checkIndex(index);
+            unshare();
+            ints[index] = value;
+            return;
+        }
+        set(index, (Object) value);
+    }
+
+    public void setDouble(int index, double value) {
+        if (storage == Storage.DOUBLE) {
+            checkIndex(index);
+            unshare();
+            doubles[index] = value;
+            return;
+        }
+        set(index, (Object) value);
+    }
+
+    public void set(int index, Object value) {
+        checkIndex(index);
+        unshare();
+        if (storage == Storage.INT && value instanceof Integer) {
+            ints[index] = (Integer) value;
+            return;
+        }
+        if (storage == Storage.DOUBLE && value instanceof Double) {
+            doubles[index] = (Double) value;
+            return;
+        }
+        generalize();
+        objects[index] = value;
+    }
+
+    public void add(Object value) {
+        unshare();
+        if (storage == Storage.EMPTY)
+            specialize(value);
+        switch (storage) {
+            case INT:
+                if (value instanceof Integer) {
+                    addInt((Integer) value);
+                    return;
+                }
+                break;
+            case DOUBLE:
+                if (value instanceof Double) {
+                    addDouble((Double) value);
+                    return;
+                }
+                break;
+        }
+        generalize();
+        if (size == objects.length)
+            objects = Arrays.copyOf(objects, grow(objects.length));
+        objects[size++] = value;
+    }
+
+    public void addInt(int value) {
+        unshare();
+        if (storage == Storage.EMPTY) {
+            storage = Storage.INT;
+            ints = new int[initialCapacity];
+        } else if (storage != Storage.INT) {
+            add((Object) value);
+            return;
+        }
+        if (size == ints.length)
+            ints = Arrays.copyOf(ints, grow(ints.length));
+        ints[size++] = value;
+    }
+
+    public void addDouble(double value) {
+        unshare();
+        if (storage == Storage.EMPTY) {
+            storage = Storage.DOUBLE;
+            doubles = new double[initialCapacity];
+        } else if (storage != Storage.DOUBLE) {
+            add((Object) value);
+            return;
+        }
+        if (size == doubles.length)
+            doubles = Arrays.copyOf(doubles, grow(doubles.length));
+        doubles[size++] = value;
+    }
+
+    // after this, the list owns its storage and offset is 0
+    private void unshare() {
+        if (!shared)
+            return;
+        int capacity = Math.max(size, initialCapacity);
+        switch (storage) {
+            case INT:
+                ints = Arrays.copyOfRange(ints, offset, offset + capacity);
+                break;
+            case DOUBLE:
+                doubles = Arrays.copyOfRange(doubles, offset, offset + capacity);
+                break;
+            case OBJECT:
+                objects = Arrays.copyOfRange(objects, offset, offset + capacity);
+                break;
+        }
+        offset = 0;
+        shared = false;
+    }
+
+    private void specialize(Object value) {
+        if (value instanceof Integer) {
+            storage = Storage.INT;
+            ints = new int[initialCapacity];
+        } else if (value instanceof Double) {
+            storage = Storage.DOUBLE;
+            doubles = new double[initialCapacity];
+        } else {
+            storage = Storage.OBJECT;
+            objects = new Object[initialCapacity];
+        }
+    }
+
+    private void generalize() {
+        switch (storage) {
+            case EMPTY:
+                objects = new Object[initialCapacity];
+                break;
+            case INT:
+                objects = new Object[ints.length];
+                for (int i = 0; i < size; i++)
+                    objects[i] = ints[i];
+                ints = null;
+                break;
+            case DOUBLE:
+                objects = new Object[doubles.length];
+                for (int i = 0; i < size; i++)
+                    objects[i] = doubles[i];
+                doubles = null;
+                break;
+            default:
+                return;
+        }
+        storage = Storage.OBJECT;
+    }
+
+    private static int grow(int length) {
+        return Math.max(length + (length >> 1), DEFAULT_CAPACITY);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    public double[] toDoubleArray() {
+        double[] array = new double[size];
+        switch (storage) {
+            case DOUBLE:
+                System.arraycopy(doubles, offset, array, 0, size);
+                break;
+            case INT:
+                for (int i = 0; i < size; i++)
+                    array[i] = ints[offset + i];
+                break;
+            case OBJECT:
+                for (int i = 0; i < size; i++)
+                    array[i] = ((Number) objects[offset + i]).doubleValue();
+                break;
+        }
+        return array;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Object next() {
+                if (cursor >= size)
+                    throw new NoSuchElementException();
+                return get(cursor++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append(get(i));
+        }
+        return builder.append(']')
+                      .toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class DMap extends DObject implements Iterable<Object> {
+    private final Map<Object, Object> entries;
+
+    public DMap() {
+        entries = new LinkedHashMap<>();
+    }
+
+    public DMap(int expectedSize) {
+        entries = new LinkedHashMap<>(capacityFor(expectedSize));
+    }
+
+    // initial capacity of a hash table that holds expectedSize entries
+    // without rehashing under the default load factor.
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 3)
+            return 4;
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
+    public Object put(Object key, Object value) {
+        return entries.put(DStringView.key(key), value);
+    }
+
+    public Object getValue(Object key) {
+        return entries.get(key);
+    }
+
+    public boolean containsKey(Object key) {
+        return entries.containsKey(key);
+    }
+
+    public Object remove(Object key) {
+        return entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return entries.entrySet();
+    }
+
+    // iterating a map yields its keys
+    @Override
+    public Iterator<Object> iterator() {
+        return entries.keySet()
+                      .iterator();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("map[");
+        boolean first = true;
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            if (!first)
+                builder.append(", ");
+            builder.append('[')
+                   .append(entry.getKey())
+                   .append(", ")
+                   .append(entry.getValue())
+                   .append(']');
+            first = false;
+        }
+        return builder.append(']')
+                      .toString();
+    }
+}
@@ -32,35 +32,128 @@ package library;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 import static java.lang.invoke.MethodType.genericMethodType;
 import static java.lang.invoke.MethodType.methodType;
 
 public class DObject {
+    private static final Object[] NO_ELEMENTS = {};
+    private static final int MIN_ELEMENTS = 8;
+
     protected final Map<String, Object> map;
 
+    // non negative integer keys: a dense array, and a sparse map for the ones
+    // which would leave a large hole in it
+    private Object[] elements = NO_ELEMENTS;
+    private Map<Integer, Object> sparseElements;
+
     public DObject() {
         map = new HashMap<>();
     }
 
     public void define(String key, Object value) {
-        map.put(key, value);
+        int index = elementIndex(key);
+        if (index >= 0)
+            defineElement(index, value);
+        else
+            map.put(key, value);
     }
 
     public Object get(String key) {
+        int index = elementIndex(key);
+        if (index >= 0)
+            return getElement(index);
         return map.get(key);
     }
 
+    // element keys in ascending order, then the named ones
     public Set<String> keys() {
-        return map.keySet();
+        if (elements == NO_ELEMENTS && sparseElements == null)
+            return map.keySet();
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i] != null)
+                keys.add(String.valueOf(i));
+        }
+        if (sparseElements != null) {
+            for (Integer index : new TreeSet<>(sparseElements.keySet()))
+                keys.add(String.valueOf(index));
+        }
+        keys.addAll(map.keySet());
+        return keys;
+    }
+
+    // "0", "42": a string which is an array index names the same slot as the integer
+    static int elementIndex(String key) {
+        int length = key.length();
+        if (length == 0 || length > 10 || (key.charAt(0) == '0' && length > 1))
+            return -1;
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            index = index * 10 + (c - '0');
+        }
+        return index <= Integer.MAX_VALUE ? (int) index : -1;
+    }
+
+    public Object getElement(int index) {
+        if (index < 0)
+            return get(String.valueOf(index));
+        if (index < elements.length)
+            return elements[index];
+        return sparseElements == null ? null : sparseElements.get(index);
+    }
+
+    public void defineElement(int index, Object value) {
+        if (index < 0) {
+            define(String.valueOf(index), value);
+            return;
+        }
+        if (index >= elements.length) {
+            if (index > 2 * elements.length + MIN_ELEMENTS) {
+                if (sparseElements == null)
+                    sparseElements = new HashMap<>();
+                sparseElements.put(index, value);
+                return;
+            }
+            growElements(index);
+        }
+        elements[index] = value;
+    }
+
+    private void growElements(int index) {
+        int capacity = Math.max(index + 1, Math.max(2 * elements.length, MIN_ELEMENTS));
+        elements = Arrays.copyOf(elements, capacity);
+        if (sparseElements == null)
+            return;
+        Iterator<Map.Entry<Integer, Object>> iterator = sparseElements.entrySet()
+                                                                      .iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Object> entry = iterator.next();
+            if (entry.getKey() < capacity) {
+                elements[entry.getKey()] = entry.getValue();
+                iterator.remove();
+            }
+        }
+        if (sparseElements.isEmpty())
+            sparseElements = null;
     }
 
     @Override
     public String toString() {
-        return "Object{" + map + "}";
+        if (elements == NO_ELEMENTS && sparseElements == null)
+            return "Object{" + map + "}";
+        Map<Integer, Object> indexed = new TreeMap<>();
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i] != null)
+                indexed.put(i, elements[i]);
+        }
+        if (sparseElements != null)
+            indexed.putAll(sparseElements);
+        return "Object{" + map + ", elements=" + indexed + "}";
     }
 
     //    Runtime support
@@ -116,6 +209,16 @@ public class DObject {
         return null;
     }
 
+    public static Object getElement(int index, DObject object) {
+        while (object != null) {
+            Object element = object.getElement(index);
+            if (element != null)
+                return element;
+            object = (DObject) object.get(__PROTO__);
+        }
+        return null;
+    }
+
     public static Object setObject(String property, DObject object, Object arg) throws Throwable {
         object.define(property, arg);
         return null;
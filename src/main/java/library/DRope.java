@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// String built by repeated `s = s + x`. Appending links the two sides instead
+// of copying them; the characters are copied once, when the rope is first
+// read, converted to a String or handed to Java code.
+//
+// A rope never leaves the variable it is built in: every other read of the
+// variable goes through value(), so Cafe code only ever sees Strings.
+public final class DRope implements CharSequence {
+    static final int ROPE_THRESHOLD = 256;
+
+    private volatile String flat;
+    private CharSequence left;
+    private CharSequence right;
+    private final int length;
+
+    private DRope(CharSequence left, CharSequence right) {
+        this.left = left;
+        this.right = right;
+        this.length = left.length() + right.length();
+    }
+
+    public static Object concat(Object a, Object b) {
+        CharSequence left = a instanceof CharSequence ? (CharSequence) a : a.toString();
+        CharSequence right = b instanceof CharSequence ? (CharSequence) b : b.toString();
+        if (right.length() == 0)
+            return left instanceof DRope ? left : left.toString();
+        if (left.length() == 0)
+            return right instanceof DRope ? right : right.toString();
+        if (left instanceof DRope || right instanceof DRope || left.length() + right.length() >= ROPE_THRESHOLD)
+            return new DRope(left, right);
+        return left.toString() + right.toString();
+    }
+
+    // the head of `s = s + x`: a long string starts a rope, which the append links onto
+    public static Object accumulator(Object o) {
+        if (o instanceof String && ((String) o).length() >= ROPE_THRESHOLD)
+            return new DRope((String) o, "");
+        return o;
+    }
+
+    // an accumulated variable where it is read
+    public static Object value(Object o) {
+        return o instanceof DRope ? o.toString() : o;
+    }
+
+    public static String flatten(Object o) {
+        return o instanceof CharSequence ? o.toString() : (String) o;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof CharSequence))
+            return false;
+        CharSequence chars = (CharSequence) o;
+        return length == chars.length() && toString().contentEquals(chars);
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        String string = flat;
+        if (string == null)
+            string = flatten();
+        return string;
+    }
+
+    private synchronized String flatten() {
+        if (flat != null)
+            return flat;
+
+        char[] chars = new char[length];
+        int position = 0;
+        // ropes built in a loop are as deep as the loop was long, so the tree
+        // is walked with an explicit stack
+        Deque<CharSequence> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            CharSequence part = stack.pop();
+            if (part instanceof DRope) {
+                DRope rope = (DRope) part;
+                String string = rope.flat;
+                CharSequence l = rope.left;
+                CharSequence r = rope.right;
+                // children are dropped only after flat is published
+                if (string == null && l != null && r != null) {
+                    stack.push(r);
+                    stack.push(l);
+                    continue;
+                }
+                part = rope.flat;
+            }
+            String string = part.toString();
+            string.getChars(0, string.length(), chars, position);
+            position += string.length();
+        }
+
+        flat = new String(chars);
+        left = null;
+        right = null;
+        return flat;
+    }
+}
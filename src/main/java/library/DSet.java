@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class DSet extends DObject implements Iterable<Object> {
+    private final Set<Object> set;
+
+    public DSet() {
+        set = new LinkedHashSet<>();
+    }
+
+    public DSet(int expectedSize) {
+        set = new LinkedHashSet<>(DMap.capacityFor(expectedSize));
+    }
+
+    public static DSet range(int start, int end) {
+        DSet set = new DSet(end - start);
+        for (int i = start; i < end; i++)
+            set.add(i);
+        return set;
+    }
+
+    public boolean add(Object value) {
+        return set.add(DStringView.key(value));
+    }
+
+    public boolean remove(Object value) {
+        return set.remove(value);
+    }
+
+    public boolean contains(Object value) {
+        return set.contains(value);
+    }
+
+    public int size() {
+        return set.size();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return set.iterator();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("set[");
+        boolean first = true;
+        for (Object value : set) {
+            if (!first)
+                builder.append(", ");
+            builder.append(value);
+            first = false;
+        }
+        return builder.append(']')
+                      .toString();
+    }
+}
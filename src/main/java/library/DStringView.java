@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+// Substring view over a string, returned for `s[i:j]`. The characters are
+// only copied when the view is converted to a String.
+public final class DStringView implements CharSequence {
+    private final String base;
+    private final int offset;
+    private final int length;
+    private String string;
+
+    private DStringView(String base, int offset, int length) {
+        this.base = base;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static CharSequence slice(CharSequence source, int from, int to) {
+        from = Math.max(0, Math.min(from, source.length()));
+        to = Math.max(from, Math.min(to, source.length()));
+        if (source instanceof DStringView) {
+            DStringView view = (DStringView) source;
+            return new DStringView(view.base, view.offset + from, to - from);
+        }
+        return new DStringView(source.toString(), from, to - from);
+    }
+
+    // views compare equal to strings with the same characters, but are
+    // materialized before they are stored as a key
+    public static Object key(Object o) {
+        return o instanceof DStringView ? o.toString() : o;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new StringIndexOutOfBoundsException(index);
+        return base.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end)
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+        return new DStringView(base, offset + start, end - start);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o instanceof DStringView) {
+            DStringView view = (DStringView) o;
+            return length == view.length && base.regionMatches(offset, view.base, view.offset, length);
+        }
+        if (o instanceof String)
+            return length == ((String) o).length() && base.regionMatches(offset, (String) o, 0, length);
+        return o instanceof CharSequence && toString().contentEquals((CharSequence) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (string == null)
+            string = base.substring(offset, offset + length);
+        return string;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+
+// Base of the classes compiled from struct declarations. Declared fields are real JVM
+// fields, any other property (the prototype included) is kept in the inherited map.
+public abstract class DStruct extends DObject {
+    private static final MethodHandle RETURN_NULL = MethodHandles.constant(Object.class, null);
+
+    // a declared field as generic GETFIELD and PUTFIELD handles, unreflected once per class
+    private static final class Slot {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Slot(Field field) throws IllegalAccessException {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            getter = lookup.unreflectGetter(field)
+                           .asType(genericMethodType(1));
+            setter = MethodHandles.filterReturnValue(lookup.unreflectSetter(field), RETURN_NULL)
+                                  .asType(genericMethodType(2));
+        }
+    }
+
+    private static final ClassValue<Map<String, Slot>> LAYOUTS = new ClassValue<Map<String, Slot>>() {
+        @Override
+        protected Map<String, Slot> computeValue(Class<?> type) {
+            Map<String, Slot> layout = new LinkedHashMap<>();
+            try {
+                for (Field field : type.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()))
+                        layout.put(field.getName(), new Slot(field));
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            return layout;
+        }
+    };
+
+    private Slot slot(String name) {
+        return LAYOUTS.get(getClass())
+                      .get(name);
+    }
+
+    @Override
+    public void define(String key, Object value) {
+        Slot slot = slot(key);
+        if (slot == null) {
+            super.define(key, value);
+            return;
+        }
+        try {
+            Object ignored = (Object) slot.setter.invokeExact((Object) this, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public Object get(String key) {
+        Slot slot = slot(key);
+        if (slot == null)
+            return super.get(key);
+        try {
+            return (Object) slot.getter.invokeExact((Object) this);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public Set<String> keys() {
+        Set<String> keys = new LinkedHashSet<>(LAYOUTS.get(getClass())
+                                                      .keySet());
+        keys.addAll(super.keys());
+        return keys;
+    }
+
+    // GETFIELD (1 argument) or PUTFIELD (2 arguments) of a declared field as a generic handle,
+    // valid for receivers of type only; null when name is not a field of type
+    public static MethodHandle fieldHandle(Class<?> type, String name, MethodType callType) {
+        Slot slot = LAYOUTS.get(type)
+                           .get(name);
+        if (slot == null)
+            return null;
+        switch (callType.parameterCount()) {
+            case 1:
+                return slot.getter;
+            case 2:
+                return slot.setter;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public MethodHandle invoker(String property, MethodType type) {
+        MethodHandle field = fieldHandle(getClass(), property, type);
+        if (field != null)
+            return field;
+        return super.invoker(property, type);
+    }
+
+    @Override
+    public String toString() {
+        String name = getClass().getName();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String key : LAYOUTS.get(getClass())
+                                 .keySet()) {
+            fields.put(key, get(key));
+        }
+        return name.substring(name.lastIndexOf('$') + 1) + fields;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DList;
+import library.DObject;
+import runtime.TypedArrays;
+
+import java.util.Arrays;
+
+// ByteArray: fixed size byte[] values; elements read and write as int.
+public class CByteArray {
+    public static byte[] create(DObject self, int length) {
+        return new byte[length];
+    }
+
+    public static byte[] of(DObject self, Object source) {
+        return (byte[]) TypedArrays.from(byte[].class, source);
+    }
+
+    public static int length(DObject self, byte[] array) {
+        return array.length;
+    }
+
+    public static int get(DObject self, byte[] array, int index) {
+        return array[index];
+    }
+
+    public static void put(DObject self, byte[] array, int index, int value) {
+        array[index] = (byte) value;
+    }
+
+    public static byte[] fill(DObject self, byte[] array, int value) {
+        Arrays.fill(array, (byte) value);
+        return array;
+    }
+
+    public static byte[] fillRange(DObject self, byte[] array, int from, int to, int value) {
+        Arrays.fill(array, from, to, (byte) value);
+        return array;
+    }
+
+    public static byte[] copy(DObject self, byte[] array) {
+        return array.clone();
+    }
+
+    public static byte[] copyOf(DObject self, byte[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    public static byte[] copyRange(DObject self, byte[] array, int from, int to) {
+        return Arrays.copyOfRange(array, from, to);
+    }
+
+    // a.arraycopy(srcPos, dest, destPos, length) copies into dest and returns it
+    public static byte[] arraycopy(DObject self, byte[] src, int srcPos, byte[] dest, int destPos, int length) {
+        System.arraycopy(src, srcPos, dest, destPos, length);
+        return dest;
+    }
+
+    public static DList toList(DObject self, byte[] array) {
+        DList list = new DList(array.length);
+        for (byte value : array)
+            list.addInt(value);
+        return list;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DList;
+import library.DObject;
+import runtime.TypedArrays;
+
+import java.util.Arrays;
+
+// DoubleArray: fixed size double[] values, indexed with a[i] and a[i] = v; any number
+// can be stored.
+public class CDoubleArray {
+    public static double[] create(DObject self, int length) {
+        return new double[length];
+    }
+
+    public static double[] of(DObject self, Object source) {
+        return (double[]) TypedArrays.from(double[].class, source);
+    }
+
+    public static int length(DObject self, double[] array) {
+        return array.length;
+    }
+
+    public static double get(DObject self, double[] array, int index) {
+        return array[index];
+    }
+
+    public static void put(DObject self, double[] array, int index, Number value) {
+        array[index] = value.doubleValue();
+    }
+
+    public static double[] fill(DObject self, double[] array, Number value) {
+        Arrays.fill(array, value.doubleValue());
+        return array;
+    }
+
+    public static double[] fillRange(DObject self, double[] array, int from, int to, Number value) {
+        Arrays.fill(array, from, to, value.doubleValue());
+        return array;
+    }
+
+    public static double[] copy(DObject self, double[] array) {
+        return array.clone();
+    }
+
+    public static double[] copyOf(DObject self, double[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    public static double[] copyRange(DObject self, double[] array, int from, int to) {
+        return Arrays.copyOfRange(array, from, to);
+    }
+
+    // a.arraycopy(srcPos, dest, destPos, length) copies into dest and returns it
+    public static double[] arraycopy(DObject self, double[] src, int srcPos, double[] dest, int destPos, int length) {
+        System.arraycopy(src, srcPos, dest, destPos, length);
+        return dest;
+    }
+
+    public static DList toList(DObject self, double[] array) {
+        DList list = new DList(array.length);
+        for (double value : array)
+            list.addDouble(value);
+        return list;
+    }
+}
@@ -29,5 +29,19 @@
 
 package library.base;
 
+import library.DFunc;
+import library.DObject;
+
 public class CFunc {
+    private static final int MEMO_SIZE = 1 << 16;
+
+    // Function.memo(f): f with its results cached per arguments
+    public static DFunc memo(DObject self, DFunc function) {
+        return MemoTable.wrap(function, MEMO_SIZE);
+    }
+
+    // Function.lru(f, n): as memo, keeping about the n most recently used results
+    public static DFunc lru(DObject self, DFunc function, Integer size) {
+        return MemoTable.wrap(function, size);
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DList;
+import library.DObject;
+import runtime.TypedArrays;
+
+import java.util.Arrays;
+
+// IntArray: fixed size int[] values, indexed with a[i] and a[i] = v.
+public class CIntArray {
+    public static int[] create(DObject self, int length) {
+        return new int[length];
+    }
+
+    public static int[] of(DObject self, Object source) {
+        return (int[]) TypedArrays.from(int[].class, source);
+    }
+
+    public static int length(DObject self, int[] array) {
+        return array.length;
+    }
+
+    public static int get(DObject self, int[] array, int index) {
+        return array[index];
+    }
+
+    public static void put(DObject self, int[] array, int index, int value) {
+        array[index] = value;
+    }
+
+    public static int[] fill(DObject self, int[] array, int value) {
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    public static int[] fillRange(DObject self, int[] array, int from, int to, int value) {
+        Arrays.fill(array, from, to, value);
+        return array;
+    }
+
+    public static int[] copy(DObject self, int[] array) {
+        return array.clone();
+    }
+
+    public static int[] copyOf(DObject self, int[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    public static int[] copyRange(DObject self, int[] array, int from, int to) {
+        return Arrays.copyOfRange(array, from, to);
+    }
+
+    // a.arraycopy(srcPos, dest, destPos, length) copies into dest and returns it
+    public static int[] arraycopy(DObject self, int[] src, int srcPos, int[] dest, int destPos, int length) {
+        System.arraycopy(src, srcPos, dest, destPos, length);
+        return dest;
+    }
+
+    public static DList toList(DObject self, int[] array) {
+        DList list = new DList(array.length);
+        for (int value : array)
+            list.addInt(value);
+        return list;
+    }
+}
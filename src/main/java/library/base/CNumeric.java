@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DList;
+import library.DObject;
+import runtime.TypedArrays;
+
+// Numeric: bulk operations over IntArray and DoubleArray values and numeric
+// lists. The kernels are plain counted loops over primitive arrays, which C2
+// unrolls and vectorizes; anything else is first copied into a double[].
+public class CNumeric {
+    public static Object add(DObject self, Object a, Object b) {
+        if (a instanceof int[] && b instanceof int[])
+            return add((int[]) a, (int[]) b);
+        return add(doubles(a), doubles(b));
+    }
+
+    public static Object mul(DObject self, Object a, Object b) {
+        if (a instanceof int[] && b instanceof int[])
+            return mul((int[]) a, (int[]) b);
+        return mul(doubles(a), doubles(b));
+    }
+
+    // Numeric.fma(a, b, c): a[i] * b[i] + c[i]
+    public static double[] fma(DObject self, Object a, Object b, Object c) {
+        return fma(doubles(a), doubles(b), doubles(c));
+    }
+
+    public static Object scale(DObject self, Object a, Number factor) {
+        if (a instanceof int[] && factor instanceof Integer)
+            return scale((int[]) a, factor.intValue());
+        return scale(doubles(a), factor.doubleValue());
+    }
+
+    public static Number dot(DObject self, Object a, Object b) {
+        if (a instanceof int[] && b instanceof int[])
+            return narrow(dot((int[]) a, (int[]) b));
+        return dot(doubles(a), doubles(b));
+    }
+
+    public static Number sum(DObject self, Object a) {
+        if (a instanceof int[])
+            return narrow(sum((int[]) a));
+        return sum(doubles(a));
+    }
+
+    public static Number min(DObject self, Object a) {
+        if (a instanceof int[])
+            return min((int[]) a);
+        return min(doubles(a));
+    }
+
+    public static Number max(DObject self, Object a) {
+        if (a instanceof int[])
+            return max((int[]) a);
+        return max(doubles(a));
+    }
+
+    public static double mean(DObject self, Object a) {
+        double[] values = doubles(a);
+        checkNotEmpty(values.length);
+        return sum(values) / values.length;
+    }
+
+    private static double[] doubles(Object source) {
+        if (source instanceof double[])
+            return (double[]) source;
+        if (source instanceof DList)
+            return ((DList) source).toDoubleArray();
+        return (double[]) TypedArrays.from(double[].class, source);
+    }
+
+    private static Number narrow(long value) {
+        if (value == (int) value)
+            return (int) value;
+        return value;
+    }
+
+    private static void checkLengths(int a, int b) {
+        if (a != b)
+            throw new IllegalArgumentException("Length mismatch: " + a + " and " + b);
+    }
+
+    private static void checkNotEmpty(int length) {
+        if (length == 0)
+            throw new IllegalArgumentException("reduction over an empty sequence");
+    }
+
+    // kernels
+
+    private static int[] add(int[] a, int[] b) {
+        checkLengths(a.length, b.length);
+        int[] result = new int[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] + b[i];
+        return result;
+    }
+
+    private static double[] add(double[] a, double[] b) {
+        checkLengths(a.length, b.length);
+        double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] + b[i];
+        return result;
+    }
+
+    private static int[] mul(int[] a, int[] b) {
+        checkLengths(a.length, b.length);
+        int[] result = new int[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] * b[i];
+        return result;
+    }
+
+    private static double[] mul(double[] a, double[] b) {
+        checkLengths(a.length, b.length);
+        double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] * b[i];
+        return result;
+    }
+
+    private static double[] fma(double[] a, double[] b, double[] c) {
+        checkLengths(a.length, b.length);
+        checkLengths(a.length, c.length);
+        double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] * b[i] + c[i];
+        return result;
+    }
+
+    private static int[] scale(int[] a, int factor) {
+        int[] result = new int[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] * factor;
+        return result;
+    }
+
+    private static double[] scale(double[] a, double factor) {
+        double[] result = new double[a.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = a[i] * factor;
+        return result;
+    }
+
+    private static long dot(int[] a, int[] b) {
+        checkLengths(a.length, b.length);
+        long dot = 0;
+        for (int i = 0; i < a.length; i++)
+            dot += (long) a[i] * b[i];
+        return dot;
+    }
+
+    // floating point reductions keep four partial sums: a single accumulator
+    // is a serial dependency SuperWord will not reorder.
+    private static double dot(double[] a, double[] b) {
+        checkLengths(a.length, b.length);
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < a.length; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++)
+            s0 += a[i] * b[i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static long sum(int[] a) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++)
+            sum += a[i];
+        return sum;
+    }
+
+    private static double sum(double[] a) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < a.length; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+        for (; i < a.length; i++)
+            s0 += a[i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static int min(int[] a) {
+        checkNotEmpty(a.length);
+        int min = a[0];
+        for (int i = 1; i < a.length; i++)
+            min = Math.min(min, a[i]);
+        return min;
+    }
+
+    private static double min(double[] a) {
+        checkNotEmpty(a.length);
+        double min = a[0];
+        for (int i = 1; i < a.length; i++)
+            min = Math.min(min, a[i]);
+        return min;
+    }
+
+    private static int max(int[] a) {
+        checkNotEmpty(a.length);
+        int max = a[0];
+        for (int i = 1; i < a.length; i++)
+            max = Math.max(max, a[i]);
+        return max;
+    }
+
+    private static double max(double[] a) {
+        checkNotEmpty(a.length);
+        double max = a[0];
+        for (int i = 1; i < a.length; i++)
+            max = Math.max(max, a[i]);
+        return max;
+    }
+}
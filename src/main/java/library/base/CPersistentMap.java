@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DMap;
+import library.DObject;
+import library.persistent.PersistentMap;
+
+import java.util.Map;
+
+// PersistentMap: immutable hash maps. assoc and dissoc return a new map
+// sharing structure with the old one; asTransient() gives a builder updated
+// in place with put and remove until persistent() is called.
+public class CPersistentMap {
+    public static PersistentMap empty(DObject self) {
+        return PersistentMap.EMPTY;
+    }
+
+    public static PersistentMap of(DObject self, Object source) {
+        PersistentMap.Transient map = PersistentMap.EMPTY.asTransient();
+        Iterable<? extends Map.Entry<?, ?>> entries = source instanceof DMap
+                ? ((DMap) source).entrySet()
+                : ((Map<?, ?>) source).entrySet();
+        for (Map.Entry<?, ?> entry : entries)
+            map.assoc(entry.getKey(), entry.getValue());
+        return map.persistent();
+    }
+
+    public static Object get(DObject self, Object map, Object key) {
+        if (map instanceof PersistentMap.Transient)
+            return ((PersistentMap.Transient) map).get(key);
+        return ((PersistentMap) map).get(key);
+    }
+
+    public static boolean has(DObject self, PersistentMap map, Object key) {
+        return map.containsKey(key);
+    }
+
+    public static int size(DObject self, Object map) {
+        if (map instanceof PersistentMap.Transient)
+            return ((PersistentMap.Transient) map).size();
+        return ((PersistentMap) map).size();
+    }
+
+    public static PersistentMap assoc(DObject self, PersistentMap map, Object key, Object value) {
+        return map.assoc(key, value);
+    }
+
+    public static PersistentMap dissoc(DObject self, PersistentMap map, Object key) {
+        return map.dissoc(key);
+    }
+
+    public static PersistentMap.Transient asTransient(DObject self, PersistentMap map) {
+        return map.asTransient();
+    }
+
+    public static PersistentMap.Transient put(DObject self, PersistentMap.Transient map, Object key, Object value) {
+        return map.assoc(key, value);
+    }
+
+    public static PersistentMap.Transient remove(DObject self, PersistentMap.Transient map, Object key) {
+        return map.dissoc(key);
+    }
+
+    public static PersistentMap persistent(DObject self, PersistentMap.Transient map) {
+        return map.persistent();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DObject;
+import library.persistent.PersistentSet;
+import runtime.Iteration;
+
+import java.util.Iterator;
+
+// PersistentSet: immutable hash sets, with conj/disj returning new sets and
+// a transient builder updated in place with add and remove.
+public class CPersistentSet {
+    public static PersistentSet empty(DObject self) {
+        return PersistentSet.EMPTY;
+    }
+
+    public static PersistentSet of(DObject self, Object source) {
+        PersistentSet.Transient set = PersistentSet.EMPTY.asTransient();
+        Iterator<?> iterator = Iteration.iterator(source);
+        while (iterator.hasNext())
+            set.conj(iterator.next());
+        return set.persistent();
+    }
+
+    public static boolean has(DObject self, PersistentSet set, Object value) {
+        return set.contains(value);
+    }
+
+    public static int size(DObject self, Object set) {
+        if (set instanceof PersistentSet.Transient)
+            return ((PersistentSet.Transient) set).size();
+        return ((PersistentSet) set).size();
+    }
+
+    public static PersistentSet conj(DObject self, PersistentSet set, Object value) {
+        return set.conj(value);
+    }
+
+    public static PersistentSet disj(DObject self, PersistentSet set, Object value) {
+        return set.disj(value);
+    }
+
+    public static PersistentSet.Transient asTransient(DObject self, PersistentSet set) {
+        return set.asTransient();
+    }
+
+    public static PersistentSet.Transient add(DObject self, PersistentSet.Transient set, Object value) {
+        return set.conj(value);
+    }
+
+    public static PersistentSet.Transient remove(DObject self, PersistentSet.Transient set, Object value) {
+        return set.disj(value);
+    }
+
+    public static PersistentSet persistent(DObject self, PersistentSet.Transient set) {
+        return set.persistent();
+    }
+}
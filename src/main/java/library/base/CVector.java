@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DObject;
+import library.persistent.PersistentVector;
+import runtime.Iteration;
+
+import java.util.Iterator;
+
+// Vector: immutable indexed sequences. conj, assoc and pop return a new
+// vector sharing structure with the old one; asTransient() gives a builder
+// updated in place with add and put until persistent() is called.
+public class CVector {
+    public static PersistentVector empty(DObject self) {
+        return PersistentVector.EMPTY;
+    }
+
+    public static PersistentVector of(DObject self, Object source) {
+        PersistentVector.Transient vector = PersistentVector.EMPTY.asTransient();
+        Iterator<?> iterator = Iteration.iterator(source);
+        while (iterator.hasNext())
+            vector.conj(iterator.next());
+        return vector.persistent();
+    }
+
+    public static Object get(DObject self, PersistentVector vector, int index) {
+        return vector.get(index);
+    }
+
+    public static int size(DObject self, Object vector) {
+        if (vector instanceof PersistentVector.Transient)
+            return ((PersistentVector.Transient) vector).size();
+        return ((PersistentVector) vector).size();
+    }
+
+    public static PersistentVector conj(DObject self, PersistentVector vector, Object value) {
+        return vector.conj(value);
+    }
+
+    public static PersistentVector assoc(DObject self, PersistentVector vector, int index, Object value) {
+        return vector.assoc(index, value);
+    }
+
+    public static PersistentVector pop(DObject self, PersistentVector vector) {
+        return vector.pop();
+    }
+
+    public static PersistentVector.Transient asTransient(DObject self, PersistentVector vector) {
+        return vector.asTransient();
+    }
+
+    public static PersistentVector.Transient add(DObject self, PersistentVector.Transient vector, Object value) {
+        return vector.conj(value);
+    }
+
+    public static PersistentVector.Transient put(DObject self, PersistentVector.Transient vector, int index,
+                                                 Object value) {
+        return vector.assoc(index, value);
+    }
+
+    public static PersistentVector persistent(DObject self, PersistentVector.Transient vector) {
+        return vector.persistent();
+    }
+}
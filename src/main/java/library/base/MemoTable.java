@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import library.DFunc;
+import library.DObject;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+// Results of a function keyed by its arguments. The table is split in
+// segments, each an access ordered map behind its own lock: callers of
+// different keys rarely contend, and a full segment evicts its least
+// recently used entry.
+final class MemoTable {
+    private static final MethodHandle INVOKE;
+    private static final Object NULL = new Object();
+    private static final int MAX_SEGMENTS = 16;
+
+    static {
+        try {
+            INVOKE = MethodHandles.lookup()
+                                  .findVirtual(MemoTable.class, "invoke", methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new Error("Could not bootstrap the required method handles", e);
+        }
+    }
+
+    private final MethodHandle function;
+    private final Segment[] segments;
+
+    private MemoTable(MethodHandle function, int maxSize) {
+        this.function = function;
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxSize));
+        int capacity = (maxSize + count - 1) / count;
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++)
+            segments[i] = new Segment(capacity);
+    }
+
+    static DFunc wrap(DFunc function, int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Memo size must be positive, found " + maxSize);
+        MethodHandle handle = function.handle();
+        MethodHandle invoker = INVOKE.bindTo(new MemoTable(handle, maxSize));
+        if (handle.isVarargsCollector())
+            invoker = invoker.asVarargsCollector(Object[].class);
+        else
+            invoker = invoker.asCollector(Object[].class, handle.type()
+                                                              .parameterCount())
+                             .asType(handle.type());
+        DFunc memoized = new DFunc(invoker);
+        memoized.define(DObject.__PROTO__, function.get(DObject.__PROTO__));
+        return memoized;
+    }
+
+    // args[0] is this, which is not part of the key
+    private Object invoke(Object[] args) throws Throwable {
+        Object key = key(args);
+        int hash = key.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+
+        Object value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            // computed outside the lock, so recursive memoized calls don't block
+            value = function.invokeWithArguments(args);
+            if (value == null)
+                value = NULL;
+            synchronized (segment) {
+                segment.put(key, value);
+            }
+        }
+        return value == NULL ? null : value;
+    }
+
+    private static Object key(Object[] args) {
+        if (args.length == 2)
+            return keyOf(args[1]);
+        Object[] values = new Object[args.length - 1];
+        for (int i = 1; i < args.length; i++)
+            values[i - 1] = keyOf(args[i]);
+        return new ArgumentsKey(values);
+    }
+
+    // boxed numbers and strings hash by value, ropes and views are keyed by their text
+    private static Object keyOf(Object arg) {
+        if (arg == null)
+            return NULL;
+        if (arg instanceof CharSequence && !(arg instanceof String))
+            return arg.toString();
+        return arg;
+    }
+
+    private static final class ArgumentsKey {
+        private final Object[] values;
+        private final int hash;
+
+        ArgumentsKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ArgumentsKey && hash == ((ArgumentsKey) o).hash
+                    && Arrays.equals(values, ((ArgumentsKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<Object, Object> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -30,14 +30,19 @@
 package library.io;
 
 import library.DObject;
+import runtime.TypedArrays;
 
 public class BasicIO {
     public static void print(DObject b, Object o) {
-        System.out.print(o);
+        System.out.print(format(o));
     }
 
     public static void println(DObject b, Object o) {
-        System.out.println(o);
+        System.out.println(format(o));
+    }
+
+    private static Object format(Object o) {
+        return TypedArrays.isTypedArray(o) ? TypedArrays.toString(o) : o;
     }
 
     public static String input(DObject b) {
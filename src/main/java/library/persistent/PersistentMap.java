@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.persistent;
+
+import library.DStringView;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// An immutable hash map stored as a hash array mapped trie. Every level
+// consumes 5 bits of the key hash: a node keeps a 32 bit bitmap of the slots
+// in use and a compact array of them, so updates copy O(log32 n) small nodes
+// and share the rest of the trie.
+public final class PersistentMap extends AbstractMap<Object, Object> {
+    private static final int BITS = 5;
+    private static final Object NOT_FOUND = new Object();
+
+    public static final PersistentMap EMPTY = new PersistentMap(0, null, false, null);
+
+    private final int count;
+    private final Node root;
+    private final boolean hasNull;
+    private final Object nullValue;
+
+    private PersistentMap(int count, Node root, boolean hasNull, Object nullValue) {
+        this.count = count;
+        this.root = root;
+        this.hasNull = hasNull;
+        this.nullValue = nullValue;
+    }
+
+    public static PersistentMap of(Map<?, ?> entries) {
+        Transient map = EMPTY.asTransient();
+        for (Map.Entry<?, ?> entry : entries.entrySet())
+            map.assoc(entry.getKey(), entry.getValue());
+        return map.persistent();
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = find(key);
+        return value == NOT_FOUND ? null : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    private Object find(Object key) {
+        if (key == null)
+            return hasNull ? nullValue : NOT_FOUND;
+        return root == null ? NOT_FOUND : root.find(0, hash(key), key, NOT_FOUND);
+    }
+
+    public PersistentMap assoc(Object key, Object value) {
+        if (key == null) {
+            if (hasNull && nullValue == value)
+                return this;
+            return new PersistentMap(hasNull ? count : count + 1, root, true, value);
+        }
+        key = DStringView.key(key);
+        Box added = new Box();
+        Node newRoot = (root == null ? BitmapNode.EMPTY : root).assoc(null, 0, hash(key), key, value, added);
+        if (newRoot == root)
+            return this;
+        return new PersistentMap(added.value ? count + 1 : count, newRoot, hasNull, nullValue);
+    }
+
+    public PersistentMap dissoc(Object key) {
+        if (key == null)
+            return hasNull ? new PersistentMap(count - 1, root, false, null) : this;
+        if (root == null)
+            return this;
+        Box removed = new Box();
+        Node newRoot = root.without(null, 0, hash(key), key, removed);
+        if (!removed.value)
+            return this;
+        return new PersistentMap(count - 1, newRoot, hasNull, nullValue);
+    }
+
+    public Transient asTransient() {
+        return new Transient(this);
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, Object>>() {
+            @Override
+            public Iterator<Map.Entry<Object, Object>> iterator() {
+                return new EntryIterator(hasNull, nullValue, root);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int mask(int hash, int shift) {
+        return (hash >>> shift) & 0x1f;
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << mask(hash, shift);
+    }
+
+    static final class Box {
+        boolean value;
+    }
+
+    // Both node kinds keep key/value pairs in one array. In a bitmap node a
+    // null key marks a pair whose value is the child node for that slot.
+    abstract static class Node {
+        final Object edit;
+        Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key, Object notFound);
+
+        abstract Node assoc(Object edit, int shift, int hash, Object key, Object value, Box added);
+
+        // null once the node is empty
+        abstract Node without(Object edit, int shift, int hash, Object key, Box removed);
+
+        boolean isEditable(Object edit) {
+            return edit != null && this.edit == edit;
+        }
+    }
+
+    static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        int bitmap;
+
+        BitmapNode(Object edit, int bitmap, Object[] array) {
+            super(edit, array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key, Object notFound) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+                return notFound;
+            int index = index(bit);
+            Object k = array[2 * index];
+            Object v = array[2 * index + 1];
+            if (k == null)
+                return ((Node) v).find(shift + BITS, hash, key, notFound);
+            return key.equals(k) ? v : notFound;
+        }
+
+        @Override
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Box added) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object k = array[2 * index];
+                Object v = array[2 * index + 1];
+                if (k == null) {
+                    Node child = ((Node) v).assoc(edit, shift + BITS, hash, key, value, added);
+                    return child == v ? this : set(edit, 2 * index + 1, child);
+                }
+                if (key.equals(k))
+                    return v == value ? this : set(edit, 2 * index + 1, value);
+                added.value = true;
+                Node child = pair(edit, shift + BITS, k, v, hash, key, value);
+                BitmapNode node = set(edit, 2 * index + 1, child);
+                node.array[2 * index] = null;
+                return node;
+            }
+
+            added.value = true;
+            int n = Integer.bitCount(bitmap);
+            if (isEditable(edit) && 2 * n < array.length) {
+                System.arraycopy(array, 2 * index, array, 2 * (index + 1), 2 * (n - index));
+                array[2 * index] = key;
+                array[2 * index + 1] = value;
+                bitmap |= bit;
+                return this;
+            }
+            // transients leave room to grow in place
+            Object[] newArray = new Object[2 * (edit == null ? n + 1 : n + 4)];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            newArray[2 * index] = key;
+            newArray[2 * index + 1] = value;
+            System.arraycopy(array, 2 * index, newArray, 2 * (index + 1), 2 * (n - index));
+            return new BitmapNode(edit, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node without(Object edit, int shift, int hash, Object key, Box removed) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+            int index = index(bit);
+            Object k = array[2 * index];
+            Object v = array[2 * index + 1];
+            if (k == null) {
+                Node child = ((Node) v).without(edit, shift + BITS, hash, key, removed);
+                if (child == v)
+                    return this;
+                if (child != null)
+                    return set(edit, 2 * index + 1, child);
+            } else if (key.equals(k)) {
+                removed.value = true;
+            } else {
+                return this;
+            }
+            if (bitmap == bit)
+                return null;
+            int n = Integer.bitCount(bitmap);
+            Object[] newArray = new Object[2 * (n - 1)];
+            System.arraycopy(array, 0, newArray, 0, 2 * index);
+            System.arraycopy(array, 2 * (index + 1), newArray, 2 * index, 2 * (n - index - 1));
+            return new BitmapNode(edit, bitmap ^ bit, newArray);
+        }
+
+        private BitmapNode set(Object edit, int i, Object value) {
+            if (isEditable(edit)) {
+                array[i] = value;
+                return this;
+            }
+            Object[] newArray = array.clone();
+            newArray[i] = value;
+            return new BitmapNode(edit, bitmap, newArray);
+        }
+
+        private static Node pair(Object edit, int shift, Object key1, Object value1,
+                                 int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2)
+                return new CollisionNode(edit, hash1, new Object[]{key1, value1, key2, value2});
+            Box added = new Box();
+            return EMPTY.assoc(edit, shift, hash1, key1, value1, added)
+                        .assoc(edit, shift, hash2, key2, value2, added);
+        }
+    }
+
+    // keys whose whole 32 bit hash is equal
+    static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(Object edit, int hash, Object[] array) {
+            super(edit, array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i]))
+                    return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key, Object notFound) {
+            int i = indexOf(key);
+            return i < 0 ? notFound : array[i + 1];
+        }
+
+        @Override
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Box added) {
+            if (hash != this.hash) {
+                BitmapNode node = new BitmapNode(edit, bit(this.hash, shift), new Object[]{null, this});
+                return node.assoc(edit, shift, hash, key, value, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value)
+                    return this;
+                if (isEditable(edit)) {
+                    array[i + 1] = value;
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode(edit, hash, newArray);
+            }
+            added.value = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            if (isEditable(edit)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        Node without(Object edit, int shift, int hash, Object key, Box removed) {
+            int i = indexOf(key);
+            if (i < 0)
+                return this;
+            removed.value = true;
+            if (array.length == 2)
+                return null;
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new CollisionNode(edit, this.hash, newArray);
+        }
+    }
+
+    // depth first over the node arrays; a trie is at most seven bitmap
+    // levels deep with a collision node below them
+    private static final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+        private final Object[][] arrays = new Object[8][];
+        private final int[] positions = new int[8];
+        private int depth = -1;
+        private Map.Entry<Object, Object> next;
+
+        EntryIterator(boolean hasNull, Object nullValue, Node root) {
+            if (root != null)
+                push(root);
+            if (hasNull)
+                next = new SimpleImmutableEntry<>(null, nullValue);
+            else
+                advance();
+        }
+
+        private void push(Node node) {
+            depth++;
+            arrays[depth] = node.array;
+            positions[depth] = 0;
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = positions[depth];
+                if (i >= array.length) {
+                    depth--;
+                    continue;
+                }
+                positions[depth] = i + 2;
+                Object key = array[i];
+                Object value = array[i + 1];
+                if (key != null) {
+                    next = new SimpleImmutableEntry<>(key, value);
+                    return;
+                }
+                if (value instanceof Node)
+                    push((Node) value);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Object, Object> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            Map.Entry<Object, Object> entry = next;
+            advance();
+            return entry;
+        }
+    }
+
+    // A batch builder over a map: assoc and dissoc update the nodes this
+    // transient created in place, and persistent() freezes the result.
+    public static final class Transient {
+        private Object edit = new Object();
+        private int count;
+        private Node root;
+        private boolean hasNull;
+        private Object nullValue;
+        private final Box box = new Box();
+
+        private Transient(PersistentMap map) {
+            count = map.count;
+            root = map.root;
+            hasNull = map.hasNull;
+            nullValue = map.nullValue;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public Object get(Object key) {
+            ensureEditable();
+            if (key == null)
+                return hasNull ? nullValue : null;
+            Object value = root == null ? NOT_FOUND : root.find(0, hash(key), key, NOT_FOUND);
+            return value == NOT_FOUND ? null : value;
+        }
+
+        public Transient assoc(Object key, Object value) {
+            ensureEditable();
+            if (key == null) {
+                if (!hasNull)
+                    count++;
+                hasNull = true;
+                nullValue = value;
+                return this;
+            }
+            key = DStringView.key(key);
+            box.value = false;
+            root = (root == null ? BitmapNode.EMPTY : root).assoc(edit, 0, hash(key), key, value, box);
+            if (box.value)
+                count++;
+            return this;
+        }
+
+        public Transient dissoc(Object key) {
+            ensureEditable();
+            if (key == null) {
+                if (hasNull)
+                    count--;
+                hasNull = false;
+                nullValue = null;
+                return this;
+            }
+            if (root == null)
+                return this;
+            box.value = false;
+            root = root.without(edit, 0, hash(key), key, box);
+            if (box.value)
+                count--;
+            return this;
+        }
+
+        public PersistentMap persistent() {
+            ensureEditable();
+            edit = null;
+            return count == 0 ? EMPTY : new PersistentMap(count, root, hasNull, nullValue);
+        }
+
+        private void ensureEditable() {
+            if (edit == null)
+                throw new IllegalStateException("Transient used after persistent() call");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.persistent;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+// An immutable hash set: the keys of a PersistentMap mapped to themselves.
+public final class PersistentSet extends AbstractSet<Object> {
+    public static final PersistentSet EMPTY = new PersistentSet(PersistentMap.EMPTY);
+
+    private final PersistentMap map;
+
+    private PersistentSet(PersistentMap map) {
+        this.map = map;
+    }
+
+    public static PersistentSet of(Iterable<?> values) {
+        Transient set = EMPTY.asTransient();
+        for (Object value : values)
+            set.conj(value);
+        return set.persistent();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return map.containsKey(value);
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return map.keySet()
+                  .iterator();
+    }
+
+    public PersistentSet conj(Object value) {
+        PersistentMap newMap = map.assoc(value, value);
+        return newMap == map ? this : new PersistentSet(newMap);
+    }
+
+    public PersistentSet disj(Object value) {
+        PersistentMap newMap = map.dissoc(value);
+        return newMap == map ? this : new PersistentSet(newMap);
+    }
+
+    public Transient asTransient() {
+        return new Transient(map.asTransient());
+    }
+
+    public static final class Transient {
+        private final PersistentMap.Transient map;
+
+        private Transient(PersistentMap.Transient map) {
+            this.map = map;
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        public Transient conj(Object value) {
+            map.assoc(value, value);
+            return this;
+        }
+
+        public Transient disj(Object value) {
+            map.dissoc(value);
+            return this;
+        }
+
+        public PersistentSet persistent() {
+            return new PersistentSet(map.persistent());
+        }
+    }
+}
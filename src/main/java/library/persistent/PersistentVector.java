@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.persistent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+// An immutable vector: a 32-way trie of nodes plus a tail array holding the
+// last (up to) 32 elements. Updates copy the path from the root to the
+// changed leaf, O(log32 n), and share everything else with the original.
+public final class PersistentVector extends AbstractList<Object> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    public static final PersistentVector EMPTY = new PersistentVector(0, BITS, EMPTY_NODE, new Object[0]);
+
+    // edit is the token of the transient allowed to mutate the node in place
+    static final class Node {
+        final Object edit;
+        final Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        Node(Object edit) {
+            this(edit, new Object[WIDTH]);
+        }
+    }
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    public static PersistentVector of(Iterable<?> values) {
+        Transient vector = EMPTY.asTransient();
+        for (Object value : values)
+            vector.conj(value);
+        return vector.persistent();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object get(int index) {
+        checkIndex(index, size);
+        return arrayFor(index, size, shift, root, tail)[index & MASK];
+    }
+
+    public PersistentVector conj(Object value) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = value;
+            return new PersistentVector(size + 1, shift, root, newTail);
+        }
+        Node tailNode = new Node(null, tail);
+        Node newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Node(null);
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(null, shift, tailNode);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(null, size, shift, root, tailNode);
+        }
+        return new PersistentVector(size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    // assoc(size, v) appends
+    public PersistentVector assoc(int index, Object value) {
+        if (index == size)
+            return conj(value);
+        checkIndex(index, size);
+        if (index >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentVector(size, shift, root, newTail);
+        }
+        return new PersistentVector(size, shift, doAssoc(null, shift, root, index, value), tail);
+    }
+
+    public PersistentVector pop() {
+        if (size == 0)
+            throw new IllegalStateException("Can't pop an empty vector");
+        if (size == 1)
+            return EMPTY;
+        if (size - tailOffset(size) > 1)
+            return new PersistentVector(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+
+        Object[] newTail = arrayFor(size - 2, size, shift, root, tail);
+        Node newRoot = popTail(size, shift, root);
+        int newShift = shift;
+        if (newRoot == null)
+            newRoot = EMPTY_NODE;
+        if (shift > BITS && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector(size - 1, newShift, newRoot, newTail);
+    }
+
+    public Transient asTransient() {
+        return new Transient(this);
+    }
+
+    // trie helpers, shared with the transient
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private static Object[] arrayFor(int index, int size, int shift, Node root, Object[] tail) {
+        if (index >= tailOffset(size))
+            return tail;
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS)
+            node = (Node) node.array[(index >>> level) & MASK];
+        return node.array;
+    }
+
+    private static Node editable(Object edit, Node node) {
+        if (edit != null && node.edit == edit)
+            return node;
+        return new Node(edit, node.array.clone());
+    }
+
+    private static Node newPath(Object edit, int level, Node node) {
+        if (level == 0)
+            return node;
+        Node path = new Node(edit);
+        path.array[0] = newPath(edit, level - BITS, node);
+        return path;
+    }
+
+    private static Node pushTail(Object edit, int size, int level, Node parent, Node tailNode) {
+        int index = ((size - 1) >>> level) & MASK;
+        Node result = editable(edit, parent);
+        Node child;
+        if (level == BITS) {
+            child = tailNode;
+        } else {
+            Node existing = (Node) parent.array[index];
+            child = existing != null
+                    ? pushTail(edit, size, level - BITS, existing, tailNode)
+                    : newPath(edit, level - BITS, tailNode);
+        }
+        result.array[index] = child;
+        return result;
+    }
+
+    private static Node doAssoc(Object edit, int level, Node node, int index, Object value) {
+        Node result = editable(edit, node);
+        if (level == 0) {
+            result.array[index & MASK] = value;
+        } else {
+            int child = (index >>> level) & MASK;
+            result.array[child] = doAssoc(edit, level - BITS, (Node) node.array[child], index, value);
+        }
+        return result;
+    }
+
+    private static Node popTail(int size, int level, Node node) {
+        int index = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Node child = popTail(size, level - BITS, (Node) node.array[index]);
+            if (child == null && index == 0)
+                return null;
+            Node result = new Node(null, node.array.clone());
+            result.array[index] = child;
+            return result;
+        }
+        if (index == 0)
+            return null;
+        Node result = new Node(null, node.array.clone());
+        result.array[index] = null;
+        return result;
+    }
+
+    // A batch builder over a vector: conj and assoc mutate the nodes this
+    // transient created in place, and persistent() freezes the result.
+    public static final class Transient {
+        private Object edit = new Object();
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail;
+
+        private Transient(PersistentVector vector) {
+            size = vector.size;
+            shift = vector.shift;
+            root = editable(edit, vector.root);
+            tail = Arrays.copyOf(vector.tail, WIDTH);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Object get(int index) {
+            ensureEditable();
+            checkIndex(index, size);
+            return arrayFor(index, size, shift, root, tail)[index & MASK];
+        }
+
+        public Transient conj(Object value) {
+            ensureEditable();
+            if (size - tailOffset(size) < WIDTH) {
+                tail[size & MASK] = value;
+                size++;
+                return this;
+            }
+            Node tailNode = new Node(edit, tail);
+            tail = new Object[WIDTH];
+            tail[0] = value;
+            if ((size >>> BITS) > (1 << shift)) {
+                Node newRoot = new Node(edit);
+                newRoot.array[0] = root;
+                newRoot.array[1] = newPath(edit, shift, tailNode);
+                root = newRoot;
+                shift += BITS;
+            } else {
+                root = pushTail(edit, size, shift, root, tailNode);
+            }
+            size++;
+            return this;
+        }
+
+        public Transient assoc(int index, Object value) {
+            ensureEditable();
+            if (index == size)
+                return conj(value);
+            checkIndex(index, size);
+            if (index >= tailOffset(size))
+                tail[index & MASK] = value;
+            else
+                root = doAssoc(edit, shift, root, index, value);
+            return this;
+        }
+
+        public PersistentVector persistent() {
+            ensureEditable();
+            edit = null;
+            if (size == 0)
+                return EMPTY;
+            return new PersistentVector(size, shift, root, Arrays.copyOf(tail, size - tailOffset(size)));
+        }
+
+        private void ensureEditable() {
+            if (edit == null)
+                throw new IllegalStateException("Transient used after persistent() call");
+        }
+    }
+}
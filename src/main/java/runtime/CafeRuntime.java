@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import library.DObject;
+import runtime.imports.CafeModulePath;
+import runtime.imports.ModulePath;
+import runtime.imports.ModuleRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A Cafe runtime: the module registry and class loaders of a program, the
+// import and export tables of its modules, its library objects and the
+// prototypes of its objects and functions. Runtimes share none of it, so
+// several programs can run in one JVM side by side.
+//
+// A module class belongs to the runtime whose registry loaded it; call
+// sites resolve against the runtime of their caller class, found with
+// of(Class). Everything else uses the default runtime.
+public final class CafeRuntime {
+    private static final ClassValue<CafeRuntime> RUNTIMES = new ClassValue<CafeRuntime>() {
+        @Override
+        protected CafeRuntime computeValue(Class<?> type) {
+            ModuleRegistry registry = ModuleRegistry.of(type);
+            return registry == null ? getDefault() : registry.getRuntime();
+        }
+    };
+
+    private static final class Default {
+        static final CafeRuntime RUNTIME = new CafeRuntime();
+    }
+
+    private final ModuleRegistry registry;
+    private final ImportEvaluator evaluator;
+    private final DObject objectProto;
+    private final DObject funcProto;
+    private final JavaImports javaImports;
+
+    // a runtime searching the default module path
+    public CafeRuntime() {
+        this(Collections.emptyList());
+    }
+
+    public CafeRuntime(List<String> searchPath) {
+        registry = new ModuleRegistry(this, searchPath);
+        evaluator = new ImportEvaluator(this);
+        objectProto = ProtoGenerator.generateObjectProto();
+        funcProto = ProtoGenerator.generateFuncProto(objectProto);
+        javaImports = new JavaImports(this);
+    }
+
+    public static CafeRuntime getDefault() {
+        return Default.RUNTIME;
+    }
+
+    public static CafeRuntime of(Class<?> module) {
+        return RUNTIMES.get(module);
+    }
+
+    // the main module class of a program, loaded by this runtime
+    public Class<?> load(String module) throws ClassNotFoundException {
+        ModulePath path = registry.resolve(module);
+        if (!(path instanceof CafeModulePath))
+            throw new ClassNotFoundException(module);
+        return ((CafeModulePath) path).load();
+    }
+
+    // initializes a program from its main module, a main module loaded
+    // elsewhere is loaded again through the registry of this runtime
+    public void run(Class<?> module) throws Throwable {
+        if (ModuleRegistry.of(module) == null && of(module) != this)
+            module = load(module.getName());
+        if (of(module) != this)
+            throw new IllegalStateException(String.format("Module %s belongs to another runtime", module.getName()));
+        evaluator.evaluate(module);
+    }
+
+    // runs a program linked into a jar, the first entry of the search path:
+    // its modules are registered from the jar's index and initialized in the
+    // order the linker computed
+    public void run(String main, List<String> modules, List<String> order) throws Throwable {
+        registry.register(modules);
+        List<CafeModulePath> paths = new ArrayList<>();
+        for (String name : order)
+            paths.add((CafeModulePath) registry.resolve(name));
+        ModuleGraph.initialize(this, paths, load(main));
+    }
+
+    // swaps in the recompiled class of a module this runtime has initialized,
+    // see ImportEvaluator.reload
+    public Class<?> reload(String module) throws Throwable {
+        ModulePath path = registry.resolve(module);
+        if (!(path instanceof CafeModulePath))
+            throw new ClassNotFoundException(module);
+        return evaluator.reload((CafeModulePath) path);
+    }
+
+    public ModuleRegistry getModuleRegistry() {
+        return registry;
+    }
+
+    public ImportEvaluator getImportEvaluator() {
+        return evaluator;
+    }
+
+    public JavaImports getJavaImports() {
+        return javaImports;
+    }
+
+    public DObject getObjectProto() {
+        return objectProto;
+    }
+
+    public DObject getFuncProto() {
+        return funcProto;
+    }
+}
@@ -38,9 +38,9 @@ public class DFuncCreator {
     private DFuncCreator() {
     }
 
-    public static DFunc create(MethodHandle methodHandle) {
+    public static DFunc create(CafeRuntime runtime, MethodHandle methodHandle) {
         DFunc object = new DFunc(methodHandle);
-        object.define(DObject.__PROTO__, ProtoGenerator.getFuncProto());
+        object.define(DObject.__PROTO__, runtime.getFuncProto());
         return object;
     }
 }
@@ -35,9 +35,20 @@ public class DObjectCreator {
     private DObjectCreator() {
     }
 
-    public static DObject create() {
+    public static DObject create(Class<?> module) {
+        return create(CafeRuntime.of(module));
+    }
+
+    public static DObject create(CafeRuntime runtime) {
         DObject object = new DObject();
-        object.define(DObject.__PROTO__, ProtoGenerator.getObjectProto());
+        object.define(DObject.__PROTO__, runtime.getObjectProto());
+        return object;
+    }
+
+    // structs share the prototype of plain objects
+    public static DObject create(DObject object, Class<?> module) {
+        object.define(DObject.__PROTO__, CafeRuntime.of(module)
+                                                    .getObjectProto());
         return object;
     }
 }
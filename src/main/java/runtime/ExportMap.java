@@ -30,6 +30,7 @@
 package runtime;
 
 import library.DObject;
+import library.DRope;
 
 import java.util.Map;
 
@@ -51,16 +52,21 @@ public final class ExportMap {
         return this;
     }
 
+    public Class<?> getModule() {
+        return clazz;
+    }
+
     public Object getExport(String name) {
-        return exports.get(name);
+        // a module-level variable may still hold the rope it was built in
+        return DRope.value(exports.get(name));
     }
 
     public DObject getAsDObject() {
         if (object != null)
             return object;
-        object = DObjectCreator.create();
+        object = DObjectCreator.create(clazz);
         for (Map.Entry<String, Object> entry : exports.entrySet()) {
-            object.define(entry.getKey(), entry.getValue());
+            object.define(entry.getKey(), DRope.value(entry.getValue()));
         }
         return object;
     }
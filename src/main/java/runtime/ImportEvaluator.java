@@ -30,115 +30,113 @@
 package runtime;
 
 import runtime.imports.CafeModulePath;
-import runtime.imports.ImportPathVisitor;
-import runtime.imports.JavaModulePath;
 import runtime.imports.ModulePath;
 
-import java.io.File;
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.SwitchPoint;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.invoke.MethodHandles.publicLookup;
 import static java.lang.invoke.MethodType.methodType;
 
-public final class ImportEvaluator implements ImportPathVisitor {
-
-    private static ModulePath CURR_MODULE_PATH = null;
-
-    private static Map<ModulePath, ReferenceTable> IMPORT_TABLE = new HashMap<>();
-    private static Map<ModulePath, ExportMap> EXPORT_TABLE = new HashMap<>();
-
-    private static Set<ModulePath> EVAL = new HashSet<>();
-    private static Set<ModulePath> UNEVAL = new HashSet<>();
-    private static Set<ModulePath> EVALUATING = new HashSet<>();
+public final class ImportEvaluator {
+    private final CafeRuntime runtime;
+    // keyed by module class: import lookups come from the module's own code,
+    // which may run while other modules are being initialized
+    private final Map<Class<?>, ReferenceTable> importTable = new ConcurrentHashMap<>();
+    private final Map<ModulePath, ExportMap> exportTable = new ConcurrentHashMap<>();
+    private final Map<ModulePath, CompletableFuture<Void>> initializations = new ConcurrentHashMap<>();
+    // invalidated when a module is reloaded, unlinking the imports of its exports
+    private final Map<ModulePath, SwitchPoint> versions = new ConcurrentHashMap<>();
+    // the modules whose #init is running on the current thread
+    private final ThreadLocal<Set<ModulePath>> running = ThreadLocal.withInitial(HashSet::new);
+
+    ImportEvaluator(CafeRuntime runtime) {
+        this.runtime = runtime;
+    }
 
     public void evaluate(Class<?> module) throws Throwable {
-        Set<ModulePath> imports = imports(module);
-        imports = updateSets(imports);
+        ModuleGraph.initialize(runtime, module);
+    }
 
-        ModulePath path = CURR_MODULE_PATH;
-        loadImportedModules(imports);
-        CURR_MODULE_PATH = path;
+    // the exports of a module, initializing it first if it was only imported lazily
+    public ExportMap require(CafeModulePath path) throws Throwable {
+        ExportMap exports = exportTable.get(path);
+        if (exports == null) {
+            ModuleGraph.initialize(runtime, path);
+            exports = exportTable.get(path);
+        }
+        return exports;
+    }
 
-        EXPORT_TABLE.put(CURR_MODULE_PATH, runAndGetExports(module));
-        reUpdateSets(CURR_MODULE_PATH);
+    // the switch point guarding the imports of a module's current exports;
+    // taken before the exports are read, so a reload in between unlinks them
+    public SwitchPoint version(ModulePath path) {
+        return versions.computeIfAbsent(path, p -> new SwitchPoint());
     }
 
-    private Set<ModulePath> imports(Class<?> module) {
+    // swaps in the recompiled class of an initialized module: its #init runs
+    // again, its exports are replaced and the call sites which imported the
+    // previous ones link again on their next call. Values a module kept from
+    // the previous exports, in its own variables, are not replaced. The first
+    // version of a module is only collected if the registry is reloadable.
+    public synchronized Class<?> reload(CafeModulePath path) throws Throwable {
+        ExportMap previous = exportTable.get(path);
+        if (previous == null)
+            throw new IllegalStateException(String.format("Module %s is not initialized", path.asString()));
+        Class<?> module = path.reload();
+        ModuleGraph.reload(runtime, path, module);
+        SwitchPoint stale = versions.put(path, new SwitchPoint());
+        if (stale != null)
+            SwitchPoint.invalidateAll(new SwitchPoint[]{stale});
+        importTable.remove(previous.getModule());
+        return module;
+    }
+
+    ReferenceTable imports(Class<?> module) {
         ReferenceTable data;
         try {
             Method dataMethod = module.getMethod("#imports");
             data = (ReferenceTable) dataMethod.invoke(null, new Object[]{});
         } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
             e.printStackTrace();
-            data = null;
+            data = new ReferenceTable();
         }
-        IMPORT_TABLE.put(CURR_MODULE_PATH, data);
-
-        return data.getImportPaths();
+        importTable.put(module, data);
+        return data;
     }
 
-    private static Set<ModulePath> updateSets(Set<ModulePath> modules) {
-        UNEVAL.addAll(modules);
-        UNEVAL.removeAll(EVAL);
-        modules.retainAll(UNEVAL);
-        EVALUATING.add(CURR_MODULE_PATH);
-        return modules;
+    // null when the caller now owns the initialization of the module, else
+    // the initialization some other caller claimed before
+    CompletableFuture<Void> claim(ModulePath path, CompletableFuture<Void> initialization) {
+        return initializations.putIfAbsent(path, initialization);
     }
 
-    private void loadImportedModules(Set<ModulePath> paths) {
-        for (ModulePath path : paths) {
-            path.accept(this);
-        }
-    }
-
-    @Override
-    public void visit(CafeModulePath path) {
-        try {
-            // cyclic imports
-            if (EVALUATING.contains(path)) {
-                throw new CyclicDependencyException(path.asString());
-            }
-            // already evaluated
-            if (EVAL.contains(path)) {
-                return;
-            }
-
-            String importPath = path.asString();
-            String classpath = importPath + ".class";
-            File f = new File(classpath);
-            classpath = f.getParentFile()
-                         .getPath();
-            String className = importPath.substring(importPath.lastIndexOf('/') + 1);
-            URL url = new File(classpath).toURI()
-                                         .toURL();
-            URLClassLoader loader = new URLClassLoader(new URL[]{url});
-            Class<?> importedModule = loader.loadClass(className);
-
-            EVALUATING.add(path);
-            CURR_MODULE_PATH = path;
-            evaluate(importedModule);
-
-        } catch (Throwable e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
+    boolean isRunning(ModulePath path) {
+        return running.get()
+                      .contains(path);
     }
 
-    @Override
-    public void visit(JavaModulePath path) {
-        // already evaluated
-        if (EVAL.contains(path)) {
+    // runs the module's #init; the main module has no path and exports nothing
+    void run(ModulePath path, Class<?> module) throws Throwable {
+        if (path == null) {
+            runAndGetExports(module);
             return;
         }
-        JavaImports.add(path, path.getModule());
+        running.get()
+               .add(path);
+        try {
+            exportTable.put(path, runAndGetExports(module));
+        } finally {
+            running.get()
+                   .remove(path);
+        }
     }
 
     private static ExportMap runAndGetExports(Class<?> module) throws Throwable {
@@ -149,21 +147,15 @@ public final class ImportEvaluator implements ImportPathVisitor {
                         .with(exports);
     }
 
-    private static void reUpdateSets(ModulePath path) {
-        EVAL.add(path);
-        UNEVAL.remove(path);
-        EVALUATING.remove(path);
-    }
-
-    public static ReferenceTable getImportTable() {
-        return IMPORT_TABLE.get(CURR_MODULE_PATH);
+    public ReferenceTable getImportTable(Class<?> module) {
+        return importTable.get(module);
     }
 
-    public static Map<ModulePath, ExportMap> getExportTable() {
-        return EXPORT_TABLE;
+    public Map<ModulePath, ExportMap> getExportTable() {
+        return exportTable;
     }
 
-    private static class CyclicDependencyException extends Exception {
+    static class CyclicDependencyException extends Exception {
         CyclicDependencyException(String module) {
             super(String.format("Cyclic dependecy present in imports for module %s", module));
         }
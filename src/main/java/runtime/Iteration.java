@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import library.DLink;
+import library.DList;
+import library.DMap;
+import library.DSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Support routines for compiled loops over collections.
+//
+// A loop first asks for its mode: a non-negative mode is the size of an
+// indexed source which is then walked with an int cursor, any other mode
+// walks the iterator returned by loopSource().
+public final class Iteration {
+    public static final int ITERATOR = -1;
+    public static final int ENTRIES = -2;
+
+    private Iteration() {
+    }
+
+    public static int loopMode(Object source, boolean pairs) {
+        if (source instanceof DList)
+            return ((DList) source).size();
+        if (pairs && (source instanceof DMap || source instanceof Map))
+            return ENTRIES;
+        return ITERATOR;
+    }
+
+    public static Object loopSource(Object source, int mode) {
+        if (mode >= 0)
+            return source;
+        if (mode == ENTRIES) {
+            if (source instanceof DMap)
+                return ((DMap) source).entrySet()
+                                      .iterator();
+            return ((Map<?, ?>) source).entrySet()
+                                       .iterator();
+        }
+        return iterator(source);
+    }
+
+    public static Iterator<?> iterator(Object source) {
+        if (source instanceof Iterable)
+            return ((Iterable<?>) source).iterator();
+        if (source instanceof Map)
+            return ((Map<?, ?>) source).keySet()
+                                       .iterator();
+        if (source instanceof Object[])
+            return Arrays.asList((Object[]) source)
+                         .iterator();
+        if (TypedArrays.isTypedArray(source))
+            return TypedArrays.iterator(source);
+        if (source instanceof CharSequence)
+            return characters((CharSequence) source);
+        throw new IllegalArgumentException("Cannot iterate over " +
+                (source == null ? "null" : source.getClass()
+                                                 .getName()));
+    }
+
+    // the characters of a string, or of a slice of one, as one character strings
+    private static Iterator<String> characters(CharSequence string) {
+        return new Iterator<String>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < string.length();
+            }
+
+            @Override
+            public String next() {
+                if (index >= string.length())
+                    throw new NoSuchElementException();
+                return String.valueOf(string.charAt(index++));
+            }
+        };
+    }
+
+    public static int sizeHint(Object source) {
+        if (source instanceof DList)
+            return ((DList) source).size();
+        if (source instanceof DMap)
+            return ((DMap) source).size();
+        if (source instanceof DSet)
+            return ((DSet) source).size();
+        if (source instanceof DLink)
+            return ((DLink) source).size();
+        if (source instanceof Collection)
+            return ((Collection<?>) source).size();
+        if (source instanceof Map)
+            return ((Map<?, ?>) source).size();
+        if (TypedArrays.isTypedArray(source))
+            return TypedArrays.length(source);
+        if (source instanceof CharSequence)
+            return ((CharSequence) source).length();
+        return 0;
+    }
+
+    public static int toIndex(Object value) {
+        if (value instanceof Integer)
+            return (Integer) value;
+        if (value instanceof Number)
+            return Math.toIntExact(((Number) value).longValue());
+        throw new IllegalArgumentException("Expected an integer but got " + value);
+    }
+}
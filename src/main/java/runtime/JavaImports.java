@@ -30,51 +30,52 @@
 package runtime;
 
 import library.DObject;
-import library.base.CFunc;
-import library.base.CObject;
-import library.io.BasicIO;
 import runtime.imports.JavaModulePath;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static runtime.LibraryDObjectGenerator.generate;
 
+// The library objects of a runtime: the standard library's, generated when
+// first used, and those of the Java modules its programs import.
 public final class JavaImports {
-    private static Map<JavaModulePath, DObject> map = new HashMap<>();
-    private static final Map<String, DObject> DEFAULT_IMPORTS;
-    private static final Map<JavaModulePath, String> DEFAULT_MODULE_PATHS;
+    private final CafeRuntime runtime;
+    private final Map<JavaModulePath, DObject> map = new ConcurrentHashMap<>();
+    private final Map<String, DObject> defaultImports = new ConcurrentHashMap<>();
 
-    static {
-        DEFAULT_IMPORTS = new HashMap<String, DObject>() {{
-            put("Object", generate(CObject.class));
-            put("Function", generate(CFunc.class));
-            put("cmd", generate(BasicIO.class));
-        }};
-
-        DEFAULT_MODULE_PATHS = new HashMap<JavaModulePath, String>() {{
-            put(new JavaModulePath("library.base.CObject", CObject.class), "Object");
-            put(new JavaModulePath("library.base.CFunc", CFunc.class), "Function");
-            put(new JavaModulePath("library.io.BasicIO", BasicIO.class), "cmd");
-        }};
+    JavaImports(CafeRuntime runtime) {
+        this.runtime = runtime;
     }
 
-    public static DObject getObject(JavaModulePath path) {
+    public DObject getObject(JavaModulePath path) {
         DObject object = map.get(path);
         if (object == null) {
-            String name = DEFAULT_MODULE_PATHS.get(path);
-            object = DEFAULT_IMPORTS.get(name);
+            String name = StandardLib.nameOf(path.getModule());
+            object = name == null ? null : getDefaultImport(name);
+        }
+        return object;
+    }
+
+    public DObject getDefaultImport(String name) {
+        DObject object = defaultImports.get(name);
+        if (object == null) {
+            Class<?> library = StandardLib.search(name);
+            if (library == null)
+                return null;
+            object = defaultImports.computeIfAbsent(name, n -> generate(runtime, library));
         }
         return object;
     }
 
-    public static DObject getDefaultImport(String name) {
-        return DEFAULT_IMPORTS.get(name);
+    public DObject getReceiverLibrary(Class<?> clazz) {
+        String name = StandardLib.receiverLibrary(clazz);
+        return name == null ? null : getDefaultImport(name);
     }
 
-    public static void add(JavaModulePath path, Class<?> module) {
-        if (DEFAULT_MODULE_PATHS.containsKey(path))
+    public void add(JavaModulePath path, Class<?> module) {
+        if (StandardLib.nameOf(module) != null)
             return;
-        map.put(path, generate(module));
+        map.computeIfAbsent(path, p -> generate(runtime, module));
     }
 }
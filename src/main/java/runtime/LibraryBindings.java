@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+// The public static methods and fields of a library class, the members its
+// library object is made of. They come from the class's binding class,
+// <library>$Bindings, written by the build (see
+// compiler.gen.LibraryBindingGenerator), whose methods return them as
+// constants. Without one, as when running classes the build did not
+// process, the library class is reflected over.
+public final class LibraryBindings {
+    public static final String SUFFIX = "$Bindings";
+    public static final String METHODS = "methods";
+    public static final String FIELDS = "fields";
+
+    private final Map<String, MethodHandle> methods = new LinkedHashMap<>();
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    private LibraryBindings() {
+    }
+
+    public static LibraryBindings of(Class<?> library) {
+        LibraryBindings bindings = new LibraryBindings();
+        Class<?> generated;
+        try {
+            generated = Class.forName(library.getName() + SUFFIX, true, library.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            bindings.reflect(library);
+            return bindings;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Object[] methods = (Object[]) lookup.findStatic(generated, METHODS, methodType(Object[].class))
+                                                .invoke();
+            for (int i = 0; i < methods.length; i += 2)
+                bindings.methods.put((String) methods[i], (MethodHandle) methods[i + 1]);
+            Object[] fields = (Object[]) lookup.findStatic(generated, FIELDS, methodType(Object[].class))
+                                               .invoke();
+            for (int i = 0; i < fields.length; i += 2)
+                bindings.fields.put((String) fields[i], fields[i + 1]);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Invalid bindings for " + library.getName(), t);
+        }
+        return bindings;
+    }
+
+    private void reflect(Class<?> library) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method method : library.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && Modifier.isStatic(method.getModifiers())) {
+                try {
+                    methods.put(method.getName(), lookup.unreflect(method));
+                } catch (IllegalAccessException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        for (Field field : library.getDeclaredFields()) {
+            if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())) {
+                try {
+                    fields.put(field.getName(), field.get(null));
+                } catch (IllegalAccessException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public Map<String, MethodHandle> getMethods() {
+        return methods;
+    }
+
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
@@ -30,42 +30,46 @@
 package runtime;
 
 import library.DObject;
+import library.DRope;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
+import java.util.Map;
 
-public class LibraryDObjectGenerator {
+import static java.lang.invoke.MethodType.methodType;
 
-    public static DObject generate(Class<?> clazz) {
-        DObject object = new DObject();
-        Method[] methods = clazz.getDeclaredMethods();
-        MethodHandles.Lookup lookup = MethodHandles.lookup();
-        for (Method method : methods) {
-            if (Modifier.isPublic(method.getModifiers()) && Modifier.isStatic(method.getModifiers())) {
-                try {
-                    MethodHandle mh = lookup.unreflect(method);
-                    object.define(method.getName(), (DFuncCreator.create(mh)));
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+public class LibraryDObjectGenerator {
+    private static final MethodHandle FLATTEN;
 
-        Field[] fields = clazz.getDeclaredFields();
-        for (Field field : fields) {
-            if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())) {
-                try {
-                    Object o = field.get(null);
-                    object.define(field.getName(), o);
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-            }
+    static {
+        try {
+            FLATTEN = MethodHandles.lookup()
+                                   .findStatic(DRope.class, "flatten", methodType(String.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new Error("Could not bootstrap the required method handles", e);
         }
+    }
 
+    public static DObject generate(CafeRuntime runtime, Class<?> clazz) {
+        DObject object = new DObject();
+        LibraryBindings bindings = LibraryBindings.of(clazz);
+        for (Map.Entry<String, MethodHandle> method : bindings.getMethods()
+                                                              .entrySet())
+            object.define(method.getKey(), DFuncCreator.create(runtime, flattenStrings(method.getValue())));
+        for (Map.Entry<String, Object> field : bindings.getFields()
+                                                       .entrySet())
+            object.define(field.getKey(), field.getValue());
         return object;
     }
+
+    // Cafe strings may be ropes, which are flattened when handed to a String parameter
+    private static MethodHandle flattenStrings(MethodHandle handle) {
+        Class<?>[] parameters = handle.type()
+                                      .parameterArray();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == String.class)
+                handle = MethodHandles.filterArguments(handle, i, FLATTEN);
+        }
+        return handle;
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+// The main class of a jar written by the link command. The jar holds the
+// program's modules under MODULE_DIRECTORY, their import paths already
+// resolved to the modules' names there, an index of the modules and their
+// initialization order; running it neither searches for modules nor builds
+// an import graph.
+public final class LinkedProgram {
+    public static final String MAIN_ATTRIBUTE = "Cafe-Main";
+    public static final String MODULE_DIRECTORY = "modules/";
+    public static final String MODULE_INDEX = "META-INF/cafe/modules";
+    public static final String INIT_ORDER = "META-INF/cafe/init-order";
+
+    private LinkedProgram() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        Path jar = Paths.get(LinkedProgram.class.getProtectionDomain()
+                                                .getCodeSource()
+                                                .getLocation()
+                                                .toURI());
+        run(jar);
+    }
+
+    public static void run(Path jar) throws Throwable {
+        String main;
+        List<String> modules;
+        List<String> order;
+        try (JarFile file = new JarFile(jar.toFile())) {
+            main = file.getManifest()
+                       .getMainAttributes()
+                       .getValue(MAIN_ATTRIBUTE);
+            modules = lines(file, MODULE_INDEX);
+            order = lines(file, INIT_ORDER);
+        }
+        if (main == null)
+            throw new IllegalStateException(String.format("%s is not a linked Cafe program", jar));
+        new CafeRuntime(Collections.singletonList(jar.toString())).run(main, modules, order);
+    }
+
+    private static List<String> lines(JarFile file, String name) throws IOException {
+        List<String> lines = new ArrayList<>();
+        ZipEntry entry = file.getEntry(name);
+        if (entry == null)
+            return lines;
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(file.getInputStream(entry), StandardCharsets.UTF_8))) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (!line.isEmpty())
+                    lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
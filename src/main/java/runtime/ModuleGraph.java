@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import runtime.ImportEvaluator.CyclicDependencyException;
+import runtime.imports.CafeModulePath;
+import runtime.imports.ImportPathVisitor;
+import runtime.imports.JavaModulePath;
+import runtime.imports.ModulePath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+// The import graph of a program, built from the modules' #imports tables
+// before any of them runs. Modules are loaded a level of the graph at a time,
+// in parallel. Each module's #init is then scheduled on a fork-join pool once
+// the modules it imports have finished theirs, so independent subtrees
+// initialize concurrently; the root, the main module or a lazily imported
+// one, runs last on the calling thread.
+//
+// A module is initialized once per runtime: a graph claims each module it
+// will run, and waits for the ones another graph has claimed already.
+//
+// The cafe.init.parallelism system property sets the pool size, 1 gives a
+// sequential, dependencies first initialization.
+final class ModuleGraph implements ImportPathVisitor {
+    private static final String PARALLELISM_PROPERTY = "cafe.init.parallelism";
+
+    private static ForkJoinPool pool;
+
+    private final class Node {
+        final ModulePath path;
+        Class<?> module;
+        ReferenceTable imports;
+        final List<Node> dependencies = new ArrayList<>();
+        CompletableFuture<Void> initialized;
+        // initialized by another graph
+        boolean external;
+
+        Node(ModulePath path, Class<?> module) {
+            this.path = path;
+            this.module = module;
+        }
+
+        void load() {
+            try {
+                module = ((CafeModulePath) path).load();
+            } catch (ClassNotFoundException e) {
+                throw new CompletionException(e);
+            }
+            imports = runtime.getImportEvaluator()
+                             .imports(module);
+        }
+    }
+
+    private final CafeRuntime runtime;
+    private final Node root;
+    private final Map<ModulePath, Node> nodes = new LinkedHashMap<>();
+
+    // state of the level being expanded
+    private Node expanding;
+    private List<Node> discovered;
+
+    private ModuleGraph(CafeRuntime runtime, ModulePath path, Class<?> module) {
+        this.runtime = runtime;
+        this.root = new Node(path, module);
+        if (path != null)
+            nodes.put(path, root);
+    }
+
+    // initializes a program from its main module
+    static void initialize(CafeRuntime runtime, Class<?> module) throws Throwable {
+        ModuleGraph graph = new ModuleGraph(runtime, null, module);
+        graph.root.imports = runtime.getImportEvaluator()
+                                    .imports(module);
+        graph.root.initialized = new CompletableFuture<>();
+        graph.run();
+    }
+
+    // initializes an imported module, unless it was already
+    static void initialize(CafeRuntime runtime, CafeModulePath path) throws Throwable {
+        CompletableFuture<Void> initialization = new CompletableFuture<>();
+        CompletableFuture<Void> existing = runtime.getImportEvaluator()
+                                                  .claim(path, initialization);
+        if (existing != null) {
+            await(runtime, path, existing);
+            return;
+        }
+        ModuleGraph graph = new ModuleGraph(runtime, path, null);
+        graph.root.initialized = initialization;
+        graph.run();
+    }
+
+    // runs the reloaded class of a module, once the modules it imports are
+    // initialized: those it did not import before are, the others were
+    static void reload(CafeRuntime runtime, CafeModulePath path, Class<?> module) throws Throwable {
+        ModuleGraph graph = new ModuleGraph(runtime, path, module);
+        graph.root.imports = runtime.getImportEvaluator()
+                                    .imports(module);
+        graph.root.initialized = new CompletableFuture<>();
+        graph.run();
+    }
+
+    // initializes a linked program: the linker ordered its modules,
+    // dependencies first, so no graph is built and they run in that order
+    static void initialize(CafeRuntime runtime, List<CafeModulePath> order, Class<?> main) throws Throwable {
+        ImportEvaluator evaluator = runtime.getImportEvaluator();
+        for (CafeModulePath path : order) {
+            CompletableFuture<Void> initialization = new CompletableFuture<>();
+            CompletableFuture<Void> existing = evaluator.claim(path, initialization);
+            if (existing != null) {
+                await(runtime, path, existing);
+                continue;
+            }
+            try {
+                Class<?> module = path.load();
+                addJavaImports(runtime, evaluator.imports(module));
+                evaluator.run(path, module);
+                initialization.complete(null);
+            } catch (Throwable t) {
+                initialization.completeExceptionally(t);
+                throw t;
+            }
+        }
+        addJavaImports(runtime, evaluator.imports(main));
+        evaluator.run(null, main);
+    }
+
+    private static void addJavaImports(CafeRuntime runtime, ReferenceTable imports) {
+        for (ModulePath path : imports.getImportPaths(runtime.getModuleRegistry())) {
+            if (path instanceof JavaModulePath)
+                runtime.getJavaImports()
+                       .add((JavaModulePath) path, path.getModule());
+        }
+    }
+
+    private void run() throws Throwable {
+        try {
+            if (root.module == null)
+                root.load();
+            List<Node> level = new ArrayList<>();
+            level.add(root);
+            while (!level.isEmpty())
+                level = expand(level);
+
+            List<Node> order = new ArrayList<>();
+            sort(root, new HashMap<>(), order);
+
+            for (Node node : order) {
+                if (node != root)
+                    schedule(node);
+            }
+            for (Node dependency : root.dependencies)
+                await(runtime, dependency.path, dependency.initialized);
+            runtime.getImportEvaluator()
+                   .run(root.path, root.module);
+            root.initialized.complete(null);
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private List<Node> expand(List<Node> level) throws Throwable {
+        discovered = new ArrayList<>();
+        for (Node node : level) {
+            expanding = node;
+            for (ModulePath path : node.imports.getImportPaths(runtime.getModuleRegistry()))
+                path.accept(this);
+        }
+        List<Node> loading = discovered;
+        if (loading.size() == 1) {
+            loading.get(0)
+                   .load();
+        } else if (!loading.isEmpty()) {
+            try {
+                pool().submit(() -> loading.parallelStream()
+                                           .forEach(Node::load))
+                      .get();
+            } catch (ExecutionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+        return loading;
+    }
+
+    @Override
+    public void visit(CafeModulePath path) {
+        Node node = nodes.get(path);
+        if (node == null) {
+            node = new Node(path, null);
+            nodes.put(path, node);
+            CompletableFuture<Void> initialization = new CompletableFuture<>();
+            CompletableFuture<Void> existing = runtime.getImportEvaluator()
+                                                      .claim(path, initialization);
+            if (existing == null) {
+                node.initialized = initialization;
+                discovered.add(node);
+            } else {
+                node.initialized = existing;
+                node.external = true;
+            }
+        }
+        expanding.dependencies.add(node);
+    }
+
+    @Override
+    public void visit(JavaModulePath path) {
+        runtime.getJavaImports()
+               .add(path, path.getModule());
+    }
+
+    private void schedule(Node node) {
+        dependencies(node).thenRunAsync(() -> {
+            try {
+                runtime.getImportEvaluator()
+                       .run(node.path, node.module);
+            } catch (Throwable t) {
+                throw new CompletionException(t);
+            }
+        }, pool())
+                          .whenComplete((result, t) -> {
+                              if (t == null)
+                                  node.initialized.complete(null);
+                              else
+                                  node.initialized.completeExceptionally(unwrap(t));
+                          });
+    }
+
+    private static CompletableFuture<Void> dependencies(Node node) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[node.dependencies.size()];
+        for (int i = 0; i < futures.length; i++)
+            futures[i] = node.dependencies.get(i).initialized;
+        return CompletableFuture.allOf(futures);
+    }
+
+    // a module still initializing on this thread is an import cycle through
+    // a lazy import, waiting for it would never return
+    private static void await(CafeRuntime runtime, ModulePath path, CompletableFuture<Void> initialization)
+            throws Throwable {
+        if (!initialization.isDone() && runtime.getImportEvaluator()
+                                               .isRunning(path))
+            throw new CyclicDependencyException(((CafeModulePath) path).asString());
+        try {
+            initialization.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    // modules claimed by this graph and not run fail with it, so that nobody
+    // waits for them
+    private void fail(Throwable t) throws Throwable {
+        t = unwrap(t);
+        for (Node node : nodes.values()) {
+            if (!node.external)
+                node.initialized.completeExceptionally(t);
+        }
+        root.initialized.completeExceptionally(t);
+        throw t;
+    }
+
+    // dependencies first order, failing on an import cycle
+    private static void sort(Node node, Map<Node, Boolean> visited, List<Node> order)
+            throws CyclicDependencyException {
+        if (node.external)
+            return;
+        Boolean done = visited.get(node);
+        if (done != null) {
+            if (!done)
+                throw new CyclicDependencyException(((CafeModulePath) node.path).asString());
+            return;
+        }
+        visited.put(node, false);
+        for (Node dependency : node.dependencies)
+            sort(dependency, visited, order);
+        visited.put(node, true);
+        order.add(node);
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null)
+            t = t.getCause();
+        return t;
+    }
+
+    private static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            int parallelism = Integer.getInteger(PARALLELISM_PROPERTY,
+                    java.lang.Runtime.getRuntime()
+                                     .availableProcessors());
+            pool = new ForkJoinPool(Math.max(parallelism, 1));
+        }
+        return pool;
+    }
+}
@@ -35,89 +35,45 @@ import library.base.CFuncProto;
 import library.base.CObjectProto;
 
 import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.HashMap;
 import java.util.Map;
 
 public class ProtoGenerator {
-    private static DObject OBJECTPROTO;
-    private static String objectproto = "CObjectProto";
-
-    private static DObject FUNCPROTO;
-    private static String funcproto = "CFuncProto";
 
     private ProtoGenerator() {
     }
 
     private static DObject generate(Class<?> clazz) {
         DObject object = new DObject();
-        Method[] methods = clazz.getDeclaredMethods();
-        MethodHandles.Lookup lookup = MethodHandles.lookup();
-        for (Method method : methods) {
-            if (Modifier.isPublic(method.getModifiers()) && Modifier.isStatic(method.getModifiers())) {
-                try {
-                    MethodHandle mh = lookup.unreflect(method);
-                    object.define(method.getName(), (new DFunc(mh)));
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-
-        Field[] fields = clazz.getDeclaredFields();
-        for (Field field : fields) {
-            if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())) {
-                try {
-                    Object o = field.get(null);
-                    object.define(field.getName(), o);
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-
+        LibraryBindings bindings = LibraryBindings.of(clazz);
+        for (Map.Entry<String, MethodHandle> method : bindings.getMethods()
+                                                              .entrySet())
+            object.define(method.getKey(), new DFunc(method.getValue()));
+        for (Map.Entry<String, Object> field : bindings.getFields()
+                                                       .entrySet())
+            object.define(field.getKey(), field.getValue());
         return object;
     }
 
-    private static void setFuncProto(DObject object) {
+    private static void setFuncProto(DObject object, DObject funcProto) {
         for (String key : object.keys()) {
             if (object.get(key) instanceof DFunc) {
                 DFunc function = (DFunc) object.get(key);
-                function.define(DObject.__PROTO__, FUNCPROTO);
+                function.define(DObject.__PROTO__, funcProto);
             }
         }
     }
 
-    private static Map<String, DObject> generate() {
-        OBJECTPROTO = generate(CObjectProto.class);
-
-        FUNCPROTO = generate(CFuncProto.class);
-        FUNCPROTO.define(DObject.__PROTO__, OBJECTPROTO);
-
-        setFuncProto(OBJECTPROTO);
-        setFuncProto(FUNCPROTO);
-
-        Map<String, DObject> map = new HashMap<>();
-        map.put("CObjectProto", OBJECTPROTO);
-        map.put("CFuncProto", FUNCPROTO);
-
-        return map;
+    // every runtime has prototypes of its own
+    static DObject generateObjectProto() {
+        return generate(CObjectProto.class);
     }
 
-    public static DObject getObjectProto() {
-        if (OBJECTPROTO == null) {
-            generate();
-        }
-        return OBJECTPROTO;
-    }
+    static DObject generateFuncProto(DObject objectProto) {
+        DObject funcProto = generate(CFuncProto.class);
+        funcProto.define(DObject.__PROTO__, objectProto);
 
-    public static DObject getFuncProto() {
-        if (FUNCPROTO == null) {
-            generate();
-        }
-        return FUNCPROTO;
+        setFuncProto(objectProto, funcProto);
+        setFuncProto(funcProto, funcProto);
+        return funcProto;
     }
 }
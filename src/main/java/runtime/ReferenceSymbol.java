@@ -33,11 +33,17 @@ public final class ReferenceSymbol {
     private String name;
     private String alias;
     private String path;
+    private boolean lazy;
 
     public ReferenceSymbol(String name, String alias, String path) {
+        this(name, alias, path, false);
+    }
+
+    public ReferenceSymbol(String name, String alias, String path, boolean lazy) {
         this.name = name;
         this.alias = alias;
         this.path = path;
+        this.lazy = lazy;
     }
 
     public String getPath() {
@@ -52,6 +58,10 @@ public final class ReferenceSymbol {
         return alias;
     }
 
+    public boolean isLazy() {
+        return lazy;
+    }
+
     public boolean hasAlias() {
         return alias != null && !alias.isEmpty();
     }
@@ -30,6 +30,7 @@
 package runtime;
 
 import runtime.imports.ModulePath;
+import runtime.imports.ModuleRegistry;
 
 import java.util.*;
 
@@ -43,11 +44,15 @@ public final class ReferenceTable {
         symbols.add(symbol);
     }
 
-    public Set<ModulePath> getImportPaths() {
+    // the modules to initialize before this one: a module imported only
+    // lazily is initialized when one of its symbols is first resolved
+    public Set<ModulePath> getImportPaths(ModuleRegistry registry) {
         Set<ModulePath> list = new HashSet<>();
         for (ReferenceSymbol symbol : symbols) {
+            if (symbol.isLazy())
+                continue;
             try {
-                list.add(ModulePath.fromPath(symbol.getPath()));
+                list.add(registry.resolve(symbol.getPath()));
             } catch (ClassNotFoundException e) {
                 e.printStackTrace();
             }
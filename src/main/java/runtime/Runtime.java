@@ -36,6 +36,7 @@ public final class Runtime {
     }
 
     public static void runtime(Class<?> module) throws Throwable {
-        new ImportEvaluator().evaluate(module);
+        CafeRuntime.of(module)
+                   .run(module);
     }
 }
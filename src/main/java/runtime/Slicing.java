@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import library.DList;
+import library.DStringView;
+
+// Support routine for `x[i:j]`.
+public final class Slicing {
+    private Slicing() {
+    }
+
+    public static Object slice(Object source, Object from, Object to) {
+        int start = Iteration.toIndex(from);
+        int end = Iteration.toIndex(to);
+        if (source instanceof DList)
+            return ((DList) source).slice(start, end);
+        if (source instanceof CharSequence)
+            return DStringView.slice((CharSequence) source, start, end);
+        throw new IllegalArgumentException("Cannot slice " +
+                (source == null ? "null" : source.getClass()
+                                                 .getName()));
+    }
+}
@@ -27,10 +27,94 @@
  * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
  */
 
+
 package runtime;
 
+import library.base.CByteArray;
+import library.base.CDoubleArray;
+import library.base.CFunc;
+import library.base.CFuncProto;
+import library.base.CIntArray;
+import library.base.CNumeric;
+import library.base.CObject;
+import library.base.CObjectProto;
+import library.base.CPersistentMap;
+import library.base.CPersistentSet;
+import library.base.CVector;
+import library.io.BasicIO;
+import library.persistent.PersistentMap;
+import library.persistent.PersistentSet;
+import library.persistent.PersistentVector;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// The standard library: the library classes every module imports by
+// default, by name, and the library providing the methods of each value
+// class. Only the classes are registered here; a runtime generates the
+// library object of one when a program first uses it (see JavaImports).
 public final class StandardLib {
-    public static Object search(String name) {
-        return null;
+    private static final Map<String, Class<?>> LIBRARIES;
+    private static final Map<Class<?>, String> NAMES;
+    // the library object providing the methods of a value class
+    private static final Map<Class<?>, String> RECEIVER_LIBRARIES;
+
+    static {
+        LIBRARIES = new HashMap<String, Class<?>>() {{
+            put("Object", CObject.class);
+            put("Function", CFunc.class);
+            put("cmd", BasicIO.class);
+            put("IntArray", CIntArray.class);
+            put("DoubleArray", CDoubleArray.class);
+            put("ByteArray", CByteArray.class);
+            put("Numeric", CNumeric.class);
+            put("Vector", CVector.class);
+            put("PersistentMap", CPersistentMap.class);
+            put("PersistentSet", CPersistentSet.class);
+        }};
+
+        NAMES = new HashMap<>();
+        for (Map.Entry<String, Class<?>> library : LIBRARIES.entrySet())
+            NAMES.put(library.getValue(), library.getKey());
+
+        RECEIVER_LIBRARIES = new HashMap<Class<?>, String>() {{
+            put(int[].class, "IntArray");
+            put(double[].class, "DoubleArray");
+            put(byte[].class, "ByteArray");
+            put(PersistentVector.class, "Vector");
+            put(PersistentVector.Transient.class, "Vector");
+            put(PersistentMap.class, "PersistentMap");
+            put(PersistentMap.Transient.class, "PersistentMap");
+            put(PersistentSet.class, "PersistentSet");
+            put(PersistentSet.Transient.class, "PersistentSet");
+        }};
+    }
+
+    private StandardLib() {
+    }
+
+    // the library class imported by default under a name, or null
+    public static Class<?> search(String name) {
+        return LIBRARIES.get(name);
+    }
+
+    // the name a library class is imported under by default, or null
+    public static String nameOf(Class<?> library) {
+        return NAMES.get(library);
+    }
+
+    public static String receiverLibrary(Class<?> clazz) {
+        return RECEIVER_LIBRARIES.get(clazz);
+    }
+
+    // every class a library object is generated from: the default imports
+    // and the prototypes (see ProtoGenerator)
+    public static Set<Class<?>> libraries() {
+        Set<Class<?>> libraries = new LinkedHashSet<>(LIBRARIES.values());
+        libraries.add(CObjectProto.class);
+        libraries.add(CFuncProto.class);
+        return libraries;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.lang.invoke.MethodType.methodType;
+
+// The int[], double[] and byte[] values behind IntArray, DoubleArray and
+// ByteArray. Elements are exchanged as Integer or Double: byte elements are
+// widened to int on load and narrowed on store.
+public final class TypedArrays {
+    private TypedArrays() {
+    }
+
+    public static boolean isTypedArray(Class<?> clazz) {
+        return clazz == int[].class || clazz == double[].class || clazz == byte[].class;
+    }
+
+    public static boolean isTypedArray(Object object) {
+        return object != null && isTypedArray(object.getClass());
+    }
+
+    // the boxed class a store can take without a conversion
+    public static Class<?> valueClass(Class<?> arrayClass) {
+        return arrayClass == double[].class ? Double.class : Integer.class;
+    }
+
+    // the XALOAD handle, (array, int)int or (array, int)double
+    public static MethodHandle getter(Class<?> arrayClass) {
+        MethodHandle getter = MethodHandles.arrayElementGetter(arrayClass);
+        if (arrayClass == byte[].class)
+            getter = getter.asType(methodType(int.class, byte[].class, int.class));
+        return getter;
+    }
+
+    // the XASTORE handle, (array, int, int)void or (array, int, double)void
+    public static MethodHandle setter(Class<?> arrayClass) {
+        MethodHandle setter = MethodHandles.arrayElementSetter(arrayClass);
+        if (arrayClass == byte[].class)
+            setter = MethodHandles.explicitCastArguments(setter,
+                    methodType(void.class, byte[].class, int.class, int.class));
+        return setter;
+    }
+
+    public static int length(Object array) {
+        if (array instanceof int[])
+            return ((int[]) array).length;
+        if (array instanceof double[])
+            return ((double[]) array).length;
+        return ((byte[]) array).length;
+    }
+
+    public static Object get(Object array, int index) {
+        if (array instanceof int[])
+            return ((int[]) array)[index];
+        if (array instanceof double[])
+            return ((double[]) array)[index];
+        return (int) ((byte[]) array)[index];
+    }
+
+    public static void set(Object array, int index, Object value) {
+        Number number = (Number) value;
+        if (array instanceof int[])
+            ((int[]) array)[index] = number.intValue();
+        else if (array instanceof double[])
+            ((double[]) array)[index] = number.doubleValue();
+        else
+            ((byte[]) array)[index] = number.byteValue();
+    }
+
+    public static Object from(Class<?> arrayClass, Object source) {
+        List<Object> values = new ArrayList<>(Iteration.sizeHint(source));
+        Iterator<?> iterator = Iteration.iterator(source);
+        while (iterator.hasNext())
+            values.add(iterator.next());
+        Object array = Array.newInstance(arrayClass.getComponentType(), values.size());
+        for (int i = 0; i < values.size(); i++)
+            set(array, i, values.get(i));
+        return array;
+    }
+
+    public static Iterator<Object> iterator(Object array) {
+        return new Iterator<Object>() {
+            private final int length = length(array);
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < length;
+            }
+
+            @Override
+            public Object next() {
+                if (index >= length)
+                    throw new NoSuchElementException();
+                return get(array, index++);
+            }
+        };
+    }
+
+    public static String toString(Object array) {
+        if (array instanceof int[])
+            return Arrays.toString((int[]) array);
+        if (array instanceof double[])
+            return Arrays.toString((double[]) array);
+        return Arrays.toString((byte[]) array);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+// Support routines for stores into annotated variables, parameters and
+// results: a dynamic value is accepted only when the annotated type can hold
+// it without losing precision.
+public final class TypedValues {
+    private TypedValues() {
+    }
+
+    public static int toInt(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).intValue();
+        throw mismatch(value, "int");
+    }
+
+    public static long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+        throw mismatch(value, "long");
+    }
+
+    public static double toDouble(Object value) {
+        if (value instanceof Double || value instanceof Float || value instanceof Long
+                || value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).doubleValue();
+        throw mismatch(value, "double");
+    }
+
+    public static boolean toBoolean(Object value) {
+        if (value instanceof Boolean)
+            return (Boolean) value;
+        throw mismatch(value, "boolean");
+    }
+
+    private static IllegalArgumentException mismatch(Object value, String type) {
+        return new IllegalArgumentException("Incompatible types: " +
+                (value == null ? "null" : value.getClass()
+                                               .getName()) + " cannot be converted to " + type);
+    }
+}
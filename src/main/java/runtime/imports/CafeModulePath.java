@@ -29,30 +29,66 @@
 
 package runtime.imports;
 
-import java.io.IOException;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Objects;
+import java.net.URL;
+import java.util.Map;
 
 public class CafeModulePath extends ModulePath {
-    private String stringPath;
-    private Path path;
+    private final String stringPath;
+    // the normalized location of the module class, as resolved by the
+    // ModuleRegistry: equality never touches the file system
+    private final String key;
+    private final String entry;
+    private final URL location;
+    private final String className;
+    private final ModuleRegistry.Root root;
 
-    public CafeModulePath(String path) {
+    CafeModulePath(String path, String key, String entry, URL location, String className, ModuleRegistry.Root root) {
         this.stringPath = path;
-        this.path = FileSystems.getDefault()
-                               .getPath(path);
-    }
-
-    public Path getPath() {
-        return path;
+        this.key = key;
+        this.entry = entry;
+        this.location = location;
+        this.className = className;
+        this.root = root;
     }
 
     public String asString() {
         return stringPath;
     }
 
+    // the directory, or the directory in a jar, holding the module class
+    public URL getLocation() {
+        return location;
+    }
+
+    // the '/' separated name of the module class file under its root
+    public String getEntry() {
+        return entry;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    // the class file of the module and those of its structs, by file name
+    public Map<String, byte[]> getClassFiles() throws ClassNotFoundException {
+        return root.loader(entry)
+                   .classFiles(className);
+    }
+
+    // the module class, from the loader shared by its directory unless the
+    // module was reloaded or its registry is reloadable
+    public Class<?> load() throws ClassNotFoundException {
+        return root.loader(entry)
+                   .loadClass(className);
+    }
+
+    // the module class read again by a new loader, which every later load
+    // uses; a previous reload's loader is left to be collected with its classes
+    public Class<?> reload() throws ClassNotFoundException {
+        return root.reload(entry)
+                   .loadClass(className);
+    }
+
     public Class<?> getModule() {
         return module;
     }
@@ -66,17 +102,11 @@ public class CafeModulePath extends ModulePath {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        CafeModulePath urlPath = (CafeModulePath) o;
-        try {
-            return Files.isSameFile(path, urlPath.path);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
-        }
+        return key.equals(((CafeModulePath) o).key);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(path);
+        return key.hashCode();
     }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.imports;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Loads the module classes of one directory, on disk or in a jar. The
+// directory is listed once, when the loader is first asked for a class, and
+// the bytes of each class file are read at most once.
+final class ModuleClassLoader extends ClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final ModuleRegistry.Root root;
+    private final String directory;
+    private final Map<String, byte[]> bytes = new ConcurrentHashMap<>();
+    private volatile Set<String> index;
+
+    ModuleClassLoader(ModuleRegistry.Root root, String directory, ClassLoader parent) {
+        super(parent);
+        this.root = root;
+        this.directory = directory;
+    }
+
+    ModuleRegistry getRegistry() {
+        return root.registry;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] b = classBytes(name);
+        if (b == null)
+            throw new ClassNotFoundException(name);
+        return defineClass(name, b, 0, b.length);
+    }
+
+    byte[] classBytes(String name) throws ClassNotFoundException {
+        String file = name + ".class";
+        if (!index().contains(file))
+            return null;
+        try {
+            return bytes.computeIfAbsent(file, f -> {
+                try {
+                    return root.read(directory + f);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw new ClassNotFoundException(name, e.getCause());
+        }
+    }
+
+    Map<String, byte[]> classFiles(String className) throws ClassNotFoundException {
+        Map<String, byte[]> files = new TreeMap<>();
+        for (String file : index()) {
+            if (file.equals(className + ".class") || file.startsWith(className + "$")) {
+                String name = file.substring(0, file.length() - ".class".length());
+                files.put(file, classBytes(name));
+            }
+        }
+        return files;
+    }
+
+    private Set<String> index() throws ClassNotFoundException {
+        Set<String> files = index;
+        if (files == null) {
+            synchronized (this) {
+                files = index;
+                if (files == null) {
+                    try {
+                        List<String> names = root.list(directory);
+                        files = Collections.unmodifiableSet(new HashSet<>(names));
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(directory, e);
+                    }
+                    index = files;
+                }
+            }
+        }
+        return files;
+    }
+}
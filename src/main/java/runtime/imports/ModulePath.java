@@ -29,8 +29,6 @@
 
 package runtime.imports;
 
-import java.io.File;
-
 public abstract class ModulePath {
     Class<?> module;
 
@@ -42,18 +40,6 @@ public abstract class ModulePath {
         this.module = module;
     }
 
-    public static ModulePath fromPath(String path) throws ClassNotFoundException {
-        File f = new File(path + ".class");
-        if (!f.exists()) {
-            path = path.replaceAll("/", ".")
-                       .trim();
-            path = "library." + path;
-            return new JavaModulePath(path, Class.forName(path));
-        } else {
-            return new CafeModulePath(path);
-        }
-    }
-
     public abstract void accept(ImportPathVisitor v);
 
     public abstract boolean equals(Object o);
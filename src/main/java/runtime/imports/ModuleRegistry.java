@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.imports;
+
+import runtime.CafeRuntime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Resolves import paths to modules. Each import string is looked up once
+// against the module search path, a list of directories and jars, and the
+// resulting ModulePath is cached; the file system is not consulted again.
+// Modules are loaded by one ModuleClassLoader per module directory, shared by
+// every module in it. A reloaded module gets a loader of its own, replaced on
+// each reload, so that its later versions can be collected; its first version
+// stays with the shared loader for as long as the runtime. A registry made
+// reloadable before it loads any module gives every module a loader of its
+// own from the start, so that no version outlives its replacement.
+//
+// The search path defaults to the working directory and can be set with the
+// cafe.module.path system property or by the run command's classpath.
+//
+// Every runtime has a registry, and class loaders, of its own: the classes of
+// a module loaded by two runtimes are distinct and share no static state.
+public final class ModuleRegistry {
+    public static final String SEARCH_PATH_PROPERTY = "cafe.module.path";
+
+    private final CafeRuntime runtime;
+    private final Map<String, ModulePath> modules = new ConcurrentHashMap<>();
+    private volatile List<Root> searchPath;
+    private volatile boolean reloadable;
+
+    public ModuleRegistry(CafeRuntime runtime, List<String> entries) {
+        this.runtime = runtime;
+        setSearchPath(entries);
+    }
+
+    // the registry which loaded a module class, null for other classes
+    public static ModuleRegistry of(Class<?> module) {
+        ClassLoader loader = module.getClassLoader();
+        if (loader instanceof ModuleClassLoader)
+            return ((ModuleClassLoader) loader).getRegistry();
+        return null;
+    }
+
+    public CafeRuntime getRuntime() {
+        return runtime;
+    }
+
+    public void setSearchPath(List<String> entries) {
+        searchPath = roots(entries.isEmpty() ? defaultSearchPath() : entries);
+        modules.clear();
+    }
+
+    public void setReloadable(boolean reloadable) {
+        this.reloadable = reloadable;
+    }
+
+    public boolean isReloadable() {
+        return reloadable;
+    }
+
+    public List<Path> getSearchPath() {
+        List<Path> paths = new ArrayList<>();
+        for (Root root : searchPath)
+            paths.add(root.path);
+        return paths;
+    }
+
+    public ModulePath resolve(String importPath) throws ClassNotFoundException {
+        ModulePath module = modules.get(importPath);
+        if (module == null) {
+            module = lookup(importPath);
+            ModulePath previous = modules.putIfAbsent(importPath, module);
+            if (previous != null)
+                module = previous;
+        }
+        return module;
+    }
+
+    // registers the modules of a program linked into the first root of the
+    // search path, named by their entries: they are never searched for
+    public void register(List<String> names) {
+        Root root = searchPath.get(0);
+        for (String name : names)
+            modules.put(name, root.module(name, name + ".class"));
+    }
+
+    private ModulePath lookup(String importPath) throws ClassNotFoundException {
+        String entry = entryName(importPath);
+        if (new File(importPath).isAbsolute()) {
+            Path file = Paths.get(importPath + ".class");
+            if (Files.isRegularFile(file))
+                return new DirectoryRoot(this, file.getParent()).module(importPath, file.getFileName()
+                                                                                  .toString());
+        } else {
+            for (Root root : searchPath) {
+                if (root.contains(entry))
+                    return root.module(importPath, entry);
+            }
+        }
+        return JavaModulePath.fromPath(importPath);
+    }
+
+    // the normalized, '/' separated name of the module class file under a root
+    private static String entryName(String importPath) {
+        String entry = Paths.get(importPath.trim())
+                            .normalize()
+                            .toString()
+                            .replace(File.separatorChar, '/');
+        return entry + ".class";
+    }
+
+    private static List<String> defaultSearchPath() {
+        String property = System.getProperty(SEARCH_PATH_PROPERTY);
+        if (property == null || property.isEmpty())
+            return Collections.singletonList(".");
+        List<String> entries = new ArrayList<>();
+        Collections.addAll(entries, property.split(File.pathSeparator));
+        return entries;
+    }
+
+    private List<Root> roots(List<String> entries) {
+        List<Root> roots = new ArrayList<>();
+        for (String entry : entries) {
+            Path path = Paths.get(entry);
+            if (Files.isDirectory(path))
+                roots.add(new DirectoryRoot(this, path));
+            else if (Files.isRegularFile(path))
+                roots.add(new JarRoot(this, path));
+        }
+        return roots;
+    }
+
+    private static Path canonical(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath()
+                       .normalize();
+        }
+    }
+
+    abstract static class Root {
+        final ModuleRegistry registry;
+        final Path path;
+        private final Map<String, ModuleClassLoader> loaders = new ConcurrentHashMap<>();
+        // by entry, the loaders of the modules which have one of their own
+        private final Map<String, ModuleClassLoader> reloaded = new ConcurrentHashMap<>();
+
+        Root(ModuleRegistry registry, Path path) {
+            this.registry = registry;
+            this.path = canonical(path);
+        }
+
+        abstract boolean contains(String entry);
+
+        // the names of the class files directly in a directory of the root
+        abstract List<String> list(String directory) throws IOException;
+
+        abstract byte[] read(String entry) throws IOException;
+
+        abstract URL location(String directory) throws MalformedURLException;
+
+        abstract String key(String entry);
+
+        // the loader of the module class file at an entry
+        ModuleClassLoader loader(String entry) {
+            ModuleClassLoader loader = reloaded.get(entry);
+            if (loader != null)
+                return loader;
+            if (registry.isReloadable())
+                return reloaded.computeIfAbsent(entry, e -> newLoader(directory(e)));
+            return loaders.computeIfAbsent(directory(entry), this::newLoader);
+        }
+
+        // a new loader for one module, which lists its directory and reads
+        // its class files again
+        ModuleClassLoader reload(String entry) {
+            ModuleClassLoader loader = newLoader(directory(entry));
+            reloaded.put(entry, loader);
+            return loader;
+        }
+
+        private ModuleClassLoader newLoader(String directory) {
+            return new ModuleClassLoader(this, directory, ModuleRegistry.class.getClassLoader());
+        }
+
+        private static String directory(String entry) {
+            return entry.substring(0, entry.lastIndexOf('/') + 1);
+        }
+
+        CafeModulePath module(String importPath, String entry) {
+            String directory = directory(entry);
+            String className = entry.substring(directory.length(), entry.length() - ".class".length());
+            try {
+                return new CafeModulePath(importPath, key(entry), entry, location(directory), className, this);
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class DirectoryRoot extends Root {
+        DirectoryRoot(ModuleRegistry registry, Path path) {
+            super(registry, path);
+        }
+
+        @Override
+        boolean contains(String entry) {
+            return Files.isRegularFile(path.resolve(entry));
+        }
+
+        @Override
+        List<String> list(String directory) throws IOException {
+            List<String> names = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(path.resolve(directory), "*.class")) {
+                for (Path file : files)
+                    names.add(file.getFileName()
+                                  .toString());
+            }
+            return names;
+        }
+
+        @Override
+        byte[] read(String entry) throws IOException {
+            return Files.readAllBytes(path.resolve(entry));
+        }
+
+        @Override
+        URL location(String directory) throws MalformedURLException {
+            return path.resolve(directory)
+                       .toUri()
+                       .toURL();
+        }
+
+        @Override
+        String key(String entry) {
+            return path.resolve(entry)
+                       .toString();
+        }
+    }
+
+    // a jar is indexed once, on its first lookup, and stays open for reads
+    private static final class JarRoot extends Root {
+        private ZipFile jar;
+        private Set<String> entries;
+
+        JarRoot(ModuleRegistry registry, Path path) {
+            super(registry, path);
+        }
+
+        private synchronized Set<String> entries() {
+            if (entries == null) {
+                entries = new HashSet<>();
+                try {
+                    jar = new ZipFile(path.toFile());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                Enumeration<? extends ZipEntry> e = jar.entries();
+                while (e.hasMoreElements())
+                    entries.add(e.nextElement()
+                                 .getName());
+            }
+            return entries;
+        }
+
+        @Override
+        boolean contains(String entry) {
+            return entries().contains(entry);
+        }
+
+        @Override
+        List<String> list(String directory) {
+            List<String> names = new ArrayList<>();
+            for (String entry : entries()) {
+                if (entry.startsWith(directory) && entry.endsWith(".class")
+                        && entry.indexOf('/', directory.length()) < 0)
+                    names.add(entry.substring(directory.length()));
+            }
+            return names;
+        }
+
+        @Override
+        synchronized byte[] read(String entry) throws IOException {
+            ZipEntry zipEntry = jar.getEntry(entry);
+            try (InputStream in = jar.getInputStream(zipEntry)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.max(zipEntry.getSize(), 0));
+                byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n > 0; n = in.read(buffer))
+                    out.write(buffer, 0, n);
+                return out.toByteArray();
+            }
+        }
+
+        @Override
+        URL location(String directory) throws MalformedURLException {
+            return new URL("jar:" + path.toUri() + "!/" + directory);
+        }
+
+        @Override
+        String key(String entry) {
+            return path + "!/" + entry;
+        }
+    }
+}
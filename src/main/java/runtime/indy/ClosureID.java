@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.indy;
+
+import library.DFunc;
+import library.DObject;
+import runtime.CafeRuntime;
+import runtime.DFuncCreator;
+
+import java.lang.invoke.*;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.lang.invoke.MethodType.methodType;
+
+// Creates functions which capture variables of their enclosing function.
+// The captured values are bound as the leading arguments of the synthetic
+// method, right after `this`.
+public final class ClosureID {
+    private static final MethodHandle CREATE;
+
+    static {
+        try {
+            CREATE = MethodHandles.lookup()
+                                  .findStatic(ClosureID.class, "create",
+                                          methodType(DFunc.class, CafeRuntime.class, MethodHandle.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new Error("Could not bootstrap the required method handles", e);
+        }
+    }
+
+    // the synthetic method is a private member of the calling module class
+    public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type, int arity, int varargs) throws Throwable {
+        Class<?> module = caller.lookupClass();
+        MethodType functionType = genericMethodType(arity, varargs == 1).changeParameterType(0, DObject.class);
+        MethodHandle target = caller.findStatic(module, name, functionType);
+        return new ConstantCallSite(MethodHandles.insertArguments(CREATE, 0, CafeRuntime.of(module), target)
+                                          .asCollector(Object[].class, type.parameterCount())
+                                          .asType(type));
+    }
+
+    public static DFunc create(CafeRuntime runtime, MethodHandle target, Object[] captures) {
+        MethodHandle function = MethodHandles.insertArguments(target, 1, captures);
+        if (target.isVarargsCollector())
+            function = function.asVarargsCollector(Object[].class);
+        return DFuncCreator.create(runtime, function);
+    }
+}
@@ -31,28 +31,47 @@ package runtime.indy;
 
 import library.DFunc;
 import library.DObject;
+import runtime.CafeRuntime;
 import runtime.DFuncCreator;
 
 import java.lang.invoke.CallSite;
 import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.invoke.MethodHandles.constant;
 import static java.lang.invoke.MethodType.genericMethodType;
 
+// A reference to a module function. Each function gets one DFunc, kept in a
+// table per module class and shared by all the sites referencing it, so a
+// function value is always the same object.
 public final class FunctionReferenceID {
+    private static final ClassValue<Map<String, DFunc>> FUNCTIONS = new ClassValue<Map<String, DFunc>>() {
+        @Override
+        protected Map<String, DFunc> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type, String moduleClass, int arity, int varargs) throws Throwable {
-        Class<?> module = caller.lookupClass()
-                                .getClassLoader()
-                                .loadClass(moduleClass);
-        Method function = module.getDeclaredMethod(name, genericMethodType(arity, varargs == 1)
-                .changeParameterType(0, DObject.class)
-                .parameterArray());
-        function.setAccessible(true);
-        return new ConstantCallSite(constant(
-                DFunc.class,
-                DFuncCreator.create(caller.unreflect(function))));
+        Class<?> module = caller.lookupClass();
+        if (!module.getName()
+                   .equals(moduleClass))
+            module = module.getClassLoader()
+                           .loadClass(moduleClass);
+        MethodType functionType = genericMethodType(arity, varargs == 1).changeParameterType(0, DObject.class);
+        String key = name + functionType.toMethodDescriptorString();
+
+        Map<String, DFunc> functions = FUNCTIONS.get(module);
+        DFunc function = functions.get(key);
+        if (function == null) {
+            DFunc created = DFuncCreator.create(CafeRuntime.of(module), caller.findStatic(module, name, functionType));
+            function = functions.putIfAbsent(key, created);
+            if (function == null)
+                function = created;
+        }
+        return new ConstantCallSite(constant(DFunc.class, function));
     }
 }
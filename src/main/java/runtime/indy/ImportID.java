@@ -37,13 +37,11 @@ import runtime.imports.JavaModulePath;
 import runtime.imports.ModulePath;
 
 import java.lang.invoke.*;
-import java.util.Map;
 
 import static java.lang.invoke.MethodType.methodType;
 
 public final class ImportID {
     private static final MethodHandle FALLBACK;
-    private static final ImportResolver RESOLVER;
 
     static {
         try {
@@ -52,7 +50,6 @@ public final class ImportID {
                     ImportID.class,
                     "fallback",
                     methodType(Object.class, ImportCallSite.class));
-            RESOLVER = new ImportResolver();
         } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new Error("Could not bootstrap the required method handles", e);
         }
@@ -89,7 +86,9 @@ public final class ImportID {
         Class<?> callerClass = caller.lookupClass();
 
         //Object obj = Imports.searchFromImports(callerClass, callSite.name, -1);
-        Object obj = RESOLVER.searchFromImports(callSite.name);
+        // modules initialize concurrently, so each lookup gets its own resolver
+        ImportResolver resolver = new ImportResolver(callerClass);
+        Object obj = resolver.searchFromImports(callSite.name);
         if (obj != null) {
 //            if (obj instanceof Method) {
 //                Method method = (Method) obj;
@@ -97,6 +96,13 @@ public final class ImportID {
 //                Function function = new Function(handle);
 //                return function;
 //            }
+            // an import resolves to the same value until its module is reloaded
+            MethodHandle target = MethodHandles.constant(Object.class, obj)
+                                               .asType(callSite.type());
+            if (resolver.version != null)
+                target = resolver.version.guardWithTest(target, FALLBACK.bindTo(callSite)
+                                                                        .asType(callSite.type()));
+            callSite.setTarget(target);
             return obj;
         }
 
@@ -105,26 +111,30 @@ public final class ImportID {
     }
 
 
+    // resolves the imports of a module against the runtime which loaded it
     private static class ImportResolver implements ImportPathVisitor {
         private ReferenceSymbol symbol;
         private Object object = null;
-        private ReferenceTable importTable;
-        private Map<ModulePath, ExportMap> exportTable;
-
-        public void init() {
-            importTable = ImportEvaluator.getImportTable();
-            exportTable = ImportEvaluator.getExportTable();
-            object = null;
+        // of the module the import resolved to, if it can be reloaded
+        private SwitchPoint version;
+        private final CafeRuntime runtime;
+        private final ReferenceTable importTable;
+
+        ImportResolver(Class<?> module) {
+            runtime = CafeRuntime.of(module);
+            importTable = runtime.getImportEvaluator()
+                                 .getImportTable(module);
         }
 
         public Object searchFromImports(String name) throws ClassNotFoundException {
-            init();
-            symbol = importTable.resolve(name);
+            symbol = importTable == null ? null : importTable.resolve(name);
             if (symbol == null) {
-                return JavaImports.getDefaultImport(name);
+                return runtime.getJavaImports()
+                              .getDefaultImport(name);
             }
 
-            ModulePath path = ModulePath.fromPath(symbol.getPath());
+            ModulePath path = runtime.getModuleRegistry()
+                                     .resolve(symbol.getPath());
 
             path.accept(this);
 
@@ -133,7 +143,15 @@ public final class ImportID {
 
         @Override
         public void visit(CafeModulePath path) {
-            ExportMap export = exportTable.get(path);
+            ExportMap export;
+            try {
+                version = runtime.getImportEvaluator()
+                                 .version(path);
+                export = runtime.getImportEvaluator()
+                                .require(path);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Could not initialize module " + path.asString(), t);
+            }
             if (symbol.getName()
                       .equals("*")) {
                 object = export.getAsDObject();
@@ -144,7 +162,12 @@ public final class ImportID {
 
         @Override
         public void visit(JavaModulePath path) {
-            DObject o = JavaImports.getObject(path);
+            JavaImports imports = runtime.getJavaImports();
+            DObject o = imports.getObject(path);
+            if (o == null && symbol.isLazy()) {
+                imports.add(path, path.getModule());
+                o = imports.getObject(path);
+            }
             if (o == null) {
                 object = null;
             } else if (symbol.getName()
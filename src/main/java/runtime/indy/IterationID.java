@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.indy;
+
+import library.DList;
+import library.DMap;
+import runtime.Iteration;
+
+import java.lang.invoke.*;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+// Picks the iteration mode of a compiled loop (see runtime.Iteration) at the
+// loop's call site. The call site caches the mode lookup for the classes it
+// has seen, guarded by the exact source class, and falls back to the
+// generic lookup once it becomes megamorphic.
+public final class IterationID {
+    public static final String LOOP = "loop";
+    public static final String LOOP_PAIRS = "loopPairs";
+
+    private static final int MAX_DEPTH = 4;
+
+    private static final MethodHandle FALLBACK;
+    private static final MethodHandle CLASS_GUARD;
+    private static final MethodHandle GENERIC;
+    private static final MethodHandle LIST_SIZE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FALLBACK = lookup.findStatic(
+                    IterationID.class,
+                    "fallback",
+                    methodType(int.class, IterationCallSite.class, Object.class));
+            CLASS_GUARD = lookup.findStatic(
+                    IterationID.class,
+                    "classGuard",
+                    methodType(boolean.class, Class.class, Object.class));
+            GENERIC = lookup.findStatic(
+                    Iteration.class,
+                    "loopMode",
+                    methodType(int.class, Object.class, boolean.class));
+            LIST_SIZE = lookup.findVirtual(
+                    DList.class,
+                    "size",
+                    methodType(int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new Error("Could not bootstrap the required method handles", e);
+        }
+    }
+
+    static final class IterationCallSite extends MutableCallSite {
+        final boolean pairs;
+        final MethodHandle fallback;
+        int depth = 0;
+
+        IterationCallSite(MethodType type, boolean pairs) {
+            super(type);
+            this.pairs = pairs;
+            this.fallback = FALLBACK.bindTo(this)
+                                    .asType(type);
+        }
+    }
+
+    public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type) {
+        IterationCallSite callSite = new IterationCallSite(type, LOOP_PAIRS.equals(name));
+        callSite.setTarget(callSite.fallback);
+        return callSite;
+    }
+
+    public static boolean classGuard(Class<?> expected, Object source) {
+        return source != null && source.getClass() == expected;
+    }
+
+    public static int fallback(IterationCallSite callSite, Object source) {
+        // null fails once the loop asks for its iterator, without touching the chain
+        if (source == null)
+            return Iteration.ITERATOR;
+        if (callSite.depth >= MAX_DEPTH) {
+            callSite.setTarget(MethodHandles.insertArguments(GENERIC, 1, callSite.pairs)
+                                            .asType(callSite.type()));
+            return Iteration.loopMode(source, callSite.pairs);
+        }
+
+        Class<?> clazz = source.getClass();
+        MethodHandle target = modeFor(clazz, callSite.pairs).asType(callSite.type());
+        MethodHandle guard = CLASS_GUARD.bindTo(clazz)
+                                        .asType(methodType(boolean.class, callSite.type()
+                                                                                   .parameterType(0)));
+        callSite.depth++;
+        callSite.setTarget(MethodHandles.guardWithTest(guard, target, callSite.getTarget()));
+        return Iteration.loopMode(source, callSite.pairs);
+    }
+
+    private static MethodHandle modeFor(Class<?> clazz, boolean pairs) {
+        if (DList.class.isAssignableFrom(clazz))
+            return LIST_SIZE;
+        if (pairs && (DMap.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)))
+            return constant(Iteration.ENTRIES);
+        // everything else, strings and their slices included, is walked by
+        // the iterator of Iteration.loopSource
+        return constant(Iteration.ITERATOR);
+    }
+
+    private static MethodHandle constant(int mode) {
+        return MethodHandles.dropArguments(MethodHandles.constant(int.class, mode), 0, Object.class);
+    }
+}
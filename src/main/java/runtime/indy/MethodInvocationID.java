@@ -30,7 +30,10 @@
 package runtime.indy;
 
 
+import library.DFunc;
 import library.DObject;
+import runtime.CafeRuntime;
+import runtime.TypedArrays;
 
 import java.io.InvalidClassException;
 import java.lang.invoke.*;
@@ -38,7 +41,12 @@ import java.lang.invoke.*;
 import static java.lang.invoke.MethodType.methodType;
 
 public final class MethodInvocationID {
+    private static final int MAX_DEPTH = 4;
+
     private static final MethodHandle FALLBACK;
+    private static final MethodHandle RECEIVER_GUARD;
+    private static final MethodHandle VALUE_GUARD;
+    private static final MethodHandle RETURN_NULL;
 
     static {
         try {
@@ -47,6 +55,12 @@ public final class MethodInvocationID {
                     MethodInvocationID.class,
                     "fallback",
                     methodType(java.lang.Object.class, MethodCallSite.class, java.lang.Object[].class));
+            RECEIVER_GUARD = lookup.findStatic(MethodInvocationID.class, "receiverGuard",
+                    methodType(boolean.class, Class.class, java.lang.Object.class));
+            VALUE_GUARD = lookup.findStatic(MethodInvocationID.class, "valueGuard",
+                    methodType(boolean.class, Class.class, Class.class, java.lang.Object.class,
+                            java.lang.Object.class));
+            RETURN_NULL = MethodHandles.constant(java.lang.Object.class, null);
         } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new Error("Could not bootstrap the required method handles", e);
         }
@@ -54,11 +68,14 @@ public final class MethodInvocationID {
 
     static final class MethodCallSite extends MutableCallSite {
         final MethodHandles.Lookup callerLookup;
+        final CafeRuntime runtime;
         String name;
+        int depth = 0;
 
         MethodCallSite(MethodHandles.Lookup caller, String name, MethodType type) {
             super(type);
             this.callerLookup = caller;
+            this.runtime = CafeRuntime.of(caller.lookupClass());
             this.name = name;
         }
     }
@@ -96,7 +113,64 @@ public final class MethodInvocationID {
             DObject object = (DObject) args[0];
             return object.dispatchCallHandle(callSite.name, callSite.type());
         }
+        if (callSite.runtime.getJavaImports()
+                            .getReceiverLibrary(clazz) != null)
+            return linkLibraryMethod(clazz, callSite, args);
         throw new InvalidClassException(args[0].getClass()
                                                .getName(), "Expected DynamicObject");
     }
+
+    // Values without properties of their own, such as typed arrays and the
+    // persistent collections, take their methods from a library object:
+    // x.f(args) calls the library function f with x as first argument.
+    // a.get(i) and a.put(i, v) on a typed array link the XALOAD/XASTORE handles.
+    private static MethodHandle linkLibraryMethod(Class<?> clazz, MethodCallSite callSite, java.lang.Object[] args) {
+        MethodType type = callSite.type();
+        MethodHandle target;
+        MethodHandle guard = RECEIVER_GUARD.bindTo(clazz);
+        boolean typedArray = TypedArrays.isTypedArray(clazz);
+        if (typedArray && callSite.name.equals("get") && args.length == 2) {
+            target = TypedArrays.getter(clazz);
+        } else if (typedArray && callSite.name.equals("put") && args.length == 3
+                && TypedArrays.valueClass(clazz).isInstance(args[2])) {
+            target = MethodHandles.filterReturnValue(TypedArrays.setter(clazz), RETURN_NULL);
+            guard = MethodHandles.insertArguments(VALUE_GUARD, 0, clazz, TypedArrays.valueClass(clazz));
+            guard = MethodHandles.dropArguments(guard, 1, java.lang.Object.class);
+        } else {
+            DObject library = callSite.runtime.getJavaImports()
+                                              .getReceiverLibrary(clazz);
+            java.lang.Object function = library.get(callSite.name);
+            if (!(function instanceof DFunc))
+                return null;
+            target = ((DFunc) function).handle()
+                                       .bindTo(library);
+            if (target.type()
+                      .parameterCount() != type.parameterCount())
+                return null;
+        }
+
+        target = target.asType(type);
+        guard = guard.asType(type.changeReturnType(boolean.class)
+                                 .dropParameterTypes(guard.type()
+                                                          .parameterCount(), type.parameterCount()));
+        guard = MethodHandles.dropArguments(guard, guard.type()
+                                                        .parameterCount(),
+                type.dropParameterTypes(0, guard.type()
+                                                .parameterCount())
+                    .parameterList());
+        if (callSite.depth < MAX_DEPTH) {
+            callSite.depth++;
+            callSite.setTarget(MethodHandles.guardWithTest(guard, target, callSite.getTarget()));
+        }
+        return target;
+    }
+
+    public static boolean receiverGuard(Class<?> receiverClass, java.lang.Object receiver) {
+        return receiver != null && receiver.getClass() == receiverClass;
+    }
+
+    public static boolean valueGuard(Class<?> arrayClass, Class<?> valueClass,
+                                     java.lang.Object receiver, java.lang.Object value) {
+        return receiverGuard(arrayClass, receiver) && valueClass.isInstance(value);
+    }
 }
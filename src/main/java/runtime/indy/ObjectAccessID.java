@@ -31,6 +31,7 @@ package runtime.indy;
 
 
 import library.DObject;
+import library.DStruct;
 
 import java.lang.invoke.*;
 
@@ -39,6 +40,9 @@ import static java.lang.invoke.MethodType.methodType;
 public final class ObjectAccessID {
 
     private static final MethodHandle FALLBACK;
+    private static final MethodHandle IS_INSTANCE;
+    // struct classes linked at a single site before it stays on the fallback
+    private static final int MAX_LINKED_STRUCTS = 4;
 
     static {
         try {
@@ -47,6 +51,7 @@ public final class ObjectAccessID {
                     ObjectAccessID.class,
                     "fallback",
                     methodType(java.lang.Object.class, MethodCallSite.class, java.lang.Object[].class));
+            IS_INSTANCE = lookup.findVirtual(Class.class, "isInstance", methodType(boolean.class, java.lang.Object.class));
         } catch (NoSuchMethodException | IllegalAccessException e) {
             throw new Error("Could not bootstrap the required method handles", e);
         }
@@ -55,6 +60,7 @@ public final class ObjectAccessID {
     static final class MethodCallSite extends MutableCallSite {
         final MethodHandles.Lookup callerLookup;
         String name;
+        int linkedStructs = 0;
 
         MethodCallSite(MethodHandles.Lookup caller, String name, MethodType type) {
             super(type);
@@ -80,6 +86,13 @@ public final class ObjectAccessID {
 //            System.out.println("Argument "+i+"==>"+args[i]);
 //        }
         Class<?> clazz = args[0].getClass();
+        if (args[0] instanceof DStruct) {
+            MethodHandle field = DStruct.fieldHandle(clazz, callSite.name, callSite.type());
+            if (field != null) {
+                link(callSite, clazz, field);
+                return field.invokeWithArguments(args);
+            }
+        }
         MethodHandle target = lookupTarget(clazz, callSite, args);
         if (target == null)
             throw new NoSuchMethodError(clazz + "::" + callSite.name);
@@ -88,6 +101,15 @@ public final class ObjectAccessID {
         return target.invokeWithArguments(args);
     }
 
+    // fields of a struct are read and written directly while the receiver has its class
+    private static void link(MethodCallSite callSite, Class<?> clazz, MethodHandle field) {
+        if (callSite.linkedStructs >= MAX_LINKED_STRUCTS)
+            return;
+        callSite.linkedStructs++;
+        MethodHandle guard = IS_INSTANCE.bindTo(clazz);
+        callSite.setTarget(MethodHandles.guardWithTest(guard, field, callSite.getTarget()));
+    }
+
     private static MethodHandle lookupTarget(Class<?> clazz, MethodCallSite callSite, java.lang.Object[] args) {
         if (args[0] instanceof DObject) {
             DObject object = (DObject) args[0];
@@ -29,6 +29,8 @@
 
 package runtime.indy;
 
+import library.DRope;
+
 import java.lang.invoke.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -2371,7 +2373,10 @@ public final class OperatorID {
         return a == b;
     }
 
+    // only the head of an append is ever a rope, see DRope
     public static Object plus(Object a, Object b) {
+        if (a instanceof DRope)
+            return DRope.concat(a, b);
         return a.toString() + b.toString();
     }
 
@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.indy;
+
+import library.DLink;
+import library.DList;
+import library.DMap;
+import library.DObject;
+import library.DStringView;
+import library.persistent.PersistentMap;
+import library.persistent.PersistentVector;
+import runtime.Iteration;
+import runtime.TypedArrays;
+
+import java.lang.invoke.*;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+// Indexed reads `x[i]` and writes `x[i] = v`.
+//
+// The call site links a fast path for the receiver it sees, guarded by the
+// exact receiver class, the key type and, for lists, the storage strategy.
+// Guards are chained in front of the fallback, and once the call site
+// has seen MAX_DEPTH different shapes it is relinked to the generic path.
+// The primitive arrays of IntArray and friends link the array element
+// handles themselves, so a[i] compiles down to an XALOAD behind the guard.
+public final class SubscriptID {
+    public static final String GET = "get";
+    public static final String SET = "set";
+
+    private static final int MAX_DEPTH = 4;
+
+    private static final MethodHandle FALLBACK;
+
+    private static final MethodHandle CLASS_GUARD;
+    private static final MethodHandle LIST_GUARD;
+    private static final MethodHandle LIST_SET_GUARD;
+    private static final MethodHandle VALUE_GUARD;
+
+    private static final MethodHandle GET_GENERIC;
+    private static final MethodHandle GET_INT_LIST;
+    private static final MethodHandle GET_DOUBLE_LIST;
+    private static final MethodHandle GET_LIST;
+    private static final MethodHandle GET_LINK;
+    private static final MethodHandle GET_VECTOR;
+    private static final MethodHandle GET_PERSISTENT_MAP;
+    private static final MethodHandle GET_MAP;
+    private static final MethodHandle GET_CHAR;
+    private static final MethodHandle GET_PROPERTY;
+    private static final MethodHandle GET_ELEMENT;
+
+    private static final MethodHandle SET_GENERIC;
+    private static final MethodHandle SET_INT_LIST;
+    private static final MethodHandle SET_DOUBLE_LIST;
+    private static final MethodHandle SET_LIST;
+    private static final MethodHandle SET_MAP;
+    private static final MethodHandle SET_PROPERTY;
+    private static final MethodHandle SET_ELEMENT;
+
+    private static final String[] ASCII = new String[128];
+
+    static {
+        for (char c = 0; c < ASCII.length; c++)
+            ASCII[c] = String.valueOf(c);
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FALLBACK = lookup.findStatic(
+                    SubscriptID.class,
+                    "fallback",
+                    methodType(Object.class, SubscriptCallSite.class, Object[].class));
+
+            CLASS_GUARD = lookup.findStatic(SubscriptID.class, "classGuard",
+                    methodType(boolean.class, Class.class, Class.class, Object.class, Object.class));
+            LIST_GUARD = lookup.findStatic(SubscriptID.class, "listGuard",
+                    methodType(boolean.class, DList.Storage.class, Object.class, Object.class));
+            LIST_SET_GUARD = lookup.findStatic(SubscriptID.class, "listSetGuard",
+                    methodType(boolean.class, DList.Storage.class, Class.class, Object.class, Object.class,
+                            Object.class));
+            VALUE_GUARD = lookup.findStatic(SubscriptID.class, "valueGuard",
+                    methodType(boolean.class, Class.class, Class.class, Object.class, Object.class,
+                            Object.class));
+
+            MethodType get = methodType(Object.class, Object.class, Object.class);
+            GET_GENERIC = lookup.findStatic(SubscriptID.class, "get", get);
+            GET_INT_LIST = lookup.findStatic(SubscriptID.class, "getIntList", get);
+            GET_DOUBLE_LIST = lookup.findStatic(SubscriptID.class, "getDoubleList", get);
+            GET_LIST = lookup.findStatic(SubscriptID.class, "getList", get);
+            GET_LINK = lookup.findStatic(SubscriptID.class, "getLink", get);
+            GET_VECTOR = lookup.findStatic(SubscriptID.class, "getVector", get);
+            GET_PERSISTENT_MAP = lookup.findStatic(SubscriptID.class, "getPersistentMap", get);
+            GET_MAP = lookup.findStatic(SubscriptID.class, "getMap", get);
+            GET_CHAR = lookup.findStatic(SubscriptID.class, "getChar", get);
+            GET_PROPERTY = lookup.findStatic(SubscriptID.class, "getProperty", get);
+            GET_ELEMENT = lookup.findStatic(SubscriptID.class, "getElement", get);
+
+            MethodType set = methodType(void.class, Object.class, Object.class, Object.class);
+            SET_GENERIC = lookup.findStatic(SubscriptID.class, "set", set);
+            SET_INT_LIST = lookup.findStatic(SubscriptID.class, "setIntList", set);
+            SET_DOUBLE_LIST = lookup.findStatic(SubscriptID.class, "setDoubleList", set);
+            SET_LIST = lookup.findStatic(SubscriptID.class, "setList", set);
+            SET_MAP = lookup.findStatic(SubscriptID.class, "setMap", set);
+            SET_PROPERTY = lookup.findStatic(SubscriptID.class, "setProperty", set);
+            SET_ELEMENT = lookup.findStatic(SubscriptID.class, "setElement", set);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new Error("Could not bootstrap the required method handles", e);
+        }
+    }
+
+    static final class SubscriptCallSite extends MutableCallSite {
+        final boolean isSet;
+        int depth = 0;
+
+        SubscriptCallSite(String name, MethodType type) {
+            super(type);
+            this.isSet = SET.equals(name);
+        }
+    }
+
+    public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type) {
+        SubscriptCallSite callSite = new SubscriptCallSite(name, type);
+        MethodHandle fallbackHandle = FALLBACK
+                .bindTo(callSite)
+                .asCollector(Object[].class, type.parameterCount())
+                .asType(type);
+        callSite.setTarget(fallbackHandle);
+        return callSite;
+    }
+
+    public static Object fallback(SubscriptCallSite callSite, Object[] args) throws Throwable {
+        Object receiver = args[0];
+        Object key = args[1];
+
+        // null has no subscripts, it fails without touching the chain
+        if (receiver == null)
+            throw notSubscriptable(null);
+
+        MethodHandle target;
+        MethodHandle guard;
+        if (callSite.depth >= MAX_DEPTH) {
+            target = callSite.isSet ? SET_GENERIC : GET_GENERIC;
+            guard = null;
+        } else if (callSite.isSet) {
+            target = setTarget(receiver, key, args[2]);
+            guard = setGuard(receiver, key, args[2]);
+        } else {
+            target = getTarget(receiver, key);
+            guard = getGuard(receiver, key);
+        }
+
+        target = target.asType(callSite.type());
+        if (guard == null) {
+            callSite.setTarget(target);
+        } else {
+            callSite.depth++;
+            guard = guard.asType(callSite.type()
+                                         .changeReturnType(boolean.class));
+            callSite.setTarget(MethodHandles.guardWithTest(guard, target, callSite.getTarget()));
+        }
+        return target.invokeWithArguments(args);
+    }
+
+    private static MethodHandle getTarget(Object receiver, Object key) {
+        Class<?> clazz = receiver.getClass();
+        if (key instanceof Integer) {
+            if (clazz == DList.class) {
+                switch (((DList) receiver).storage()) {
+                    case INT:
+                        return GET_INT_LIST;
+                    case DOUBLE:
+                        return GET_DOUBLE_LIST;
+                    default:
+                        return GET_LIST;
+                }
+            }
+            if (clazz == DLink.class)
+                return GET_LINK;
+            if (clazz == PersistentVector.class)
+                return GET_VECTOR;
+            if (TypedArrays.isTypedArray(clazz))
+                return TypedArrays.getter(clazz);
+            if (clazz == String.class || clazz == DStringView.class)
+                return GET_CHAR;
+        }
+        if (clazz == DMap.class)
+            return GET_MAP;
+        if (clazz == PersistentMap.class)
+            return GET_PERSISTENT_MAP;
+        if (receiver instanceof DObject && !(receiver instanceof Iterable))
+            return key instanceof Integer ? GET_ELEMENT : GET_PROPERTY;
+        return GET_GENERIC;
+    }
+
+    private static MethodHandle getGuard(Object receiver, Object key) {
+        if (receiver.getClass() == DList.class && key instanceof Integer)
+            return LIST_GUARD.bindTo(((DList) receiver).storage());
+        return keyGuard(receiver, key);
+    }
+
+    private static MethodHandle setTarget(Object receiver, Object key, Object value) {
+        Class<?> clazz = receiver.getClass();
+        if (clazz == DList.class && key instanceof Integer) {
+            DList.Storage storage = ((DList) receiver).storage();
+            if (storage == DList.Storage.INT && value instanceof Integer)
+                return SET_INT_LIST;
+            if (storage == DList.Storage.DOUBLE && value instanceof Double)
+                return SET_DOUBLE_LIST;
+            return SET_LIST;
+        }
+        if (TypedArrays.isTypedArray(clazz) && key instanceof Integer
+                && TypedArrays.valueClass(clazz).isInstance(value))
+            return TypedArrays.setter(clazz);
+        if (clazz == DMap.class)
+            return SET_MAP;
+        if (receiver instanceof DObject && !(receiver instanceof Iterable))
+            return key instanceof Integer ? SET_ELEMENT : SET_PROPERTY;
+        return SET_GENERIC;
+    }
+
+    private static MethodHandle setGuard(Object receiver, Object key, Object value) {
+        if (receiver.getClass() == DList.class && key instanceof Integer) {
+            DList.Storage storage = ((DList) receiver).storage();
+            Class<?> valueClass = value == null ? Object.class : value.getClass();
+            if (storage == DList.Storage.INT && value instanceof Integer
+                    || storage == DList.Storage.DOUBLE && value instanceof Double)
+                return MethodHandles.insertArguments(LIST_SET_GUARD, 0, storage, valueClass);
+            // the general path is valid for every storage
+            return MethodHandles.dropArguments(keyGuard(receiver, key), 2, Object.class);
+        }
+        if (TypedArrays.isTypedArray(receiver) && key instanceof Integer) {
+            Class<?> valueClass = TypedArrays.valueClass(receiver.getClass());
+            if (valueClass.isInstance(value))
+                return MethodHandles.insertArguments(VALUE_GUARD, 0, receiver.getClass(), valueClass);
+        }
+        return MethodHandles.dropArguments(keyGuard(receiver, key), 2, Object.class);
+    }
+
+    // map and property lookups are guarded on the key class as well, so that a
+    // site which always sees string keys keeps its String.hashCode monomorphic.
+    private static MethodHandle keyGuard(Object receiver, Object key) {
+        Class<?> keyClass = key == null ? Object.class : key.getClass();
+        return MethodHandles.insertArguments(CLASS_GUARD, 0, receiver.getClass(), keyClass);
+    }
+
+    public static boolean classGuard(Class<?> receiverClass, Class<?> keyClass, Object receiver, Object key) {
+        return receiver != null && receiver.getClass() == receiverClass
+                && (keyClass == Object.class || keyClass.isInstance(key));
+    }
+
+    public static boolean listGuard(DList.Storage storage, Object receiver, Object key) {
+        return receiver != null && receiver.getClass() == DList.class
+                && key instanceof Integer
+                && ((DList) receiver).storage() == storage;
+    }
+
+    public static boolean listSetGuard(DList.Storage storage, Class<?> valueClass,
+                                       Object receiver, Object key, Object value) {
+        return listGuard(storage, receiver, key) && valueClass.isInstance(value);
+    }
+
+    public static boolean valueGuard(Class<?> receiverClass, Class<?> valueClass,
+                                     Object receiver, Object key, Object value) {
+        return classGuard(receiverClass, Integer.class, receiver, key) && valueClass.isInstance(value);
+    }
+
+    // fast paths
+
+    private static Object getIntList(Object list, Object index) {
+        return ((DList) list).getInt((Integer) index);
+    }
+
+    private static Object getDoubleList(Object list, Object index) {
+        return ((DList) list).getDouble((Integer) index);
+    }
+
+    private static Object getList(Object list, Object index) {
+        return ((DList) list).get((Integer) index);
+    }
+
+    private static Object getLink(Object link, Object index) {
+        return ((DLink) link).get((Integer) index);
+    }
+
+    private static Object getVector(Object vector, Object index) {
+        return ((PersistentVector) vector).get((Integer) index);
+    }
+
+    private static Object getPersistentMap(Object map, Object key) {
+        return ((PersistentMap) map).get(key);
+    }
+
+    private static Object getMap(Object map, Object key) {
+        return ((DMap) map).getValue(key);
+    }
+
+    private static Object getChar(Object string, Object index) {
+        char c = ((CharSequence) string).charAt((Integer) index);
+        return c < ASCII.length ? ASCII[c] : String.valueOf(c);
+    }
+
+    private static Object getProperty(Object object, Object key) {
+        if (key instanceof Integer)
+            return getElement(object, key);
+        return DObject.getObject(String.valueOf(key), (DObject) object);
+    }
+
+    private static Object getElement(Object object, Object index) {
+        return DObject.getElement((Integer) index, (DObject) object);
+    }
+
+    private static void setIntList(Object list, Object index, Object value) {
+        ((DList) list).setInt((Integer) index, (Integer) value);
+    }
+
+    private static void setDoubleList(Object list, Object index, Object value) {
+        ((DList) list).setDouble((Integer) index, (Double) value);
+    }
+
+    private static void setList(Object list, Object index, Object value) {
+        ((DList) list).set((Integer) index, value);
+    }
+
+    private static void setMap(Object map, Object key, Object value) {
+        ((DMap) map).put(key, value);
+    }
+
+    private static void setProperty(Object object, Object key, Object value) {
+        if (key instanceof Integer)
+            setElement(object, key, value);
+        else
+            ((DObject) object).define(String.valueOf(key), value);
+    }
+
+    private static void setElement(Object object, Object index, Object value) {
+        ((DObject) object).defineElement((Integer) index, value);
+    }
+
+    // generic paths
+
+    @SuppressWarnings("unchecked")
+    private static Object get(Object receiver, Object key) {
+        if (receiver instanceof DList)
+            return ((DList) receiver).get(Iteration.toIndex(key));
+        if (receiver instanceof DMap)
+            return ((DMap) receiver).getValue(key);
+        if (receiver instanceof DLink)
+            return ((DLink) receiver).get(Iteration.toIndex(key));
+        if (receiver instanceof CharSequence)
+            return getChar(receiver, Iteration.toIndex(key));
+        if (receiver instanceof DObject && !(receiver instanceof Iterable))
+            return getProperty(receiver, key);
+        if (receiver instanceof List)
+            return ((List<Object>) receiver).get(Iteration.toIndex(key));
+        if (receiver instanceof Map)
+            return ((Map<Object, Object>) receiver).get(key);
+        if (receiver instanceof Object[])
+            return ((Object[]) receiver)[Iteration.toIndex(key)];
+        if (TypedArrays.isTypedArray(receiver))
+            return TypedArrays.get(receiver, Iteration.toIndex(key));
+        throw notSubscriptable(receiver);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void set(Object receiver, Object key, Object value) {
+        if (receiver instanceof DList)
+            ((DList) receiver).set(Iteration.toIndex(key), value);
+        else if (receiver instanceof DMap)
+            ((DMap) receiver).put(key, value);
+        else if (receiver instanceof DObject && !(receiver instanceof Iterable))
+            setProperty(receiver, key, value);
+        else if (receiver instanceof List)
+            ((List<Object>) receiver).set(Iteration.toIndex(key), value);
+        else if (receiver instanceof Map)
+            ((Map<Object, Object>) receiver).put(DStringView.key(key), value);
+        else if (receiver instanceof Object[])
+            ((Object[]) receiver)[Iteration.toIndex(key)] = value;
+        else if (TypedArrays.isTypedArray(receiver))
+            TypedArrays.set(receiver, Iteration.toIndex(key), value);
+        else
+            throw notSubscriptable(receiver);
+    }
+
+    private static IllegalArgumentException notSubscriptable(Object receiver) {
+        return new IllegalArgumentException((receiver == null ? "null" : receiver.getClass()
+                                                                               .getName())
+                + " is not subscriptable");
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler;
+
+import compiler.main.CafeCompiler;
+import compiler.main.Main.Result;
+import runtime.CafeRuntime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+// Compiles Cafe modules into a directory and runs them in a fresh runtime
+// searching that directory, capturing what they print.
+public final class CafeProgram {
+    private final File directory;
+
+    private CafeProgram(File directory) {
+        this.directory = directory;
+    }
+
+    public static CafeProgram in(File directory) {
+        return new CafeProgram(directory);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    // writes the source of a module and compiles it
+    public CafeProgram module(String name, String source) throws IOException {
+        File file = new File(directory, name + ".cafe");
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        return compile(file);
+    }
+
+    // copies a test resource, e.g. "/runtime/loops.cafe", and compiles it
+    public CafeProgram resource(String path) throws IOException {
+        File file = new File(directory, path.substring(path.lastIndexOf('/') + 1));
+        try (InputStream in = CafeProgram.class.getResourceAsStream(path)) {
+            assertNotNull("Missing resource " + path, in);
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return compile(file);
+    }
+
+    private CafeProgram compile(File file) {
+        assertEquals("Compiling " + file.getName(), Result.OK, new CafeCompiler(file.getPath()).compile());
+        return this;
+    }
+
+    public CafeRuntime runtime() {
+        return new CafeRuntime(singletonList(directory.getPath()));
+    }
+
+    // runs a program from its main module in a new runtime
+    public String run(String module) throws Throwable {
+        CafeRuntime runtime = runtime();
+        return capture(() -> runtime.run(runtime.load(module)));
+    }
+
+    public interface Action {
+        void run() throws Throwable;
+    }
+
+    // what the action prints, with \n line ends
+    public static String capture(Action action) throws Throwable {
+        PrintStream out = System.out;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(buffer, true, "UTF-8"));
+        try {
+            action.run();
+        } finally {
+            System.setOut(out);
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n");
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClosureTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void closuresCaptureTheirEnvironment() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/syntax/closures.cafe")
+                                   .run("closures");
+        assertEquals("15\n"
+                + "3\n"
+                + "120\n"
+                + "6\n"
+                + "49\n"
+                + "[0, 1, 2]\n"
+                + "42\n"
+                + "[10, 11]\n"
+                + "9\n"
+                + "true\n"
+                + "false\n", output);
+    }
+
+    @Test
+    public void modulesCompiledInOneProcessHaveTheirOwnScopes() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .module("first", "export func make() { return func(x) { return x + 1; }; }\n")
+                                   .module("second", "import make from \"first\";\n"
+                                           + "var inc = make();\n"
+                                           + "cmd.println(inc(1));\n")
+                                   .run("second");
+        assertEquals("2\n", output);
+    }
+}
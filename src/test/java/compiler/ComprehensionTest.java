@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class ComprehensionTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void comprehensionsBuildEachKindOfCollection() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/syntax/comprehensions.cafe")
+                                   .run("comprehensions");
+        assertEquals("[4, 6]\n"
+                + "[0, 1, 2, 3, 4]\n"
+                + "set[1, 2]\n"
+                + "link[2, 3, 4]\n"
+                + "map[[a, 1], [b, 2]]\n"
+                + "map[[1, a], [2, b]]\n"
+                + "[1, 2, 3]\n"
+                + "[[1, 0], [2, 0]]\n"
+                + "[a, b, c]\n"
+                + "[0, 1, 4, 9]\n", output);
+    }
+
+    @Test
+    public void emptySourceGivesEmptyCollection() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .module("empty", "cmd.println([x loop x in []]);\n"
+                                           + "cmd.println(set[x loop x in [0..0]]);\n")
+                                   .run("empty");
+        assertEquals("[]\nset[]\n", output);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class StringConcatTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void chainsConcatenateLeftToRight() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/syntax/concat.cafe")
+                                   .run("concat");
+        assertEquals("1:x:[1, 2]\n"
+                + "3a34\n"
+                + "a3c\n"
+                + "1qx\n"
+                + "k1.5true\n"
+                + "2\n"
+                + "<1><x>\n", output);
+    }
+
+    @Test
+    public void classesStayLoadableOnJava8() throws Throwable {
+        CafeProgram program = CafeProgram.in(folder.getRoot())
+                                         .resource("/syntax/concat.cafe");
+        byte[] bytes = Files.readAllBytes(new File(program.getDirectory(), "concat.class").toPath());
+        assertEquals(52, ((bytes[6] & 0xff) << 8) | (bytes[7] & 0xff));
+        assertFalse(new String(bytes, StandardCharsets.ISO_8859_1).contains("StringConcatFactory"));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler;
+
+import library.DStruct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StructTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void structsHoldTheirFieldsAndMore() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/syntax/structs.cafe")
+                                   .run("structs");
+        assertEquals("25\n"
+                + "6\n"
+                + "a\n"
+                + "Point{x=6, y=4}\n"
+                + "2\n"
+                + "5\n"
+                + "5\n"
+                + "6\n", output);
+    }
+
+    @Test
+    public void structsCompileToClassesWithFields() throws Throwable {
+        File directory = CafeProgram.in(folder.getRoot())
+                                    .resource("/syntax/structs.cafe")
+                                    .getDirectory();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI()
+                                                                           .toURL()})) {
+            Class<?> point = loader.loadClass("structs$Point");
+            assertTrue(DStruct.class.isAssignableFrom(point));
+            assertEquals(Object.class, point.getField("x")
+                                            .getType());
+
+            DStruct struct = (DStruct) point.getConstructor(Object.class, Object.class)
+                                            .newInstance(1, 2);
+            struct.define("x", 10);
+            assertEquals(10, struct.get("x"));
+            assertEquals(10, point.getField("x")
+                                  .get(struct));
+
+            MethodHandle getter = DStruct.fieldHandle(point, "y", genericMethodType(1));
+            assertEquals(2, getter.invoke(struct));
+            assertNull(DStruct.fieldHandle(point, "z", genericMethodType(1)));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler;
+
+import compiler.main.CafeCompiler;
+import compiler.main.Main.Result;
+import library.DObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TypeAnnotationTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void annotatedFunctionsKeepTheirResults() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/syntax/typed.cafe")
+                                   .run("typed");
+        assertEquals("6765\n"
+                + "55\n"
+                + "1.75\n"
+                + "4999950000\n"
+                + "true\n"
+                + "false\n"
+                + "55\n"
+                + "8\n"
+                + "31\n", output);
+    }
+
+    @Test
+    public void annotatedFunctionsGetPrimitiveSignatures() throws Throwable {
+        File directory = CafeProgram.in(folder.getRoot())
+                                    .resource("/syntax/typed.cafe")
+                                    .getDirectory();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI()
+                                                                           .toURL()})) {
+            Class<?> module = loader.loadClass("typed");
+            assertEquals(int.class, module.getDeclaredMethod("fib#typed", DObject.class, int.class)
+                                          .getReturnType());
+            assertEquals(double.class, module.getDeclaredMethod("avg#typed", DObject.class, double.class, int.class)
+                                             .getReturnType());
+        }
+    }
+
+    @Test
+    public void valuesWidenToTheAnnotatedType() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/syntax/widening.cafe")
+                                   .run("widening");
+        assertEquals("1.0\n"
+                + "0\n"
+                + "7.0\n"
+                + "3.0\n", output);
+    }
+
+    private Result compile(String name, String source) throws IOException {
+        File file = new File(folder.getRoot(), name + ".cafe");
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        return new CafeCompiler(file.getPath()).compile();
+    }
+
+    @Test
+    public void narrowingAssignmentsDoNotCompile() throws Throwable {
+        assertEquals(Result.ERROR, compile("local", "func f() { var y: int = 3; y = y + 0.5; return y; }\n"
+                + "cmd.println(f());\n"));
+        assertFalse(new File(folder.getRoot(), "local.class").exists());
+    }
+
+    @Test
+    public void narrowingCallsDoNotCompile() throws Throwable {
+        assertEquals(Result.ERROR, compile("call", "func half(a: double): double { return a / 2; }\n"
+                + "func take(a: int): int { return a; }\n"
+                + "cmd.println(take(half(5.9)));\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void moduleVariablesRejectNarrowingValues() throws Throwable {
+        CafeProgram.in(folder.getRoot())
+                   .module("global", "var x: int = 3;\nx = x + 0.5;\n")
+                   .run("global");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dynamicArgumentsAreChecked() throws Throwable {
+        CafeProgram.in(folder.getRoot())
+                   .module("argument", "func half(a) { return a / 2; }\n"
+                           + "func take(a: int): int { return a; }\n"
+                           + "cmd.println(take(half(5.9)));\n")
+                   .run("argument");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dynamicStringsAreRejected() throws Throwable {
+        CafeProgram.in(folder.getRoot())
+                   .module("string", "func id(a) { return a; }\n"
+                           + "func take(a: int): int { return a; }\n"
+                           + "cmd.println(take(id(\"7\")));\n")
+                   .run("string");
+    }
+}
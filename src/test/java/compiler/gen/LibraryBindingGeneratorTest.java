@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.gen;
+
+import library.DObject;
+import library.DRope;
+import library.DStringView;
+import library.io.BasicIO;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.LibraryBindings;
+import runtime.StandardLib;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LibraryBindingGeneratorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final class BindingLoader extends ClassLoader {
+        BindingLoader() {
+            super(LibraryBindingGeneratorTest.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    @Test
+    public void bindingsHoldThePublicStaticMembers() throws Throwable {
+        byte[] bytes = LibraryBindingGenerator.generate(BasicIO.class);
+        Class<?> bindings = new BindingLoader().define(BasicIO.class.getName() + LibraryBindings.SUFFIX, bytes);
+        Object[] methods = (Object[]) bindings.getMethod(LibraryBindings.METHODS)
+                                              .invoke(null);
+        Set<Object> names = new HashSet<>();
+        for (int i = 0; i < methods.length; i += 2) {
+            names.add(methods[i]);
+            assertTrue(methods[i + 1] instanceof MethodHandle);
+        }
+        assertEquals(new HashSet<>(Arrays.asList("print", "println", "input")), names);
+
+        MethodHandle println = (MethodHandle) methods[Arrays.asList(methods)
+                                                            .indexOf("println") + 1];
+        assertEquals(methodType(void.class, DObject.class, Object.class), println.type());
+    }
+
+    @Test
+    public void classesWithoutStaticMembersGetNoBindings() {
+        assertNull(LibraryBindingGenerator.generate(Object.class));
+    }
+
+    @Test
+    public void onlyRegisteredLibrariesAreBound() throws Exception {
+        File classes = folder.getRoot();
+        for (Class<?> library : StandardLib.libraries()) {
+            File directory = new File(classes, library.getPackage()
+                                                      .getName()
+                                                      .replace('.', '/'));
+            assertTrue(directory.isDirectory() || directory.mkdirs());
+        }
+        LibraryBindingGenerator.main(new String[]{classes.getPath()});
+
+        assertTrue(new File(classes, "library/io/BasicIO$Bindings.class").isFile());
+        assertTrue(new File(classes, "library/base/CObject$Bindings.class").isFile());
+        assertFalse(new File(classes, "library/DRope$Bindings.class").exists());
+        assertFalse(new File(classes, "library/DStringView$Bindings.class").exists());
+        assertFalse(StandardLib.libraries()
+                               .contains(DRope.class));
+        assertFalse(StandardLib.libraries()
+                               .contains(DStringView.class));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.gen;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReachabilityTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Set<String> methods(File directory, String module) throws Exception {
+        Set<String> names = new HashSet<>();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toURI()
+                                                                           .toURL()})) {
+            for (Method method : loader.loadClass(module)
+                                       .getDeclaredMethods())
+                names.add(method.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void unreachableFunctionsAreNotEmitted() throws Throwable {
+        CafeProgram program = CafeProgram.in(folder.getRoot());
+        program.module("shaken", "func helper() { return 1; }\n"
+                + "func used() { return helper(); }\n"
+                + "func unused() { return 2; }\n"
+                + "export func api() { return 3; }\n"
+                + "cmd.println(used());\n");
+        Set<String> methods = methods(program.getDirectory(), "shaken");
+        assertTrue(methods.contains("used"));
+        assertTrue(methods.contains("helper"));
+        assertTrue(methods.contains("api"));
+        assertFalse(methods.contains("unused"));
+        assertEquals("1\n", program.run("shaken"));
+    }
+
+    @Test
+    public void unusedImportsAreNotLoaded() throws Throwable {
+        CafeProgram program = CafeProgram.in(folder.getRoot());
+        program.module("main", "import gone from \"missing\";\n"
+                + "cmd.println(\"ran\");\n");
+        assertEquals("ran\n", program.run("main"));
+    }
+}
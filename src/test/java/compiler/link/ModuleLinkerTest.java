@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package compiler.link;
+
+import compiler.CafeProgram;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.LinkedProgram;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ModuleLinkerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CafeProgram program;
+
+    @Before
+    public void compileModules() throws Exception {
+        program = CafeProgram.in(folder.newFolder("app"));
+        assertTrue(new File(program.getDirectory(), "mods").mkdir());
+        program.module("mods/util", "export func twice(x) { return x * 2; }\n")
+               .module("mods/deep", "import twice from \"mods/util\";\n"
+                       + "export func quad(x) { return twice(twice(x)); }\n")
+               .module("main", "import quad from \"mods/deep\";\ncmd.println(quad(3));\n");
+    }
+
+    private Path link(String main) throws LinkException {
+        Path jar = new File(folder.getRoot(), "program.jar").toPath();
+        new ModuleLinker(Collections.singletonList(program.getDirectory()
+                                                          .getPath())).link(main, jar);
+        return jar;
+    }
+
+    private static List<String> lines(JarFile jar, String name) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(jar.getInputStream(jar.getEntry(name)), StandardCharsets.UTF_8))) {
+            for (String line = in.readLine(); line != null; line = in.readLine())
+                lines.add(line);
+        }
+        return lines;
+    }
+
+    @Test
+    public void linkedJarsRunTheProgram() throws Throwable {
+        Path jar = link("main");
+        assertEquals("12\n", CafeProgram.capture(() -> LinkedProgram.run(jar)));
+    }
+
+    @Test
+    public void jarsListModulesInInitializationOrder() throws Throwable {
+        try (JarFile jar = new JarFile(link("main").toFile())) {
+            assertEquals("modules/main", jar.getManifest()
+                                            .getMainAttributes()
+                                            .getValue(LinkedProgram.MAIN_ATTRIBUTE));
+            assertEquals(Arrays.asList("modules/mods/util", "modules/mods/deep"),
+                    lines(jar, LinkedProgram.INIT_ORDER));
+            assertNotNull(jar.getEntry("modules/mods/util.class"));
+            assertNotNull(jar.getEntry("runtime/CafeRuntime.class"));
+        }
+    }
+
+    @Test(expected = LinkException.class)
+    public void missingModulesFailTheLink() throws Throwable {
+        program.module("broken", "import f from \"mods/missing\";\ncmd.println(f());\n");
+        link("broken");
+    }
+
+    @Test(expected = LinkException.class)
+    public void namesMustBeExported() throws Throwable {
+        program.module("broken", "import thrice from \"mods/util\";\ncmd.println(thrice(1));\n");
+        link("broken");
+    }
+}
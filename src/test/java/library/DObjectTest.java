@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DObjectTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void integerKeysUseTheElements() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/elements.cafe")
+                                   .run("elements");
+        assertEquals("abfarneg\n39\nnull\nrow\nseven\naneg\n", output);
+    }
+
+    @Test
+    public void indexStringsNameTheSameSlot() {
+        DObject object = new DObject();
+        object.defineElement(0, "zero");
+        assertEquals("zero", object.get("0"));
+        object.define("12", "twelve");
+        assertEquals("twelve", object.getElement(12));
+    }
+
+    @Test
+    public void otherStringsStayProperties() {
+        DObject object = new DObject();
+        object.define("007", "bond");
+        object.define("-1", "negative");
+        object.define("4294967296", "large");
+        assertNull(object.getElement(7));
+        assertEquals("negative", object.getElement(-1));
+        assertEquals("large", object.get("4294967296"));
+    }
+
+    @Test
+    public void keysListElementsFirst() {
+        DObject object = new DObject();
+        object.define("name", 1);
+        object.defineElement(5000, 2);
+        object.defineElement(1, 3);
+        object.define("0", 4);
+        assertEquals(Arrays.asList("0", "1", "5000", "name"), new ArrayList<>(object.keys()));
+    }
+}
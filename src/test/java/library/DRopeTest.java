@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DRopeTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++)
+            builder.append(c);
+        return builder.toString();
+    }
+
+    @Test
+    public void accumulatedStringsBehaveAsStrings() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/ropes.cafe")
+                                   .run("ropes");
+        assertEquals("0,1,2,3,4,5,6,7,8,9,\n1\n1\nab\n", output);
+    }
+
+    @Test
+    public void numericAccumulationsAreNotRopes() throws Throwable {
+        CafeProgram program = CafeProgram.in(folder.getRoot())
+                                         .module("counters", "func count() {\n"
+                                                 + "    var n = 0;\n"
+                                                 + "    for (var i = 0; i < 10; i = i + 1) { n = n + 1; }\n"
+                                                 + "    return n;\n"
+                                                 + "}\n"
+                                                 + "var total = 0;\n"
+                                                 + "total = total + count();\n"
+                                                 + "cmd.println(total);\n");
+        assertEquals("10\n", program.run("counters"));
+        byte[] module = Files.readAllBytes(new File(program.getDirectory(), "counters.class").toPath());
+        assertFalse(new String(module, StandardCharsets.ISO_8859_1).contains("library/DRope"));
+    }
+
+    @Test
+    public void shortConcatenationsStayStrings() {
+        assertEquals("ab", DRope.concat("a", "b"));
+    }
+
+    @Test
+    public void longConcatenationsBecomeRopes() {
+        String head = repeat('a', DRope.ROPE_THRESHOLD);
+        Object rope = DRope.concat(head, "b");
+        assertTrue(rope instanceof DRope);
+        rope = DRope.concat(rope, "c");
+        assertEquals(head + "bc", rope.toString());
+        assertEquals(head.length() + 2, ((CharSequence) rope).length());
+    }
+
+    @Test
+    public void ropesEqualStringsWithTheSameCharacters() {
+        String head = repeat('x', DRope.ROPE_THRESHOLD);
+        Object rope = DRope.concat(head, "y");
+        assertTrue(rope.equals(head + "y"));
+        assertEquals((head + "y").hashCode(), rope.hashCode());
+    }
+
+    @Test
+    public void valuesLeaveAsStrings() {
+        Object rope = DRope.concat(repeat('x', DRope.ROPE_THRESHOLD), "y");
+        assertEquals(String.class, DRope.value(rope)
+                                        .getClass());
+        Object number = 1;
+        assertSame(number, DRope.value(number));
+        assertTrue(DRope.accumulator(repeat('x', DRope.ROPE_THRESHOLD)) instanceof DRope);
+        assertSame("x", DRope.accumulator("x"));
+    }
+
+    @Test
+    public void flattenAcceptsAnyCharSequence() {
+        assertEquals("ell", DRope.flatten(DStringView.slice("hello", 1, 4)));
+        assertEquals("s", DRope.flatten("s"));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CNumericTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bulkOperationsFromCafe() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/numeric.cafe")
+                                   .run("numeric");
+        assertEquals("[2, 4, 6, 8, 10]\n"
+                + "[2.5, 4.5, 6.0, 8.0, 10.0]\n"
+                + "[1.5, 5.0, 9.0, 16.0, 25.0]\n"
+                + "[3.25, 8.25, 12.0, 20.0, 30.0]\n"
+                + "[3, 6, 9, 12, 15]\n"
+                + "[0.75, 1.25, 1.5, 2.0, 2.5]\n"
+                + "55\n"
+                + "56.5\n"
+                + "15\n"
+                + "4.0\n"
+                + "1.5\n"
+                + "5\n"
+                + "3.0\n", output);
+    }
+
+    @Test
+    public void integerReductionsWidenOnOverflow() {
+        int[] values = new int[100000];
+        Arrays.fill(values, 100000);
+        assertEquals(10000000000L, CNumeric.sum(null, values));
+        assertEquals(6, CNumeric.sum(null, new int[]{1, 2, 3}));
+    }
+
+    @Test
+    public void oddLengthsReduceEveryElement() {
+        double[] values = new double[1000003];
+        Arrays.fill(values, 0.5);
+        assertEquals(500001.5, CNumeric.sum(null, values));
+        assertArrayEquals(new int[]{3, 5, 7}, (int[]) CNumeric.add(null, new int[]{1, 2, 3}, new int[]{2, 3, 4}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lengthsMustMatch() {
+        CNumeric.add(null, new int[]{1, 2}, new int[]{1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyReductionsFail() {
+        CNumeric.mean(null, new double[0]);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.base;
+
+import compiler.CafeProgram;
+import library.DFunc;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.junit.Assert.assertEquals;
+
+public class MemoTableTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static int calls;
+
+    public static Object square(Object self, Object x) {
+        calls++;
+        return (Integer) x * (Integer) x;
+    }
+
+    @Test
+    public void memoizedFunctionsReuseResults() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/memo.cafe")
+                                   .run("memo");
+        assertEquals("102334155\n12\n12\n34\n2\n", output);
+    }
+
+    @Test
+    public void resultsAreCachedPerArgument() throws Throwable {
+        DFunc square = new DFunc(MethodHandles.lookup()
+                                              .findStatic(MemoTableTest.class, "square",
+                                                      methodType(Object.class, Object.class, Object.class)));
+        DFunc memoized = MemoTable.wrap(square, 8);
+        calls = 0;
+        assertEquals(9, memoized.invoke(memoized, 3));
+        assertEquals(9, memoized.invoke(memoized, 3));
+        assertEquals(16, memoized.invoke(memoized, 4));
+        assertEquals(2, calls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sizeMustBePositive() throws Throwable {
+        DFunc square = new DFunc(MethodHandles.lookup()
+                                              .findStatic(MemoTableTest.class, "square",
+                                                      methodType(Object.class, Object.class, Object.class)));
+        MemoTable.wrap(square, 0);
+    }
+}
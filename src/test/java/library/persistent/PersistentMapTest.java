@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.persistent;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentMapTest {
+    // distinct keys with the same hash code
+    private static final class Collider {
+        private final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    @Test
+    public void assocAndDissocKeepOlderVersions() {
+        PersistentMap map = PersistentMap.EMPTY;
+        for (int i = 0; i < 1000; i++)
+            map = map.assoc(i, i * 2);
+        PersistentMap removed = map.dissoc(500);
+        assertEquals(1000, map.get(500));
+        assertNull(removed.get(500));
+        assertEquals(999, removed.size());
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    public void collidingKeysAreKeptApart() {
+        PersistentMap map = PersistentMap.EMPTY.assoc(new Collider(1), "a")
+                                               .assoc(new Collider(2), "b");
+        assertEquals(2, map.size());
+        assertEquals("a", map.get(new Collider(1)));
+        assertEquals("b", map.dissoc(new Collider(1))
+                             .get(new Collider(2)));
+    }
+
+    @Test
+    public void nullKeysAreSupported() {
+        PersistentMap map = PersistentMap.EMPTY.assoc(null, 1);
+        assertTrue(map.containsKey(null));
+        assertEquals(1, map.get(null));
+        assertFalse(map.dissoc(null)
+                       .containsKey(null));
+    }
+
+    @Test
+    public void unchangedUpdatesReturnTheSameMap() {
+        PersistentMap map = PersistentMap.EMPTY.assoc("a", 1);
+        assertSame(map, map.dissoc("b"));
+    }
+
+    @Test
+    public void equalsJavaMapsWithTheSameEntries() {
+        Map<Object, Object> entries = new HashMap<>();
+        entries.put("a", 1);
+        entries.put("b", 2);
+        assertEquals(entries, PersistentMap.of(entries));
+    }
+
+    @Test
+    public void setsHoldEachValueOnce() {
+        PersistentSet set = PersistentSet.EMPTY.conj(1)
+                                               .conj(1)
+                                               .conj(2);
+        assertEquals(2, set.size());
+        assertTrue(set.contains(2));
+        assertFalse(set.disj(2)
+                       .contains(2));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package library.persistent;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class PersistentVectorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void persistentCollectionsFromCafe() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/persistent.cafe")
+                                   .run("persistent");
+        assertEquals("[1, 2, 3]\n"
+                + "[1, 2, 3, 4]\n"
+                + "[10, 2, 3, 4]\n"
+                + "[1, 2, 3]\n"
+                + "5\n"
+                + "4\n"
+                + "5000\n"
+                + "zero\n"
+                + "4999\n"
+                + "6\n"
+                + "1\n"
+                + "null\n"
+                + "3\n"
+                + "2\n"
+                + "true\n"
+                + "b2c3\n"
+                + "{a=1, z=26}\n"
+                + "3\n"
+                + "true\n"
+                + "false\n"
+                + "[2, 3]\n", output);
+    }
+
+    @Test
+    public void updatesLeaveTheOriginalUnchanged() {
+        PersistentVector vector = PersistentVector.EMPTY;
+        for (int i = 0; i < 2000; i++)
+            vector = vector.conj(i);
+        PersistentVector changed = vector.assoc(1500, "x");
+        assertEquals(1500, vector.get(1500));
+        assertEquals("x", changed.get(1500));
+        assertEquals(2000, changed.size());
+    }
+
+    @Test
+    public void popShrinksAcrossNodeBoundaries() {
+        PersistentVector vector = PersistentVector.of(Arrays.asList(new Integer[1057]));
+        for (int i = 0; i < 1057; i++)
+            vector = vector.assoc(i, i);
+        for (int i = 1056; i >= 0; i--) {
+            assertEquals(i, vector.get(vector.size() - 1));
+            vector = vector.pop();
+        }
+        assertEquals(0, vector.size());
+    }
+
+    @Test
+    public void transientsBuildTheSameVector() {
+        PersistentVector.Transient builder = PersistentVector.EMPTY.asTransient();
+        for (int i = 0; i < 100; i++)
+            builder.conj(i);
+        PersistentVector vector = builder.persistent();
+        assertEquals(100, vector.size());
+        assertEquals(99, vector.get(99));
+        assertEquals(0, PersistentVector.EMPTY.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indicesAreChecked() {
+        PersistentVector.of(Arrays.asList(1, 2)).get(2);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CafeRuntimeTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CafeProgram program;
+
+    @Before
+    public void compileModules() throws Exception {
+        program = CafeProgram.in(folder.getRoot())
+                             .module("counter", "var n = 0;\nexport func next() { n = n + 1; return n; }\n")
+                             .module("main", "import next from \"counter\";\n"
+                                     + "cmd.println(next());\n"
+                                     + "cmd.println(next());\n");
+    }
+
+    @Test
+    public void runtimesDoNotShareModuleState() throws Throwable {
+        assertEquals("1\n2\n", program.run("main"));
+        assertEquals("1\n2\n", program.run("main"));
+    }
+
+    @Test
+    public void eachRuntimeLoadsItsOwnClasses() throws Throwable {
+        CafeRuntime first = program.runtime();
+        CafeRuntime second = program.runtime();
+        Class<?> module = first.load("main");
+        assertNotSame(module, second.load("main"));
+        assertSame(module, first.load("main"));
+        assertSame(first, CafeRuntime.of(module));
+    }
+
+    @Test
+    public void concurrentRuntimesRunIndependently() throws Throwable {
+        Throwable[] failures = new Throwable[4];
+        Thread[] threads = new Thread[failures.length];
+        for (int i = 0; i < threads.length; i++) {
+            CafeRuntime runtime = program.runtime();
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    runtime.run(runtime.load("main"));
+                } catch (Throwable t) {
+                    failures[index] = t;
+                }
+            });
+        }
+        String output = CafeProgram.capture(() -> {
+            for (Thread thread : threads)
+                thread.start();
+            for (Thread thread : threads)
+                thread.join();
+        });
+        for (Throwable failure : failures) {
+            if (failure != null)
+                throw failure;
+        }
+        // every runtime counts from 1 on its own
+        String[] lines = output.split("\n");
+        Arrays.sort(lines);
+        assertEquals(Arrays.asList("1", "1", "1", "1", "2", "2", "2", "2"), Arrays.asList(lines));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void modulesBelongToTheRuntimeWhichLoadedThem() throws Throwable {
+        CafeRuntime first = program.runtime();
+        program.runtime()
+               .run(first.load("main"));
+    }
+
+    @Test
+    public void foreignModulesAreLoadedThroughTheRegistry() throws Throwable {
+        CafeRuntime runtime = program.runtime();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{program.getDirectory()
+                                                                         .toURI()
+                                                                         .toURL()})) {
+            Class<?> foreign = loader.loadClass("main");
+            assertEquals("1\n2\n", CafeProgram.capture(() -> runtime.run(foreign)));
+            assertSame(CafeRuntime.getDefault(), CafeRuntime.of(foreign));
+        }
+    }
+
+    private WeakReference<CafeRuntime> runAndDrop() throws Throwable {
+        CafeRuntime runtime = program.runtime();
+        CafeProgram.capture(() -> runtime.run(runtime.load("main")));
+        return new WeakReference<>(runtime);
+    }
+
+    @Test
+    public void droppedRuntimesAreCollected() throws Throwable {
+        WeakReference<CafeRuntime> runtime = runAndDrop();
+        for (int i = 0; i < 20 && runtime.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(runtime.get());
+    }
+}
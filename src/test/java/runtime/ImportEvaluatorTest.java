@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.imports.CafeModulePath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class ImportEvaluatorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CafeProgram program;
+
+    @Before
+    public void compileModules() throws Exception {
+        program = CafeProgram.in(folder.getRoot())
+                             .module("shared", "cmd.println(\"shared\");\nexport var base = 10;\n")
+                             .module("left", "import base from \"shared\";\nexport func left() { return base + 1; }\n")
+                             .module("right", "import base from \"shared\";\nexport func right() { return base + 2; }\n")
+                             .module("main", "import left from \"left\";\n"
+                                     + "import right from \"right\";\n"
+                                     + "cmd.println(left() + right());\n");
+    }
+
+    @Test
+    public void sharedModulesInitializeOnce() throws Throwable {
+        assertEquals("shared\n23\n", program.run("main"));
+    }
+
+    @Test
+    public void modulesOfADirectoryShareALoader() throws Throwable {
+        CafeRuntime runtime = program.runtime();
+        CafeProgram.capture(() -> runtime.run(runtime.load("main")));
+        ClassLoader loader = runtime.load("main")
+                                    .getClassLoader();
+        for (String module : new String[]{"shared", "left", "right"}) {
+            CafeModulePath path = (CafeModulePath) runtime.getModuleRegistry()
+                                                          .resolve(module);
+            assertSame(loader, path.load()
+                                   .getClassLoader());
+        }
+    }
+
+    @Test
+    public void exportsAreKeptPerModule() throws Throwable {
+        CafeRuntime runtime = program.runtime();
+        CafeProgram.capture(() -> runtime.run(runtime.load("main")));
+        CafeModulePath shared = (CafeModulePath) runtime.getModuleRegistry()
+                                                        .resolve("shared");
+        ExportMap exports = runtime.getImportEvaluator()
+                                   .require(shared);
+        assertNotNull(exports);
+        assertSame(exports, runtime.getImportEvaluator()
+                                   .require(shared));
+        assertEquals(10, exports.getExport("base"));
+    }
+}
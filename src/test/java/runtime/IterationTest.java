@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import library.DList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.indy.IterationID;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class IterationTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void loopsOverEveryKindOfSource() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/loops.cafe")
+                                   .run("loops");
+        assertEquals("[0, 1]\n[1, 2]\n[2, 3]\n"
+                + "a=1\nb=2\n"
+                + "a\nb\n"
+                + "0\n1\n3\n4\n"
+                + "h\ni\n"
+                + "6\n15\n3\n4950\n6\n", output);
+    }
+
+    @Test
+    public void stringsIterateOverTheirCharacters() {
+        List<Object> characters = new ArrayList<>();
+        Iterator<?> iterator = Iteration.iterator("abc");
+        while (iterator.hasNext())
+            characters.add(iterator.next());
+        assertEquals(Arrays.asList("a", "b", "c"), characters);
+        assertEquals(3, Iteration.sizeHint("abc"));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhaustedStringIteratorThrows() {
+        Iterator<?> iterator = Iteration.iterator("");
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @Test
+    public void nullSourcesKeepTheLinkedModes() throws Throwable {
+        CallSite site = IterationID.bootstrap(MethodHandles.lookup(), IterationID.LOOP,
+                methodType(int.class, Object.class));
+        MethodHandle invoker = site.dynamicInvoker();
+        assertEquals(2, (int) invoker.invoke(DList.range(0, 2)));
+        MethodHandle linked = site.getTarget();
+        assertEquals(Iteration.ITERATOR, (int) invoker.invoke(null));
+        assertSame(linked, site.getTarget());
+        assertEquals(3, (int) invoker.invoke(DList.range(0, 3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loopsOverNullFail() throws Throwable {
+        CafeProgram.in(folder.getRoot())
+                   .module("empty", "var xs = null;\nloop x in xs { cmd.println(x); }\n")
+                   .run("empty");
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class LazyImportTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CafeProgram program;
+
+    @Before
+    public void compileModules() throws Exception {
+        program = CafeProgram.in(folder.getRoot())
+                             .module("heavy", "cmd.println(\"heavy\");\nexport func work() { return 42; }\n");
+    }
+
+    @Test
+    public void lazyModulesInitializeOnFirstUse() throws Throwable {
+        String output = program.module("main", "import lazy work from \"heavy\";\n"
+                                       + "cmd.println(\"start\");\n"
+                                       + "cmd.println(work());\n"
+                                       + "cmd.println(work());\n")
+                               .run("main");
+        assertEquals("start\nheavy\n42\n42\n", output);
+    }
+
+    @Test
+    public void unusedLazyModulesNeverInitialize() throws Throwable {
+        String output = program.module("main", "import lazy work from \"heavy\";\n"
+                                       + "cmd.println(\"start\");\n"
+                                       + "if (1 == 2) { cmd.println(work()); }\n")
+                               .run("main");
+        assertEquals("start\n", output);
+    }
+
+    @Test
+    public void lazyIsStillAnImportableName() throws Throwable {
+        String output = program.module("names", "export var lazy = \"name\";\n")
+                               .module("main", "import lazy from \"names\";\ncmd.println(lazy);\n")
+                               .run("main");
+        assertEquals("name\n", output);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.ImportEvaluator.CyclicDependencyException;
+
+import static org.junit.Assert.assertEquals;
+
+public class ModuleGraphTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void dependenciesInitializeFirst() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .module("d", "cmd.println(\"d\");\nexport var d = 1;\n")
+                                   .module("c", "import d from \"d\";\ncmd.println(\"c\");\nexport var c = d + 1;\n")
+                                   .module("b", "import c from \"c\";\ncmd.println(\"b\");\nexport var b = c + 1;\n")
+                                   .module("main", "import b from \"b\";\ncmd.println(b);\n")
+                                   .run("main");
+        assertEquals("d\nc\nb\n3\n", output);
+    }
+
+    @Test
+    public void independentModulesAllInitialize() throws Throwable {
+        CafeProgram program = CafeProgram.in(folder.getRoot())
+                                         .module("base", "cmd.println(\"base\");\nexport var one = 1;\n");
+        StringBuilder main = new StringBuilder();
+        StringBuilder sum = new StringBuilder("0");
+        for (int i = 0; i < 8; i++) {
+            program.module("leaf" + i, "import one from \"base\";\nexport var v" + i + " = one + " + i + ";\n");
+            main.append("import v")
+                .append(i)
+                .append(" from \"leaf")
+                .append(i)
+                .append("\";\n");
+            sum.append(" + v")
+               .append(i);
+        }
+        main.append("cmd.println(")
+            .append(sum)
+            .append(");\n");
+        assertEquals("base\n36\n", program.module("main", main.toString())
+                                          .run("main"));
+    }
+
+    @Test(expected = CyclicDependencyException.class)
+    public void cyclicImportsAreRejected() throws Throwable {
+        CafeProgram.in(folder.getRoot())
+                   .module("ping", "import pong from \"pong\";\nexport var ping = pong;\n")
+                   .module("pong", "import ping from \"ping\";\nexport var pong = ping;\n")
+                   .module("main", "import ping from \"ping\";\ncmd.println(ping);\n")
+                   .run("main");
+    }
+}
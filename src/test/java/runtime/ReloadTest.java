@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import library.DFunc;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.imports.CafeModulePath;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ReloadTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CafeProgram program;
+    private CafeRuntime runtime;
+
+    @Before
+    public void runProgram() throws Throwable {
+        program = CafeProgram.in(folder.getRoot())
+                             .module("lib", "export func f() { return 1; }\n")
+                             .module("app", "import f from \"lib\";\nexport func tick() { return f(); }\n")
+                             .module("main", "import tick from \"app\";\ncmd.println(tick());\n");
+        run(false);
+    }
+
+    private void run(boolean reloadable) throws Throwable {
+        runtime = program.runtime();
+        runtime.getModuleRegistry()
+               .setReloadable(reloadable);
+        assertEquals("1\n", CafeProgram.capture(() -> runtime.run(runtime.load("main"))));
+    }
+
+    private Object tick() throws Throwable {
+        CafeModulePath app = (CafeModulePath) runtime.getModuleRegistry()
+                                                     .resolve("app");
+        DFunc tick = (DFunc) runtime.getImportEvaluator()
+                                    .require(app)
+                                    .getExport("tick");
+        return tick.invoke(tick);
+    }
+
+    @Test
+    public void importersSeeTheReloadedExports() throws Throwable {
+        assertEquals(1, tick());
+        program.module("lib", "export func f() { return 2; }\n");
+        runtime.reload("lib");
+        assertEquals(2, tick());
+    }
+
+    @Test
+    public void reloadedModulesGetTheirOwnLoader() throws Throwable {
+        ClassLoader shared = runtime.load("app")
+                                    .getClassLoader();
+        assertSame(shared, runtime.load("lib")
+                                  .getClassLoader());
+        Class<?> reloaded = runtime.reload("lib");
+        assertNotSame(shared, reloaded.getClassLoader());
+        assertSame(shared, runtime.load("app")
+                                  .getClassLoader());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void uninitializedModulesCannotBeReloaded() throws Throwable {
+        program.module("idle", "export var x = 1;\n");
+        runtime.reload("idle");
+    }
+
+    // reloads lib, calling through the sites which imported the version it
+    // replaces, and returns that version
+    private WeakReference<Class<?>> replace(int version) throws Throwable {
+        Class<?> previous = runtime.load("lib");
+        program.module("lib", "export func f() { return " + version + "; }\n");
+        runtime.reload("lib");
+        assertEquals(version, tick());
+        return new WeakReference<>(previous);
+    }
+
+    private static void collect(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void replacedVersionsAreCollected() throws Throwable {
+        replace(2);
+        WeakReference<Class<?>> second = replace(3);
+        collect(second);
+        assertNull(second.get());
+    }
+
+    @Test
+    public void reloadableRegistriesCollectTheFirstVersion() throws Throwable {
+        run(true);
+        assertNotSame(runtime.load("app")
+                             .getClassLoader(), runtime.load("lib")
+                                                       .getClassLoader());
+        WeakReference<Class<?>> first = replace(2);
+        collect(first);
+        assertNull(first.get());
+    }
+}
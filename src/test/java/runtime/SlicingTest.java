@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import library.DStringView;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SlicingTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void slicesKeepValueSemantics() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/slices.cafe")
+                                   .run("slices");
+        assertEquals("[2, 3, 4]\n"
+                + "[1, 2, 3, 4, 5]\n"
+                + "[20, 3, 4]\n"
+                + "[20, 3, 4]\n"
+                + "[30]\n"
+                + "[]\n"
+                + "world\n"
+                + "owo\n"
+                + "1\n"
+                + "2\n", output);
+    }
+
+    @Test
+    public void trailersApplyToTheSlice() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/chains.cafe")
+                                   .run("chains");
+        assertEquals("20\n"
+                + "[30]\n"
+                + "e\n"
+                + "ll\n"
+                + "2\n", output);
+    }
+
+    @Test
+    public void stringViewsEqualStringsWithTheSameCharacters() {
+        CharSequence view = DStringView.slice("hello world", 6, 11);
+        assertEquals("world", view.toString());
+        assertTrue(view.equals("world"));
+        assertTrue(view.equals(DStringView.slice("a world", 2, 7)));
+        assertEquals("world".hashCode(), view.hashCode());
+
+        Map<Object, Object> map = new HashMap<>();
+        map.put("world", 1);
+        assertEquals(1, map.get(view));
+    }
+
+    @Test
+    public void stringViewsAreMaterializedAsKeys() {
+        CharSequence view = DStringView.slice("hello", 1, 3);
+        assertEquals(String.class, DStringView.key(view)
+                                              .getClass());
+        Object key = "el";
+        assertSame(key, DStringView.key(key));
+    }
+
+    @Test
+    public void slicesAreClamped() {
+        assertEquals("llo", DStringView.slice("hello", 2, 10)
+                                       .toString());
+        assertEquals("", DStringView.slice("hello", 4, 1)
+                                    .toString());
+    }
+}
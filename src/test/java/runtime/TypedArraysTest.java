@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypedArraysTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void arraysAreUsableFromCafe() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/arrays.cafe")
+                                   .run("arrays");
+        assertEquals("[7, 7, 3, 7, 7]\n"
+                + "31\n"
+                + "[1.5, 2.0, 4.0]\n"
+                + "2.0\n"
+                + "3\n"
+                + "[1, 2, 44, -1]\n"
+                + "45\n"
+                + "[0, 0, 7, 7, 3, 7, 7, 0]\n"
+                + "[9, 9, 7]\n"
+                + "77377\n"
+                + "1.52.04.0\n"
+                + "499500\n", output);
+    }
+
+    @Test
+    public void onlyPrimitiveArraysAreTyped() {
+        assertTrue(TypedArrays.isTypedArray(new int[0]));
+        assertTrue(TypedArrays.isTypedArray(new double[0]));
+        assertTrue(TypedArrays.isTypedArray(new byte[0]));
+        assertFalse(TypedArrays.isTypedArray(new Object[0]));
+        assertFalse(TypedArrays.isTypedArray("s"));
+    }
+
+    @Test
+    public void elementsAreBoxedAndConverted() {
+        int[] ints = new int[2];
+        TypedArrays.set(ints, 1, 5);
+        assertEquals(5, TypedArrays.get(ints, 1));
+        assertEquals(2, TypedArrays.length(ints));
+
+        double[] doubles = new double[1];
+        TypedArrays.set(doubles, 0, 2);
+        assertArrayEquals(new double[]{2.0}, doubles, 0);
+        assertEquals("[0, 5]", TypedArrays.toString(ints));
+    }
+}
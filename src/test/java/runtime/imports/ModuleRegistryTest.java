@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.imports;
+
+import compiler.CafeProgram;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runtime.CafeRuntime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModuleRegistryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CafeProgram program;
+
+    @Before
+    public void compileModules() throws Exception {
+        program = CafeProgram.in(folder.newFolder("app"));
+        assertTrue(new File(program.getDirectory(), "mods").mkdir());
+        program.module("mods/util", "export func twice(x) { return x * 2; }\nexport var name = \"util\";\n")
+               .module("mods/deep", "import twice from \"mods/util\";\n"
+                       + "export func quad(x) { return twice(twice(x)); }\n")
+               .module("main", "import twice, name from \"mods/util\";\n"
+                       + "import quad from \"mods/deep\";\n"
+                       + "cmd.println(twice(21));\n"
+                       + "cmd.println(name);\n"
+                       + "cmd.println(quad(3));\n");
+    }
+
+    @Test
+    public void modulesImportFromSubdirectories() throws Throwable {
+        assertEquals("42\nutil\n12\n", program.run("main"));
+    }
+
+    @Test
+    public void resolvedModulesAreCached() throws Throwable {
+        ModuleRegistry registry = program.runtime()
+                                         .getModuleRegistry();
+        ModulePath util = registry.resolve("mods/util");
+        assertTrue(util instanceof CafeModulePath);
+        assertEquals("mods/util.class", ((CafeModulePath) util).getEntry());
+        assertSame(util, registry.resolve("mods/util"));
+        assertEquals(util, registry.resolve("mods/../mods/util"));
+    }
+
+    @Test
+    public void modulesKnowTheirRegistry() throws Throwable {
+        CafeRuntime runtime = program.runtime();
+        assertSame(runtime.getModuleRegistry(), ModuleRegistry.of(runtime.load("main")));
+    }
+
+    @Test
+    public void earlierSearchPathEntriesWin() throws Throwable {
+        File first = CafeProgram.in(folder.newFolder("first"))
+                                .module("lib", "export var origin = \"first\";\n")
+                                .module("main", "import origin from \"lib\";\ncmd.println(origin);\n")
+                                .getDirectory();
+        File second = CafeProgram.in(folder.newFolder("second"))
+                                 .module("lib", "export var origin = \"second\";\n")
+                                 .getDirectory();
+        CafeRuntime runtime = new CafeRuntime(Arrays.asList(second.getPath(), first.getPath()));
+        assertEquals("second\n", CafeProgram.capture(() -> runtime.run(runtime.load("main"))));
+    }
+
+    @Test
+    public void modulesResolveFromJars() throws Throwable {
+        File jar = new File(folder.getRoot(), "mods.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("mods/util.class"));
+            out.write(Files.readAllBytes(new File(program.getDirectory(), "mods/util.class").toPath()));
+            out.closeEntry();
+        }
+        CafeRuntime runtime = new CafeRuntime(Collections.singletonList(jar.getPath()));
+        ModulePath util = runtime.getModuleRegistry()
+                                 .resolve("mods/util");
+        assertTrue(util instanceof CafeModulePath);
+        assertEquals("util", ((CafeModulePath) util).load()
+                                                    .getName());
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void missingModulesAreNotFound() throws Throwable {
+        program.runtime()
+               .getModuleRegistry()
+               .resolve("mods/missing");
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.indy;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class FunctionReferenceTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void referenceSitesShareOneFunction() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .module("refs", "func f(x) { return x + 1; }\n"
+                                           + "func g() { return f; }\n"
+                                           + "var a = f;\n"
+                                           + "var b = g();\n"
+                                           + "var same = (a == b);\n"
+                                           + "cmd.println(same);\n"
+                                           + "a.tag = \"t\";\n"
+                                           + "cmd.println(g().tag);\n"
+                                           + "cmd.println(b(1));\n")
+                                   .run("refs");
+        assertEquals("true\nt\n2\n", output);
+    }
+
+    @Test
+    public void importedFunctionsAreTheExportedOnes() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .module("lib", "export func f() { return 1; }\n"
+                                           + "export func self() { return f; }\n")
+                                   .module("main", "import f, self from \"lib\";\n"
+                                           + "var same = (f == self());\n"
+                                           + "cmd.println(same);\n")
+                                   .run("main");
+        assertEquals("true\n", output);
+    }
+}
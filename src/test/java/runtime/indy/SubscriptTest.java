@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021. Dhyey Shah, Saurabh Pethani, Romil Nisar
+ *
+ * Developed by:
+ *         Dhyey Shah<dhyeyshah4@gmail.com>
+ *         https://github.com/dhyey-shah
+ *
+ * Contributors:
+ *         Saurabh Pethani<spethani28@gmail.com>
+ *         https://github.com/SaurabhPethani
+ *
+ *         Romil Nisar<rnisar7@gmail.com>
+ *
+ *
+ * This file is part of Cafe.
+ *
+ * Cafe is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation,  version 3 of the License.
+ *
+ * Cafe is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cafe.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package runtime.indy;
+
+import compiler.CafeProgram;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SubscriptTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void subscriptsReadAndWriteEachReceiver() throws Throwable {
+        String output = CafeProgram.in(folder.getRoot())
+                                   .resource("/runtime/subscripts.cafe")
+                                   .run("subscripts");
+        assertEquals("4\n"
+                + "[1, 20, 3]\n"
+                + "[1, x, 3]\n"
+                + "6.0\n"
+                + "3\n"
+                + "e\n"
+                + "6\n"
+                + "11\n"
+                + "[[0, 0], [7, 0]]\n"
+                + "2\nb\nz\n5\n1\n", output);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void numbersAreNotSubscriptable() throws Throwable {
+        CafeProgram.in(folder.getRoot())
+                   .module("number", "var n = 5;\ncmd.println(n[0]);\n")
+                   .run("number");
+    }
+
+    @Test
+    public void nullReceiversKeepTheLinkedTargets() throws Throwable {
+        SubscriptID.SubscriptCallSite site = (SubscriptID.SubscriptCallSite) SubscriptID.bootstrap(
+                MethodHandles.lookup(), SubscriptID.GET, genericMethodType(2));
+        MethodHandle invoker = site.dynamicInvoker();
+        assertEquals(2, invoker.invoke(Arrays.asList(1, 2, 3), 1));
+        MethodHandle linked = site.getTarget();
+        try {
+            invoker.invoke(null, 1);
+            fail("null is not subscriptable");
+        } catch (IllegalArgumentException expected) {
+            // the site is still linked for lists
+        }
+        assertSame(linked, site.getTarget());
+        assertEquals(1, site.depth);
+        assertEquals(3, invoker.invoke(Arrays.asList(1, 2, 3), 2));
+    }
+}